@@ -0,0 +1,147 @@
+package com.dwmyhouse;
+
+import com.dwmyhouse.data.CsvToJdbcImporter;
+import com.dwmyhouse.data.GuestJdbcRepository;
+import com.dwmyhouse.data.GuestMemoryRepository;
+import com.dwmyhouse.data.GuestRepository;
+import com.dwmyhouse.data.GuestStorage;
+import com.dwmyhouse.data.HostJdbcRepository;
+import com.dwmyhouse.data.HostMemoryRepository;
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.HostStorage;
+import com.dwmyhouse.data.JdbcDatabase;
+import com.dwmyhouse.data.ReservationJdbcRepository;
+import com.dwmyhouse.data.ReservationMemoryRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.data.ReservationStorage;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Picks the storage engine from storage.backend in application.properties.
+ * Services depend on GuestStorage, HostStorage and ReservationStorage only.
+ * -csv (default): the @Repository CSV classes are the only storage beans
+ * -jdbc: the embedded SQL repositories are registered as @Primary
+ * -memory: in-memory repositories are registered as @Primary, loaded from the CSV files
+ *  at startup if storage.memory.load.csv is true; changes are lost on exit
+ * The CSV repositories stay registered either way, for the importer and the JSON migration.
+ */
+@Configuration
+public class StorageConfig {
+
+    // ---------------------------------------------------------------- jdbc
+
+    @Bean
+    @Conditional(JdbcBackend.class)
+    public JdbcDatabase jdbcDatabase(@Value("${storage.jdbc.url:jdbc:h2:./data/dwmh}") String url,
+                                     @Value("${storage.jdbc.user:sa}") String user,
+                                     @Value("${storage.jdbc.password:}") String password) {
+        return new JdbcDatabase(url, user, password);
+    }
+
+    @Bean
+    @Primary
+    @Conditional(JdbcBackend.class)
+    public GuestStorage guestJdbcRepository(JdbcDatabase database) {
+        return new GuestJdbcRepository(database);
+    }
+
+    @Bean
+    @Primary
+    @Conditional(JdbcBackend.class)
+    public HostStorage hostJdbcRepository(JdbcDatabase database) {
+        return new HostJdbcRepository(database);
+    }
+
+    @Bean
+    @Primary
+    @Conditional(JdbcBackend.class)
+    public ReservationStorage reservationJdbcRepository(JdbcDatabase database) {
+        return new ReservationJdbcRepository(database);
+    }
+
+    /**
+     * Fills an empty database from the CSV files on first start
+     */
+    @Bean
+    @Conditional(JdbcBackend.class)
+    public CsvToJdbcImporter csvToJdbcImporter(JdbcDatabase database,
+                                               @Value("${storage.jdbc.import.if.empty:true}") boolean importIfEmpty,
+                                               GuestRepository csvGuests,
+                                               HostRepository csvHosts,
+                                               ReservationRepository csvReservations)
+            throws SQLException {
+        CsvToJdbcImporter importer = new CsvToJdbcImporter(database, csvGuests, csvHosts, csvReservations);
+        if (importIfEmpty) {
+            importer.importIfEmpty();
+        }
+        return importer;
+    }
+
+    // ---------------------------------------------------------------- memory
+
+    @Bean
+    @Primary
+    @Conditional(MemoryBackend.class)
+    public GuestStorage guestMemoryRepository(@Value("${storage.memory.load.csv:true}") boolean loadCsv,
+                                              GuestRepository csvGuests) {
+        return loadCsv ? new GuestMemoryRepository(csvGuests.findAll()) : new GuestMemoryRepository();
+    }
+
+    @Bean
+    @Primary
+    @Conditional(MemoryBackend.class)
+    public HostStorage hostMemoryRepository(@Value("${storage.memory.load.csv:true}") boolean loadCsv,
+                                            HostRepository csvHosts) {
+        return loadCsv ? new HostMemoryRepository(csvHosts.findAll()) : new HostMemoryRepository();
+    }
+
+    @Bean
+    @Primary
+    @Conditional(MemoryBackend.class)
+    public ReservationStorage reservationMemoryRepository(@Value("${storage.memory.load.csv:true}") boolean loadCsv,
+                                                          HostRepository csvHosts,
+                                                          ReservationRepository csvReservations) {
+        ReservationMemoryRepository memory = new ReservationMemoryRepository();
+        if (loadCsv) {
+            for (Host h : csvHosts.findAll()) {
+                List<Reservation> hostReservations = csvReservations.findByHost(h.getId());
+                for (Reservation r : hostReservations) {
+                    memory.load(r, h.getId());
+                }
+            }
+        }
+        return memory;
+    }
+
+    // ---------------------------------------------------------------- conditions
+
+    static class JdbcBackend implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return backend(context).equals("jdbc");
+        }
+    }
+
+    static class MemoryBackend implements Condition {
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            return backend(context).equals("memory");
+        }
+    }
+
+    private static String backend(ConditionContext context) {
+        return context.getEnvironment().getProperty("storage.backend", "csv").trim().toLowerCase();
+    }
+}
@@ -0,0 +1,275 @@
+package com.dwmyhouse.data;
+
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Small CSV codec shared by the host, guest and reservation repositories.
+ * Reading: split() records where each field starts and ends in the line (no regex, no String[]),
+ * and the parse methods read ints, ISO dates and decimals straight from those character ranges.
+ * Writing: rows are built into one reusable buffer.
+ * Anything outside the fast paths falls back to the JDK parsers, so results and errors match
+ * line.split(",", -1) + Integer.parseInt / LocalDate.parse / new BigDecimal exactly.
+ *
+ * Instances are not thread-safe; use forThread() to get the current thread's codec.
+ */
+final class CsvCodec {
+
+    private static final ThreadLocal<CsvCodec> PER_THREAD = ThreadLocal.withInitial(CsvCodec::new);
+    private static final int MAX_FAST_DIGITS = 18; // always fits in a long
+
+    private String line;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int fieldCount;
+
+    private final StringBuilder row = new StringBuilder(128);
+    private int rowFields;
+
+    /**
+     * Codec for the calling thread
+     */
+    static CsvCodec forThread() {
+        return PER_THREAD.get();
+    }
+
+    // ---------------------------------------------------------------- reading
+
+    /**
+     * Finds the field boundaries in a line. Same field count as line.split(",", -1).
+     * @param line a CSV line without its line terminator
+     * @return number of fields
+     */
+    int split(String line) {
+        this.line = line;
+        fieldCount = 0;
+        int start = 0;
+        int length = line.length();
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(i) == ',') {
+                addField(start, i);
+                start = i + 1;
+            }
+        }
+        addField(start, length);
+        return fieldCount;
+    }
+
+    private void addField(int start, int end) {
+        if (fieldCount == starts.length) {
+            starts = Arrays.copyOf(starts, fieldCount * 2);
+            ends = Arrays.copyOf(ends, fieldCount * 2);
+        }
+        starts[fieldCount] = start;
+        ends[fieldCount] = end;
+        fieldCount++;
+    }
+
+    int fieldCount() {
+        return fieldCount;
+    }
+
+    String text(int field) {
+        return line.substring(starts[field], ends[field]);
+    }
+
+    boolean isEmpty(int field) {
+        return starts[field] == ends[field];
+    }
+
+    /**
+     * Same as text(field).isBlank() without creating the substring
+     */
+    boolean isBlank(int field) {
+        for (int i = starts[field]; i < ends[field]; i++) {
+            if (!Character.isWhitespace(line.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses a field like Integer.parseInt
+     */
+    int parseInt(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        boolean negative = start < end && line.charAt(start) == '-';
+        int digitsStart = negative ? start + 1 : start;
+        int digits = end - digitsStart;
+        if (digits < 1 || digits > 9) {
+            return Integer.parseInt(text(field));
+        }
+        int value = 0;
+        for (int i = digitsStart; i < end; i++) {
+            int d = line.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return Integer.parseInt(text(field));
+            }
+            value = value * 10 + d;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parses a field like LocalDate.parse (ISO yyyy-MM-dd)
+     */
+    LocalDate parseDate(int field) {
+        int s = starts[field];
+        if (ends[field] - s != 10 || line.charAt(s + 4) != '-' || line.charAt(s + 7) != '-') {
+            return LocalDate.parse(text(field));
+        }
+        int year = digits(s, 4);
+        int month = digits(s + 5, 2);
+        int day = digits(s + 8, 2);
+        if (year < 0 || month < 0 || day < 0) {
+            return LocalDate.parse(text(field));
+        }
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return LocalDate.parse(text(field)); // rethrows the same error LocalDate.parse gives
+        }
+    }
+
+    /**
+     * Parses a field like new BigDecimal(String)
+     */
+    BigDecimal parseDecimal(int field) {
+        int start = starts[field];
+        int end = ends[field];
+        boolean negative = start < end && line.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        boolean digitBeforePoint = false;
+        for (; i < end; i++) {
+            char c = line.charAt(i);
+            if (c == '.' && !seenPoint && digitBeforePoint) {
+                seenPoint = true;
+                continue;
+            }
+            int d = c - '0';
+            if (d < 0 || d > 9 || ++digits > MAX_FAST_DIGITS) {
+                return new BigDecimal(text(field));
+            }
+            unscaled = unscaled * 10 + d;
+            if (seenPoint) {
+                scale++;
+            } else {
+                digitBeforePoint = true;
+            }
+        }
+        if (digits == 0 || (seenPoint && scale == 0)) {
+            return new BigDecimal(text(field));
+        }
+        return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+    }
+
+    /**
+     * Reads a run of ASCII digits
+     * @return the value, or -1 if any character isn't a digit
+     */
+    private int digits(int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int d = line.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    // ---------------------------------------------------------------- writing
+
+    /**
+     * Starts a new row in the reusable buffer
+     */
+    CsvCodec beginRow() {
+        row.setLength(0);
+        rowFields = 0;
+        return this;
+    }
+
+    /**
+     * Appends a text field (null is written as "null", like %s)
+     */
+    CsvCodec field(String value) {
+        separate();
+        row.append(value);
+        return this;
+    }
+
+    CsvCodec field(int value) {
+        separate();
+        row.append(value);
+        return this;
+    }
+
+    /**
+     * Appends a date the way LocalDate.toString() prints it
+     */
+    CsvCodec field(LocalDate value) {
+        separate();
+        if (value == null) {
+            row.append("null");
+            return this;
+        }
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            row.append(value);
+            return this;
+        }
+        pad(year, 4);
+        row.append('-');
+        pad(value.getMonthValue(), 2);
+        row.append('-');
+        pad(value.getDayOfMonth(), 2);
+        return this;
+    }
+
+    /**
+     * Appends a decimal the way toPlainString() prints it
+     */
+    CsvCodec field(BigDecimal value) {
+        separate();
+        row.append(value.toPlainString());
+        return this;
+    }
+
+    /**
+     * The row built so far. Only valid until the next beginRow().
+     */
+    CharSequence row() {
+        return row;
+    }
+
+    /**
+     * Copies the finished row plus a line separator into the target
+     */
+    void endRow(StringBuilder target) {
+        target.append(row).append(System.lineSeparator());
+    }
+
+    private void separate() {
+        if (rowFields++ > 0) {
+            row.append(',');
+        }
+    }
+
+    private void pad(int value, int width) {
+        for (int limit = 10, w = 1; w < width; w++, limit *= 10) {
+            if (value < limit) {
+                row.append('0');
+            }
+        }
+        row.append(value);
+    }
+}
@@ -0,0 +1,86 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Guest;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * One-shot import of the CSV data into the embedded SQL database.
+ * Reservation IDs are kept as they are in the CSV files, then the ID sequence is moved past them.
+ */
+public class CsvToJdbcImporter {
+
+    private final JdbcDatabase database;
+    private final GuestStorage csvGuests;
+    private final HostStorage csvHosts;
+    private final ReservationStorage csvReservations;
+
+    public CsvToJdbcImporter(JdbcDatabase database, GuestStorage csvGuests,
+                             HostStorage csvHosts, ReservationStorage csvReservations) {
+        this.database = database;
+        this.csvGuests = csvGuests;
+        this.csvHosts = csvHosts;
+        this.csvReservations = csvReservations;
+    }
+
+    /**
+     * Imports only if the database has no hosts and no guests yet
+     * @return true if an import ran
+     */
+    public boolean importIfEmpty() throws SQLException {
+        if (count("guest") > 0 || count("host") > 0) {
+            return false;
+        }
+        importAll();
+        return true;
+    }
+
+    /**
+     * Copies every guest, host and reservation from the CSV files
+     */
+    public void importAll() throws SQLException {
+        GuestJdbcRepository guests = new GuestJdbcRepository(database);
+        HostJdbcRepository hosts = new HostJdbcRepository(database);
+        ReservationJdbcRepository reservations = new ReservationJdbcRepository(database);
+
+        System.out.println("Importing guests...");
+        int guestCount = 0;
+        for (Guest g : csvGuests.findAll()) {
+            if (guests.add(g)) {
+                guestCount++;
+            }
+        }
+        System.out.println("Guests imported: " + guestCount);
+
+        System.out.println("Importing hosts and reservations...");
+        int hostCount = 0;
+        int reservationCount = 0;
+        for (Host h : csvHosts.findAll()) {
+            if (hosts.add(h)) {
+                hostCount++;
+            }
+            List<Reservation> hostReservations = csvReservations.findByHost(h.getId());
+            if (reservations.insertAll(hostReservations, h.getId())) {
+                reservationCount += hostReservations.size();
+            }
+        }
+        reservations.resetIdSequence();
+        System.out.println("Hosts imported: " + hostCount);
+        System.out.println("Reservations imported: " + reservationCount);
+    }
+
+    private int count(String table) throws SQLException {
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.dwmyhouse.data;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared crash-safe writer for the CSV repositories.
+ * -replace() writes a temp file next to the target, then fsyncs it and renames it over the target
+ * -append() appends to the target, then fsyncs it
+ * The fsync/rename step is done by one committer thread. It waits up to the commit window for other
+ * writers and commits them as one batch: each file is fsynced once and each folder once per batch.
+ * Callers block until their write is durable.
+ */
+@Component
+public class DurableFileWriter {
+
+    private static final long DEFAULT_WINDOW_MILLIS = 2;
+    private static DurableFileWriter defaultWriter;
+
+    private final long commitWindowNanos;
+    private final BlockingQueue<Commit> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong tempCounter = new AtomicLong();
+    private Thread committer;
+
+    // Metrics
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong maxBatchSize = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public DurableFileWriter(@Value("${durable.commit.window.ms:2}") long commitWindowMillis) {
+        this.commitWindowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, commitWindowMillis));
+    }
+
+    /**
+     * Writer shared by repositories that were built without Spring (tests, tools)
+     */
+    public static synchronized DurableFileWriter defaultWriter() {
+        if (defaultWriter == null) {
+            defaultWriter = new DurableFileWriter(DEFAULT_WINDOW_MILLIS);
+        }
+        return defaultWriter;
+    }
+
+    /**
+     * Atomically replaces the target's contents. Readers see either the old or the new file, never a mix.
+     * @param target file to replace
+     * @param content full new contents
+     */
+    public void replace(Path target, String content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + "." + tempCounter.incrementAndGet() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, content);
+        }
+        try {
+            await(new Commit(temp, target));
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Appends text to the end of the target and makes it durable.
+     * @param target file to append to (created if missing)
+     * @param content text to append
+     */
+    public void append(Path target, String content) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeFully(channel, content);
+        }
+        await(new Commit(null, target));
+    }
+
+    /**
+     * Number of writes committed so far
+     */
+    public long getCommitCount() {
+        return commits.get();
+    }
+
+    /**
+     * Number of group commits (batches) done so far
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    public long getMaxBatchSize() {
+        return maxBatchSize.get();
+    }
+
+    public double getAverageBatchSize() {
+        long b = batches.get();
+        return b == 0 ? 0 : (double) commits.get() / b;
+    }
+
+    /**
+     * Average time from handing a write to the committer until it was durable
+     */
+    public double getAverageCommitLatencyMillis() {
+        long c = commits.get();
+        return c == 0 ? 0 : totalLatencyNanos.get() / (c * 1_000_000.0);
+    }
+
+    public double getMaxCommitLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * One-line summary of the commit metrics, for logging
+     */
+    public String metricsSummary() {
+        return String.format("commits=%d batches=%d avgBatch=%.2f maxBatch=%d avgLatency=%.3fms maxLatency=%.3fms",
+                getCommitCount(), getBatchCount(), getAverageBatchSize(), getMaxBatchSize(),
+                getAverageCommitLatencyMillis(), getMaxCommitLatencyMillis());
+    }
+
+    private void await(Commit commit) throws IOException {
+        ensureCommitter();
+        queue.add(commit);
+        try {
+            commit.done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw (cause instanceof IOException io) ? io : new IOException(cause);
+        }
+    }
+
+    private synchronized void ensureCommitter() {
+        if (committer == null) {
+            committer = new Thread(this::commitLoop, "durable-file-committer");
+            committer.setDaemon(true);
+            committer.start();
+        }
+    }
+
+    private void commitLoop() {
+        while (true) {
+            try {
+                List<Commit> batch = new ArrayList<>();
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + commitWindowNanos;
+                long remaining;
+                while ((remaining = deadline - System.nanoTime()) > 0) {
+                    Commit next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch);
+                commitBatch(batch);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Commits a batch in queue order. Files are fsynced once each, then folders once each.
+     */
+    private void commitBatch(List<Commit> batch) {
+        Set<Path> synced = new LinkedHashSet<>();
+        Set<Path> folders = new LinkedHashSet<>();
+        for (Commit c : batch) {
+            try {
+                if (c.temp != null) {
+                    force(c.temp);
+                    Files.move(c.temp, c.target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                    folders.add(c.target.toAbsolutePath().getParent());
+                } else if (synced.add(c.target)) {
+                    force(c.target);
+                }
+            } catch (Exception e) {
+                c.error = e;
+            }
+        }
+        for (Path folder : folders) {
+            forceFolder(folder);
+        }
+
+        long now = System.nanoTime();
+        for (Commit c : batch) {
+            long latency = now - c.queuedAt;
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+        }
+        commits.addAndGet(batch.size());
+        batches.incrementAndGet();
+        maxBatchSize.accumulateAndGet(batch.size(), Math::max);
+
+        for (Commit c : batch) {
+            if (c.error == null) {
+                c.done.complete(null);
+            } else {
+                c.done.completeExceptionally(c.error);
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, String content) throws IOException {
+        ByteBuffer bytes = StandardCharsets.UTF_8.encode(content);
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private static void force(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Makes the rename durable. Not every OS allows opening a folder, so failures are ignored.
+     */
+    private static void forceFolder(Path folder) {
+        try (FileChannel channel = FileChannel.open(folder, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * A write waiting for the committer. temp is null for appends.
+     */
+    private static class Commit {
+        final Path temp;
+        final Path target;
+        final long queuedAt = System.nanoTime();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        Exception error;
+
+        Commit(Path temp, Path target) {
+            this.temp = temp;
+            this.target = target;
+        }
+    }
+}
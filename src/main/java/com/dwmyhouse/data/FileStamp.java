@@ -0,0 +1,29 @@
+package com.dwmyhouse.data;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Cheap fingerprint of a file on disk (last-modified time and size).
+ * Used by the cached repositories to tell when a file was changed outside the app.
+ */
+record FileStamp(long lastModified, long size) {
+
+    /**
+     * Stamp used for a file that does not exist
+     */
+    static final FileStamp MISSING = new FileStamp(-1L, -1L);
+
+    /**
+     * Reads the current stamp of a file with a single stat call
+     * @param path file to stamp
+     * @return current stamp, or MISSING if the file can't be read
+     */
+    static FileStamp of(Path path) {
+        try {
+            return new FileStamp(Files.getLastModifiedTime(path).toMillis(), Files.size(path));
+        } catch (Exception e) {
+            return MISSING;
+        }
+    }
+}
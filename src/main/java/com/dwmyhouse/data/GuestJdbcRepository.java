@@ -0,0 +1,135 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Guest;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Locale;
+
+/**
+ * Guest repository backed by the embedded SQL database.
+ * Selected with storage.backend=jdbc.
+ */
+public class GuestJdbcRepository implements GuestStorage {
+
+    private static final String COLUMNS = "guest_id, first_name, last_name, email, phone, state";
+
+    private final JdbcDatabase database;
+
+    public GuestJdbcRepository(JdbcDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public List<Guest> findAll() {
+        return query("SELECT " + COLUMNS + " FROM guest ORDER BY row_order");
+    }
+
+    @Override
+    public Guest findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        List<Guest> result = query("SELECT " + COLUMNS + " FROM guest WHERE email_key = ? ORDER BY row_order LIMIT 1",
+                email.toLowerCase(Locale.ROOT));
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public Guest findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        List<Guest> result = query("SELECT " + COLUMNS + " FROM guest WHERE guest_id = ?", id);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public boolean add(Guest guest) {
+        return execute("INSERT INTO guest (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)",
+                guest.getGuestId(), guest.getFirstName(), guest.getLastName(),
+                guest.getEmail(), guest.getPhone(), guest.getState());
+    }
+
+    @Override
+    public boolean update(Guest updatedGuest) {
+        return execute("UPDATE guest SET first_name = ?, last_name = ?, email = ?, phone = ?, state = ? WHERE guest_id = ?",
+                updatedGuest.getFirstName(), updatedGuest.getLastName(), updatedGuest.getEmail(),
+                updatedGuest.getPhone(), updatedGuest.getState(), updatedGuest.getGuestId());
+    }
+
+    @Override
+    public boolean delete(String guestId) {
+        return execute("DELETE FROM guest WHERE guest_id = ?", guestId);
+    }
+
+    /**
+     * One IN (...) query per 500 IDs
+     */
+    @Override
+    public Map<String, Guest> findByIds(Collection<String> ids) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        Map<String, Guest> result = new HashMap<>();
+        for (int from = 0; from < distinct.size(); from += 500) {
+            List<String> chunk = distinct.subList(from, Math.min(distinct.size(), from + 500));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            for (Guest g : query("SELECT " + COLUMNS + " FROM guest WHERE guest_id IN (" + placeholders + ")",
+                    chunk.toArray())) {
+                result.put(g.getGuestId(), g);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Email lookups use indexes; there is no batch API for this table
+     */
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.of(StorageCapability.SECONDARY_INDEXES);
+    }
+
+    private List<Guest> query(String sql, Object... params) {
+        List<Guest> result = new ArrayList<>();
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            JdbcDatabase.bind(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new Guest(rs.getString("guest_id"), rs.getString("first_name"),
+                            rs.getString("last_name"), rs.getString("email"),
+                            rs.getString("phone"), rs.getString("state")));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading guests: " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * @return true if at least one row changed
+     */
+    private boolean execute(String sql, Object... params) {
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            JdbcDatabase.bind(statement, params);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.out.println("Error writing guests: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -10,7 +10,10 @@ import org.springframework.stereotype.Repository;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository
 public class GuestJsonRepository {
@@ -56,6 +59,38 @@ public class GuestJsonRepository {
         return writeAll(guests);
     }
 
+    /**
+     * Appends many guests with one read and one write of the file
+     */
+    public boolean addAll(List<Guest> newGuests) {
+        List<Guest> guests = findAll();
+        guests.addAll(newGuests);
+        return writeAll(guests);
+    }
+
+    /**
+     * Inserts or replaces (matched by ID) many guests with one read and one write.
+     * Running it twice with the same guests leaves the file unchanged.
+     */
+    public boolean upsertAll(List<Guest> changed) {
+        return applyChanges(changed, Set.of());
+    }
+
+    /**
+     * Applies a row-level diff with one read and one write: upserts (matched by ID), then deletes
+     */
+    public boolean applyChanges(List<Guest> upserts, Set<String> deletedIds) {
+        Map<String, Guest> byId = new LinkedHashMap<>();
+        for (Guest existing : findAll()) {
+            byId.put(existing.getGuestId(), existing);
+        }
+        for (Guest c : upserts) {
+            byId.put(c.getGuestId(), c);
+        }
+        byId.keySet().removeAll(deletedIds);
+        return writeAll(new ArrayList<>(byId.values()));
+    }
+
     public boolean update(Guest updatedGuest) {
         List<Guest> guests = findAll();
         for (int i = 0; i < guests.size(); i++) {
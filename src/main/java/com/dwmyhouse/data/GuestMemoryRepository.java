@@ -0,0 +1,119 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Guest;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory guest storage for benchmarking and ephemeral runs. Nothing is written to disk.
+ * Selected with storage.backend=memory.
+ */
+public class GuestMemoryRepository implements GuestStorage {
+
+    private final Map<String, Guest> byId = new LinkedHashMap<>();
+    private final Map<String, Guest> byEmail = new HashMap<>();
+
+    public GuestMemoryRepository() {
+    }
+
+    /**
+     * @param initial guests to start with, e.g. the contents of guests.csv
+     */
+    public GuestMemoryRepository(Collection<Guest> initial) {
+        for (Guest g : initial) {
+            add(g);
+        }
+    }
+
+    @Override
+    public synchronized List<Guest> findAll() {
+        List<Guest> result = new ArrayList<>(byId.size());
+        for (Guest g : byId.values()) {
+            result.add(new Guest(g));
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized Guest findByEmail(String email) {
+        Guest g = email == null ? null : byEmail.get(email.toLowerCase(Locale.ROOT));
+        return g == null ? null : new Guest(g);
+    }
+
+    @Override
+    public synchronized Guest findById(String id) {
+        Guest g = byId.get(id);
+        return g == null ? null : new Guest(g);
+    }
+
+    @Override
+    public synchronized Map<String, Guest> findByIds(Collection<String> ids) {
+        Map<String, Guest> result = new HashMap<>();
+        for (String id : ids) {
+            Guest g = byId.get(id);
+            if (g != null) {
+                result.put(id, new Guest(g));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized boolean add(Guest guest) {
+        if (guest.getGuestId() == null || byId.containsKey(guest.getGuestId())) {
+            return false;
+        }
+        Guest copy = new Guest(guest);
+        byId.put(copy.getGuestId(), copy);
+        indexEmail(copy);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean update(Guest updatedGuest) {
+        Guest old = byId.get(updatedGuest.getGuestId());
+        if (old == null) {
+            return false;
+        }
+        unindexEmail(old);
+        Guest copy = new Guest(updatedGuest);
+        byId.put(copy.getGuestId(), copy);
+        indexEmail(copy);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(String guestId) {
+        Guest old = byId.remove(guestId);
+        if (old == null) {
+            return false;
+        }
+        unindexEmail(old);
+        return true;
+    }
+
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.of(StorageCapability.SECONDARY_INDEXES);
+    }
+
+    private void indexEmail(Guest g) {
+        if (g.getEmail() != null) {
+            byEmail.putIfAbsent(g.getEmail().toLowerCase(Locale.ROOT), g);
+        }
+    }
+
+    private void unindexEmail(Guest g) {
+        if (g.getEmail() != null) {
+            byEmail.remove(g.getEmail().toLowerCase(Locale.ROOT), g);
+        }
+    }
+}
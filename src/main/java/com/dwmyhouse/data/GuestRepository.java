@@ -1,28 +1,53 @@
 package com.dwmyhouse.data;
 
 import com.dwmyhouse.models.Guest;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.PrintWriter;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository for reading Guest data from guests.csv
+ * Keeps a write-through cache of the file, indexed by guest ID and lower-cased email.
+ * The cache is reloaded when the file's modified time or size changes on disk.
  */
 
 @Repository
-public class GuestRepository {
+public class GuestRepository implements GuestStorage {
 
     private static final String HEADER = "guest_id,first_name,last_name,email,phone,state";
     private final Path filePath;
+    private final DurableFileWriter durableWriter;
 
-    public GuestRepository(@Value("${guest.file.path:./data/guest.csv}") String filePath) {
+    // Cached rows in file order plus lookup indexes (first match wins, like the old scans)
+    private final List<Guest> guests = new ArrayList<>();
+    private final Map<String, Guest> byId = new HashMap<>();
+    private final Map<String, Guest> byEmail = new HashMap<>();
+    private FileStamp stamp;
+
+    private long cacheHits;
+    private long cacheMisses;
+
+    public GuestRepository(String filePath) {
+        this(filePath, DurableFileWriter.defaultWriter());
+    }
+
+    @Autowired
+    public GuestRepository(@Value("${guest.file.path:./data/guest.csv}") String filePath,
+                           DurableFileWriter durableWriter) {
         this.filePath = Path.of(filePath);
+        this.durableWriter = durableWriter;
     }
 
     /**
@@ -30,7 +55,97 @@ public class GuestRepository {
      * Skips header and invalid/corrupt lines
      * @return list of all guests
      */
-    public List<Guest> findAll() {
+    public synchronized List<Guest> findAll() {
+        ensureLoaded();
+        List<Guest> result = new ArrayList<>(guests.size());
+        for (Guest g : guests) {
+            result.add(new Guest(g));
+        }
+        return result;
+    }
+
+    /**
+     * Finds a guest by their email address
+     * @param email the guest's email
+     * @return guest or null if not found
+     */
+    public synchronized Guest findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        ensureLoaded();
+        return copyOf(byEmail.get(email.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Finds guest by their ID
+     * @param id the guest's id
+     * @return guest or null if not found
+     */
+    public synchronized Guest findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        ensureLoaded();
+        return copyOf(byId.get(id));
+    }
+
+    /**
+     * Finds several guests with one freshness check of the file
+     * @return found guests by ID; unknown IDs are left out
+     */
+    @Override
+    public synchronized Map<String, Guest> findByIds(Collection<String> ids) {
+        ensureLoaded();
+        Map<String, Guest> result = new HashMap<>();
+        for (String id : ids) {
+            Guest g = id == null ? null : byId.get(id);
+            if (g != null) {
+                result.put(id, new Guest(g));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of reads answered from the cache without touching the file
+     */
+    public synchronized long getCacheHits() {
+        return cacheHits;
+    }
+
+    /**
+     * Number of reads that had to (re)load guests.csv
+     */
+    public synchronized long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * Lookups are served from in-memory indexes over the cached file
+     */
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.of(StorageCapability.SECONDARY_INDEXES);
+    }
+
+    /**
+     * Reloads the cache if it was never loaded or the file changed on disk.
+     */
+    private void ensureLoaded() {
+        FileStamp current = FileStamp.of(filePath);
+        if (stamp != null && stamp.equals(current)) {
+            cacheHits++;
+            return;
+        }
+        cacheMisses++;
+        replaceCache(readFile(), current);
+    }
+
+    /**
+     * Parses the whole CSV file
+     */
+    private List<Guest> readFile() {
         List<Guest> result = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
             String line;
@@ -52,27 +167,28 @@ public class GuestRepository {
     }
 
     /**
-     * Finds a guest by their email address
-     * @param email the guest's email
-     * @return guest or null if not found
+     * Swaps in a new set of rows and rebuilds both indexes.
      */
-    public Guest findByEmail(String email) {
-        return findAll().stream()
-                .filter(g -> g.getEmail().equalsIgnoreCase(email))
-                .findFirst()
-                .orElse(null);
+    private void replaceCache(List<Guest> rows, FileStamp newStamp) {
+        guests.clear();
+        guests.addAll(rows);
+        byId.clear();
+        byEmail.clear();
+        for (Guest g : guests) {
+            index(g);
+        }
+        stamp = newStamp;
     }
 
-    /**
-     * Finds guest by their ID
-     * @param id the guest's id
-     * @return guest or null if not found
-     */
-    public Guest findById(String id) {
-        return findAll().stream()
-                .filter(g -> g.getGuestId().equals(id))
-                .findFirst()
-                .orElse(null);
+    private void index(Guest g) {
+        byId.putIfAbsent(g.getGuestId(), g);
+        if (g.getEmail() != null) {
+            byEmail.putIfAbsent(g.getEmail().toLowerCase(Locale.ROOT), g);
+        }
+    }
+
+    private static Guest copyOf(Guest g) {
+        return g == null ? null : new Guest(g);
     }
 
     /**
@@ -80,18 +196,18 @@ public class GuestRepository {
      * Returns null if line is invalid or malformed.
      */
     private Guest deserialize(String line) {
-        String[] tokens = line.split(",", -1);
-        if(tokens.length != 6 || tokens[0].isBlank()) {
+        CsvCodec csv = CsvCodec.forThread();
+        if(csv.split(line) != 6 || csv.isBlank(0)) {
             return null;
         }
 
         Guest guest = new Guest();
-        guest.setGuestId(tokens[0]);
-        guest.setFirstName(tokens[1]);
-        guest.setLastName(tokens[2]);
-        guest.setEmail(tokens[3]);
-        guest.setPhone(tokens[4]);
-        guest.setState(tokens[5]);
+        guest.setGuestId(csv.text(0));
+        guest.setFirstName(csv.text(1));
+        guest.setLastName(csv.text(2));
+        guest.setEmail(csv.text(3));
+        guest.setPhone(csv.text(4));
+        guest.setState(csv.text(5));
         return guest;
     }
 
@@ -100,10 +216,11 @@ public class GuestRepository {
      * @param guest guest to add
      * @return true if successful
      */
-    public boolean add(Guest guest) {
-        List<Guest> guests = findAll();
-        guests.add(guest);
-        return writeAll(guests);
+    public synchronized boolean add(Guest guest) {
+        ensureLoaded();
+        List<Guest> updated = new ArrayList<>(guests);
+        updated.add(new Guest(guest));
+        return commit(updated);
     }
 
     /**
@@ -111,12 +228,13 @@ public class GuestRepository {
      * @param updatedGuest guest with updated info
      * @return true if successful
      */
-    public boolean update(Guest updatedGuest) {
-        List<Guest> guests = findAll();
-        for (int i = 0; i < guests.size(); i++) {
-            if (guests.get(i).getGuestId().equals(updatedGuest.getGuestId())) {
-                guests.set(i, updatedGuest);
-                return writeAll(guests);
+    public synchronized boolean update(Guest updatedGuest) {
+        ensureLoaded();
+        List<Guest> updated = new ArrayList<>(guests);
+        for (int i = 0; i < updated.size(); i++) {
+            if (updated.get(i).getGuestId().equals(updatedGuest.getGuestId())) {
+                updated.set(i, new Guest(updatedGuest));
+                return commit(updated);
             }
         }
         return false;
@@ -127,27 +245,45 @@ public class GuestRepository {
      * @param guestId ID to delete
      * @return true if successful
      */
-    public boolean delete(String guestId) {
-        List<Guest> guests = findAll();
-        boolean removed = guests.removeIf(g -> g.getGuestId().equals(guestId));
-        return removed && writeAll(guests);
+    public synchronized boolean delete(String guestId) {
+        ensureLoaded();
+        List<Guest> updated = new ArrayList<>(guests);
+        boolean removed = updated.removeIf(g -> g.getGuestId().equals(guestId));
+        return removed && commit(updated);
+    }
+
+    /**
+     * Writes the new rows to disk and, only if that worked, to the cache.
+     */
+    private boolean commit(List<Guest> updated) {
+        if (!writeAll(updated)) {
+            stamp = null; // file state unknown, reload on next read
+            return false;
+        }
+        replaceCache(updated, FileStamp.of(filePath));
+        return true;
     }
 
     /**
      * Writes the entire guest list back to the CSV.
+     * The file is replaced atomically, so a crash mid-write leaves the old file intact.
      */
     private boolean writeAll(List<Guest> guests) {
-        try (PrintWriter writer = new PrintWriter(filePath.toFile())) {
-            writer.println(HEADER);
+        try {
+            CsvCodec csv = CsvCodec.forThread();
+            StringBuilder buffer = new StringBuilder(HEADER.length() + guests.size() * 80);
+            buffer.append(HEADER).append(System.lineSeparator());
             for (Guest g : guests) {
-                writer.printf("%s,%s,%s,%s,%s,%s%n",
-                        g.getGuestId(),
-                        g.getFirstName(),
-                        g.getLastName(),
-                        g.getEmail(),
-                        g.getPhone(),
-                        g.getState());
+                csv.beginRow()
+                        .field(g.getGuestId())
+                        .field(g.getFirstName())
+                        .field(g.getLastName())
+                        .field(g.getEmail())
+                        .field(g.getPhone())
+                        .field(g.getState())
+                        .endRow(buffer);
             }
+            durableWriter.replace(filePath, buffer.toString());
             return true;
         } catch (Exception e) {
             System.out.println("Error writing guests.csv: " + e.getMessage());
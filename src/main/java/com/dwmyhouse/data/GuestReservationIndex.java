@@ -0,0 +1,351 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persistent secondary index from guest ID to the (host ID, reservation ID) pairs holding that guest's bookings,
+ * so a guest lookup only reads the host files that matter.
+ * The file is an append-only log of "+,guestId,hostId,reservationId" and "-,..." lines, replayed at startup.
+ * It's rewritten with only the live entries when rebuilt, or once dead lines outnumber live ones.
+ * Disabled when reservation.guest.index.path is blank or storage.backend isn't csv
+ * (jdbc has its own guest_id index, memory isn't persisted).
+ *
+ * Each host's entries are tagged with the storage change token (ReservationStorage.changeToken) they
+ * were read at, logged as "=,hostId,token" lines. A host whose token moved, e.g. because its file was
+ * edited by hand, isn't current and is re-indexed by the caller before the index is trusted for it.
+ */
+@Component
+public class GuestReservationIndex {
+
+    private static final int MIN_COMPACT_LINES = 1024;
+    private static final String TOKEN_PREFIX = "=,";
+
+    private final Path indexFile;
+    private final DurableFileWriter durableWriter;
+    // guestId -> hostId -> reservation IDs
+    private final Map<String, Map<String, Set<Integer>>> entries = new LinkedHashMap<>();
+    // hostId -> change token the host's entries were indexed at
+    private final Map<String, String> hostTokens = new HashMap<>();
+    private int liveCount;
+    private int logLines;
+    private boolean ready;
+
+    public GuestReservationIndex(String indexPath) {
+        this(indexPath, "csv", DurableFileWriter.defaultWriter());
+    }
+
+    @Autowired
+    public GuestReservationIndex(@Value("${reservation.guest.index.path:}") String indexPath,
+                                 @Value("${storage.backend:csv}") String backend,
+                                 DurableFileWriter durableWriter) {
+        boolean csv = "csv".equalsIgnoreCase(backend.trim());
+        this.indexFile = !csv || indexPath == null || indexPath.isBlank() ? null : Path.of(indexPath);
+        this.durableWriter = durableWriter;
+        if (isEnabled()) {
+            load();
+        }
+    }
+
+    public boolean isEnabled() {
+        return indexFile != null;
+    }
+
+    /**
+     * False until the log has been read (or rebuilt) without errors; callers rebuild first when it's false
+     */
+    public synchronized boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of indexed (guest, host, reservation) entries
+     */
+    public synchronized int size() {
+        return liveCount;
+    }
+
+    /**
+     * Where a guest's reservations are stored
+     * @return reservation IDs by host ID, in the order they were indexed (empty if none)
+     */
+    public synchronized Map<String, Set<Integer>> find(String guestId) {
+        Map<String, Set<Integer>> result = new LinkedHashMap<>();
+        Map<String, Set<Integer>> hosts = entries.get(guestId);
+        if (hosts != null) {
+            hosts.forEach((hostId, ids) -> result.put(hostId, new LinkedHashSet<>(ids)));
+        }
+        return result;
+    }
+
+    /**
+     * Whether a host's entries were indexed at its current change token
+     * @param token the host's current token; null (storage without tokens) always counts as current
+     */
+    public synchronized boolean isCurrent(String hostId, Object token) {
+        return token == null || String.valueOf(token).equals(hostTokens.get(hostId));
+    }
+
+    /**
+     * Indexes one reservation; does nothing (and writes nothing) if it's already indexed
+     */
+    public void add(String guestId, String hostId, int reservationId) {
+        add(guestId, hostId, reservationId, null);
+    }
+
+    /**
+     * Indexes one reservation written through the app, and moves the host to the token it left behind
+     * @param hostToken the host's change token after the write (null leaves it as is)
+     */
+    public void add(String guestId, String hostId, int reservationId, Object hostToken) {
+        record(List.of(new Change(true, guestId, hostId, reservationId)), hostId, hostToken);
+    }
+
+    /**
+     * Indexes a batch of a host's reservations with one log write
+     */
+    public void addAll(String hostId, Collection<Reservation> reservations) {
+        addAll(hostId, reservations, null);
+    }
+
+    /**
+     * Indexes a batch of a host's reservations with one log write, see add
+     */
+    public void addAll(String hostId, Collection<Reservation> reservations, Object hostToken) {
+        record(additions(hostId, reservations), hostId, hostToken);
+    }
+
+    /**
+     * Drops one entry; does nothing if it isn't indexed
+     */
+    public void remove(String guestId, String hostId, int reservationId) {
+        remove(guestId, hostId, reservationId, null);
+    }
+
+    /**
+     * Drops one entry, see add
+     */
+    public void remove(String guestId, String hostId, int reservationId, Object hostToken) {
+        record(List.of(new Change(false, guestId, hostId, reservationId)), hostId, hostToken);
+    }
+
+    /**
+     * Replaces one host's entries with one log write, e.g. once its token has moved
+     * @param hostToken the token read before the reservations were
+     * @param reservations all of the host's reservations
+     */
+    public synchronized void reindex(String hostId, Object hostToken, Collection<Reservation> reservations) {
+        List<Change> changes = new ArrayList<>();
+        entries.forEach((guestId, hosts) -> {
+            for (int id : hosts.getOrDefault(hostId, Set.of())) {
+                changes.add(new Change(false, guestId, hostId, id));
+            }
+        });
+        changes.addAll(additions(hostId, reservations));
+        record(changes, hostId, hostToken);
+    }
+
+    /**
+     * Replaces the whole index and rewrites the file, leaving every host's token unknown
+     * @param reservationsByHost every host's reservations
+     * @return true if the new index was saved
+     */
+    public boolean rebuild(Map<String, List<Reservation>> reservationsByHost) {
+        return rebuild(reservationsByHost, Map.of());
+    }
+
+    /**
+     * Replaces the whole index and rewrites the file
+     * @param reservationsByHost every host's reservations
+     * @param hostTokens each host's change token, read before its reservations
+     * @return true if the new index was saved
+     */
+    public synchronized boolean rebuild(Map<String, List<Reservation>> reservationsByHost,
+                                        Map<String, Object> hostTokens) {
+        if (!isEnabled()) {
+            return false;
+        }
+        entries.clear();
+        liveCount = 0;
+        this.hostTokens.clear();
+        reservationsByHost.forEach((hostId, reservations) -> {
+            for (Reservation r : reservations) {
+                apply(new Change(true, r.getGuestId(), hostId, r.getId()));
+            }
+        });
+        hostTokens.forEach((hostId, token) -> {
+            if (token != null) {
+                this.hostTokens.put(hostId, String.valueOf(token));
+            }
+        });
+        ready = compact();
+        return ready;
+    }
+
+    private static List<Change> additions(String hostId, Collection<Reservation> reservations) {
+        List<Change> changes = new ArrayList<>();
+        for (Reservation r : reservations) {
+            changes.add(new Change(true, r.getGuestId(), hostId, r.getId()));
+        }
+        return changes;
+    }
+
+    /**
+     * Applies the changes that alter the index, sets the host's token if one is given,
+     * and appends both to the log.
+     * If the write fails the index is marked not ready, so the next lookup rebuilds it.
+     */
+    private synchronized void record(List<Change> changes, String hostId, Object hostToken) {
+        if (!isEnabled() || !ready) {
+            return;
+        }
+        StringBuilder log = new StringBuilder();
+        int written = 0;
+        for (Change change : changes) {
+            if (change.guestId() != null && apply(change)) {
+                log.append(change.line()).append('\n');
+                written++;
+            }
+        }
+        if (hostToken != null) {
+            String token = String.valueOf(hostToken);
+            if (!token.equals(hostTokens.put(hostId, token))) {
+                log.append(tokenLine(hostId, token)).append('\n');
+                written++;
+            }
+        }
+        if (written == 0) {
+            return;
+        }
+        try {
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            durableWriter.append(indexFile, log.toString());
+            logLines += written;
+        } catch (IOException e) {
+            System.out.println("Error writing guest index: " + e.getMessage());
+            ready = false;
+            return;
+        }
+        if (logLines > MIN_COMPACT_LINES && logLines > 2 * (liveCount + hostTokens.size())) {
+            ready = compact();
+        }
+    }
+
+    /**
+     * Updates the in-memory map
+     * @return true if the change did anything
+     */
+    private boolean apply(Change change) {
+        if (change.add()) {
+            boolean added = entries.computeIfAbsent(change.guestId(), g -> new LinkedHashMap<>())
+                    .computeIfAbsent(change.hostId(), h -> new LinkedHashSet<>())
+                    .add(change.reservationId());
+            if (added) {
+                liveCount++;
+            }
+            return added;
+        }
+        Map<String, Set<Integer>> hosts = entries.get(change.guestId());
+        Set<Integer> ids = hosts == null ? null : hosts.get(change.hostId());
+        if (ids == null || !ids.remove(change.reservationId())) {
+            return false;
+        }
+        liveCount--;
+        if (ids.isEmpty()) {
+            hosts.remove(change.hostId());
+            if (hosts.isEmpty()) {
+                entries.remove(change.guestId());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replays the log. A missing or corrupt file leaves the index empty and not ready.
+     */
+    private void load() {
+        if (!Files.exists(indexFile)) {
+            return;
+        }
+        try {
+            logLines = 0;
+            for (String line : Files.readAllLines(indexFile, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (line.startsWith(TOKEN_PREFIX)) {
+                    String[] fields = line.split(",", 3);
+                    if (fields.length != 3) {
+                        throw new IllegalArgumentException("Bad guest index line: " + line);
+                    }
+                    hostTokens.put(fields[1], fields[2]);
+                } else {
+                    apply(Change.parse(line));
+                }
+                logLines++;
+            }
+            ready = true;
+        } catch (Exception e) {
+            System.out.println("Guest index unreadable, it will be rebuilt: " + e.getMessage());
+            entries.clear();
+            hostTokens.clear();
+            liveCount = 0;
+        }
+    }
+
+    /**
+     * Rewrites the file with one line per live entry and host token
+     */
+    private boolean compact() {
+        StringBuilder content = new StringBuilder();
+        entries.forEach((guestId, hosts) -> hosts.forEach((hostId, ids) -> {
+            for (int id : ids) {
+                content.append(new Change(true, guestId, hostId, id).line()).append('\n');
+            }
+        }));
+        hostTokens.forEach((hostId, token) -> content.append(tokenLine(hostId, token)).append('\n'));
+        try {
+            Files.createDirectories(indexFile.toAbsolutePath().getParent());
+            durableWriter.replace(indexFile, content.toString());
+            logLines = liveCount + hostTokens.size();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error writing guest index: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static String tokenLine(String hostId, String token) {
+        return TOKEN_PREFIX + hostId + "," + token;
+    }
+
+    private record Change(boolean add, String guestId, String hostId, int reservationId) {
+
+        String line() {
+            return (add ? "+" : "-") + "," + guestId + "," + hostId + "," + reservationId;
+        }
+
+        static Change parse(String line) {
+            String[] fields = line.split(",", -1);
+            if (fields.length != 4 || !(fields[0].equals("+") || fields[0].equals("-"))) {
+                throw new IllegalArgumentException("Bad guest index line: " + line);
+            }
+            return new Change(fields[0].equals("+"), fields[1], fields[2], Integer.parseInt(fields[3]));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Guest;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Guest storage engine. Implemented by the CSV, JDBC and in-memory repositories.
+ */
+public interface GuestStorage extends Storage {
+
+    List<Guest> findAll();
+
+    /**
+     * @return guest with this email (case-insensitive), or null
+     */
+    Guest findByEmail(String email);
+
+    /**
+     * @return guest with this ID, or null
+     */
+    Guest findById(String id);
+
+    /**
+     * Looks up several guests at once. The default makes one findAll pass; engines override it
+     * to answer from their indexes.
+     * @return found guests by ID; unknown IDs are left out
+     */
+    default Map<String, Guest> findByIds(Collection<String> ids) {
+        Set<String> wanted = new HashSet<>(ids);
+        Map<String, Guest> result = new HashMap<>();
+        for (Guest g : findAll()) {
+            if (wanted.contains(g.getGuestId())) {
+                result.putIfAbsent(g.getGuestId(), g);
+            }
+        }
+        return result;
+    }
+
+    boolean add(Guest guest);
+
+    boolean update(Guest updatedGuest);
+
+    boolean delete(String guestId);
+}
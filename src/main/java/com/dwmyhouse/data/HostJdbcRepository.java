@@ -0,0 +1,135 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Host;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Locale;
+
+/**
+ * Host repository backed by the embedded SQL database.
+ * Selected with storage.backend=jdbc.
+ */
+public class HostJdbcRepository implements HostStorage {
+
+    private static final String COLUMNS = "host_id, last_name, email, phone, address, city, state, postal_code,"
+            + " standard_rate, weekend_rate";
+
+    private final JdbcDatabase database;
+
+    public HostJdbcRepository(JdbcDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public List<Host> findAll() {
+        return query("SELECT " + COLUMNS + " FROM host ORDER BY row_order");
+    }
+
+    @Override
+    public Host findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return first(query("SELECT " + COLUMNS + " FROM host WHERE email_key = ? ORDER BY row_order LIMIT 1",
+                key(email)));
+    }
+
+    @Override
+    public Host findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        return first(query("SELECT " + COLUMNS + " FROM host WHERE host_id = ?", id));
+    }
+
+    @Override
+    public List<Host> findByState(String state) {
+        return query("SELECT " + COLUMNS + " FROM host WHERE state_key = ? ORDER BY row_order", key(state));
+    }
+
+    @Override
+    public List<Host> findByCity(String city) {
+        return query("SELECT " + COLUMNS + " FROM host WHERE city_key = ? ORDER BY row_order", key(city));
+    }
+
+    @Override
+    public List<Host> findByPostalCode(String postalCode) {
+        return query("SELECT " + COLUMNS + " FROM host WHERE postal_code = ? ORDER BY row_order", postalCode);
+    }
+
+    @Override
+    public boolean add(Host host) {
+        return execute("INSERT INTO host (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                host.getId(), host.getLastName(), host.getEmail(), host.getPhone(), host.getAddress(),
+                host.getCity(), host.getState(), host.getPostalCode(),
+                host.getStandardRate(), host.getWeekendsRate());
+    }
+
+    @Override
+    public boolean update(Host updatedHost) {
+        return execute("UPDATE host SET last_name = ?, email = ?, phone = ?, address = ?, city = ?, state = ?,"
+                        + " postal_code = ?, standard_rate = ?, weekend_rate = ? WHERE host_id = ?",
+                updatedHost.getLastName(), updatedHost.getEmail(), updatedHost.getPhone(),
+                updatedHost.getAddress(), updatedHost.getCity(), updatedHost.getState(),
+                updatedHost.getPostalCode(), updatedHost.getStandardRate(), updatedHost.getWeekendsRate(),
+                updatedHost.getId());
+    }
+
+    @Override
+    public boolean delete(String hostId) {
+        return execute("DELETE FROM host WHERE host_id = ?", hostId);
+    }
+
+    /**
+     * Email, state, city and postal code lookups use indexes; there is no batch API for this table
+     */
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.of(StorageCapability.SECONDARY_INDEXES);
+    }
+
+    private static String key(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Host first(List<Host> hosts) {
+        return hosts.isEmpty() ? null : hosts.get(0);
+    }
+
+    private List<Host> query(String sql, Object... params) {
+        List<Host> result = new ArrayList<>();
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            JdbcDatabase.bind(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new Host(rs.getString("host_id"), rs.getString("last_name"),
+                            rs.getString("email"), rs.getString("phone"), rs.getString("address"),
+                            rs.getString("city"), rs.getString("state"), rs.getString("postal_code"),
+                            rs.getBigDecimal("standard_rate"), rs.getBigDecimal("weekend_rate")));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading hosts: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private boolean execute(String sql, Object... params) {
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            JdbcDatabase.bind(statement, params);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.out.println("Error writing hosts: " + e.getMessage());
+            return false;
+        }
+    }
+}
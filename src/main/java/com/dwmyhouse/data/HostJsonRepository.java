@@ -10,7 +10,10 @@ import org.springframework.stereotype.Repository;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Repository
 public class HostJsonRepository {
@@ -50,6 +53,38 @@ public class HostJsonRepository {
         return writeAll(hosts);
     }
 
+    /**
+     * Appends many hosts with one read and one write of the file
+     */
+    public boolean addAll(List<Host> newHosts) {
+        List<Host> hosts = findAll();
+        hosts.addAll(newHosts);
+        return writeAll(hosts);
+    }
+
+    /**
+     * Inserts or replaces (matched by ID) many hosts with one read and one write.
+     * Running it twice with the same hosts leaves the file unchanged.
+     */
+    public boolean upsertAll(List<Host> changed) {
+        return applyChanges(changed, Set.of());
+    }
+
+    /**
+     * Applies a row-level diff with one read and one write: upserts (matched by ID), then deletes
+     */
+    public boolean applyChanges(List<Host> upserts, Set<String> deletedIds) {
+        Map<String, Host> byId = new LinkedHashMap<>();
+        for (Host existing : findAll()) {
+            byId.put(existing.getId(), existing);
+        }
+        for (Host c : upserts) {
+            byId.put(c.getId(), c);
+        }
+        byId.keySet().removeAll(deletedIds);
+        return writeAll(new ArrayList<>(byId.values()));
+    }
+
     public boolean update(Host updatedHost) {
         List<Host> hosts = findAll();
         for (int i = 0; i < hosts.size(); i++) {
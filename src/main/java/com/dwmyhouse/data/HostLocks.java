@@ -0,0 +1,46 @@
+package com.dwmyhouse.data;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed set of read/write locks shared out by host ID (lock striping).
+ * Each host always maps to the same lock, so work on one host is ordered while other hosts
+ * mostly land on other stripes and run in parallel. Memory stays fixed however many hosts there are.
+ * Readers of a host share its lock; a writer has it to itself. Locks are reentrant, and a writer
+ * may also take the read lock (not the other way round).
+ */
+public final class HostLocks {
+
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final ReadWriteLock[] stripes;
+
+    public HostLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    public HostLocks(int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(Math.min(stripes, 1 << 16) - 1) << 1;
+        this.stripes = new ReadWriteLock[size];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * The lock guarding a host
+     */
+    public ReadWriteLock forHost(String hostId) {
+        int h = hostId == null ? 0 : hostId.hashCode();
+        h ^= h >>> 16;
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,110 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Host;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * In-memory host storage for benchmarking and ephemeral runs. Nothing is written to disk.
+ * Selected with storage.backend=memory.
+ * Filters scan the in-memory list, which is fast enough for a catalog of this size.
+ */
+public class HostMemoryRepository implements HostStorage {
+
+    private final Map<String, Host> byId = new LinkedHashMap<>();
+
+    public HostMemoryRepository() {
+    }
+
+    /**
+     * @param initial hosts to start with, e.g. the contents of hosts.csv
+     */
+    public HostMemoryRepository(Collection<Host> initial) {
+        for (Host h : initial) {
+            add(h);
+        }
+    }
+
+    @Override
+    public synchronized List<Host> findAll() {
+        return filter(h -> true);
+    }
+
+    @Override
+    public synchronized Host findByEmail(String email) {
+        List<Host> result = filter(h -> h.getEmail() != null && h.getEmail().equalsIgnoreCase(email));
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public synchronized Host findById(String id) {
+        Host h = byId.get(id);
+        return h == null ? null : new Host(h);
+    }
+
+    @Override
+    public synchronized List<Host> findByState(String state) {
+        return filter(h -> key(h.getState()).equals(key(state)));
+    }
+
+    @Override
+    public synchronized List<Host> findByCity(String city) {
+        return filter(h -> key(h.getCity()).equals(key(city)));
+    }
+
+    @Override
+    public synchronized List<Host> findByPostalCode(String postalCode) {
+        return filter(h -> Objects.equals(h.getPostalCode(), postalCode));
+    }
+
+    @Override
+    public synchronized boolean add(Host host) {
+        if (host.getId() == null || byId.containsKey(host.getId())) {
+            return false;
+        }
+        byId.put(host.getId(), new Host(host));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean update(Host updatedHost) {
+        if (!byId.containsKey(updatedHost.getId())) {
+            return false;
+        }
+        byId.put(updatedHost.getId(), new Host(updatedHost));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(String hostId) {
+        return byId.remove(hostId) != null;
+    }
+
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.noneOf(StorageCapability.class);
+    }
+
+    private List<Host> filter(Predicate<Host> predicate) {
+        List<Host> result = new ArrayList<>();
+        for (Host h : byId.values()) {
+            if (predicate.test(h)) {
+                result.add(new Host(h));
+            }
+        }
+        return result;
+    }
+
+    private static String key(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
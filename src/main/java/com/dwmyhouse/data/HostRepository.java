@@ -1,28 +1,52 @@
 package com.dwmyhouse.data;
 
 import com.dwmyhouse.models.Host;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.PrintWriter;
-import java.math.BigDecimal;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Repository for reading Host data from hosts.csv
+ * Keeps the parsed file resident as a catalog with indexes by ID, email, state, city and postal code.
+ * Writes update the file and the indexes together; the catalog rebuilds when the file changes on disk.
  */
 @Repository
-public class HostRepository {
+public class HostRepository implements HostStorage {
 
     private static final String HEADER = "id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate";
     private final Path filePath;
+    private final DurableFileWriter durableWriter;
 
-    public HostRepository(@Value("${host.file.path:./data/hosts.csv}") String filePath) {
+    // Resident catalog in file order plus secondary indexes
+    private final List<Host> hosts = new ArrayList<>();
+    private final Map<String, Host> byId = new HashMap<>();
+    private final Map<String, Host> byEmail = new HashMap<>();
+    private final Map<String, List<Host>> byState = new HashMap<>();
+    private final Map<String, List<Host>> byCity = new HashMap<>();
+    private final Map<String, List<Host>> byPostalCode = new HashMap<>();
+    private FileStamp stamp;
+
+    public HostRepository(String filePath) {
+        this(filePath, DurableFileWriter.defaultWriter());
+    }
+
+    @Autowired
+    public HostRepository(@Value("${host.file.path:./data/hosts.csv}") String filePath,
+                          DurableFileWriter durableWriter) {
         this.filePath = Path.of(filePath);
+        this.durableWriter = durableWriter;
     }
 
     /**
@@ -30,7 +54,97 @@ public class HostRepository {
      * Skips header and corrupt entries
      * @return list of all Hosts
      */
-    public List<Host> findAll() {
+    public synchronized List<Host> findAll() {
+        ensureLoaded();
+        return copyOf(hosts);
+    }
+
+    /**
+     * Finds a host by their email address
+     * @param email the host's email
+     * @return host or null if not found
+     */
+    public synchronized Host findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        ensureLoaded();
+        return copyOf(byEmail.get(key(email)));
+    }
+
+    /**
+     * Finds a host by their ID
+     * @param id the host's ID
+     * @return host or null if not found
+     */
+    public synchronized Host findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        ensureLoaded();
+        return copyOf(byId.get(id));
+    }
+
+    /**
+     * Finds all hosts in a state (case-insensitive)
+     * @param state the US state, e.g. NY
+     * @return matching hosts, empty if none
+     */
+    public synchronized List<Host> findByState(String state) {
+        ensureLoaded();
+        return copyOf(byState.getOrDefault(key(state), Collections.emptyList()));
+    }
+
+    /**
+     * Finds all hosts in a city (case-insensitive)
+     * @param city the city name
+     * @return matching hosts, empty if none
+     */
+    public synchronized List<Host> findByCity(String city) {
+        ensureLoaded();
+        return copyOf(byCity.getOrDefault(key(city), Collections.emptyList()));
+    }
+
+    /**
+     * Finds all hosts with an exact postal code
+     * @param postalCode the zip code
+     * @return matching hosts, empty if none
+     */
+    public synchronized List<Host> findByPostalCode(String postalCode) {
+        ensureLoaded();
+        return copyOf(byPostalCode.getOrDefault(postalCode, Collections.emptyList()));
+    }
+
+    /**
+     * hosts.csv's modified time and size
+     */
+    @Override
+    public Object changeToken() {
+        return FileStamp.of(filePath);
+    }
+
+    /**
+     * Lookups are served from in-memory indexes over the cached file
+     */
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.of(StorageCapability.SECONDARY_INDEXES);
+    }
+
+    /**
+     * Rebuilds the catalog if it was never loaded or hosts.csv changed on disk.
+     */
+    private void ensureLoaded() {
+        FileStamp current = FileStamp.of(filePath);
+        if (stamp == null || !stamp.equals(current)) {
+            replaceCatalog(readFile(), current);
+        }
+    }
+
+    /**
+     * Parses the whole hosts.csv file
+     */
+    private List<Host> readFile() {
         List<Host> result = new ArrayList<>();
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
             String line;
@@ -52,15 +166,42 @@ public class HostRepository {
     }
 
     /**
-     * Finds a host by their email address
-     * @param email the host's email
-     * @return host or null if not found
+     * Swaps in a new set of rows and rebuilds every index.
      */
-    public Host findByEmail(String email) {
-        return findAll().stream()
-                .filter(h -> h.getEmail().equalsIgnoreCase(email))
-                .findFirst()
-                .orElse(null);
+    private void replaceCatalog(List<Host> rows, FileStamp newStamp) {
+        hosts.clear();
+        hosts.addAll(rows);
+        byId.clear();
+        byEmail.clear();
+        byState.clear();
+        byCity.clear();
+        byPostalCode.clear();
+        for (Host h : hosts) {
+            byId.putIfAbsent(h.getId(), h);
+            if (h.getEmail() != null) {
+                byEmail.putIfAbsent(key(h.getEmail()), h);
+            }
+            byState.computeIfAbsent(key(h.getState()), k -> new ArrayList<>()).add(h);
+            byCity.computeIfAbsent(key(h.getCity()), k -> new ArrayList<>()).add(h);
+            byPostalCode.computeIfAbsent(h.getPostalCode(), k -> new ArrayList<>()).add(h);
+        }
+        stamp = newStamp;
+    }
+
+    private static String key(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Host copyOf(Host h) {
+        return h == null ? null : new Host(h);
+    }
+
+    private static List<Host> copyOf(List<Host> rows) {
+        List<Host> result = new ArrayList<>(rows.size());
+        for (Host h : rows) {
+            result.add(new Host(h));
+        }
+        return result;
     }
 
     /**
@@ -68,21 +209,21 @@ public class HostRepository {
      * Returns null if parsing fails or invalid
      */
     private Host deserialize(String line) {
-        String[] tokens = line.split(",", -1);
-        if (tokens.length != 10) return null;
+        CsvCodec csv = CsvCodec.forThread();
+        if (csv.split(line) != 10) return null;
 
         Host host = new Host();
-        host.setId(tokens[0]);
-        host.setLastName(tokens[1]);
-        host.setEmail(tokens[2]);
-        host.setPhone(tokens[3]);
-        host.setAddress(tokens[4]);
-        host.setCity(tokens[5]);
-        host.setState(tokens[6]);
-        host.setPostalCode(tokens[7]);
+        host.setId(csv.text(0));
+        host.setLastName(csv.text(1));
+        host.setEmail(csv.text(2));
+        host.setPhone(csv.text(3));
+        host.setAddress(csv.text(4));
+        host.setCity(csv.text(5));
+        host.setState(csv.text(6));
+        host.setPostalCode(csv.text(7));
         try{
-            host.setStandardRate(new BigDecimal(tokens[8]));
-            host.setWeekendsRate(new BigDecimal(tokens[9]));
+            host.setStandardRate(csv.parseDecimal(8));
+            host.setWeekendsRate(csv.parseDecimal(9));
         } catch (NumberFormatException e) {
             return null; //skips invalid number format
         }
@@ -90,46 +231,68 @@ public class HostRepository {
         return host;
     }
 
-    public boolean add(Host host) {
-        List<Host> hosts = findAll();
-        hosts.add(host);
-        return writeAll(hosts);
+    public synchronized boolean add(Host host) {
+        ensureLoaded();
+        List<Host> updated = new ArrayList<>(hosts);
+        updated.add(new Host(host));
+        return commit(updated);
     }
 
-    public boolean update(Host updatedHost) {
-        List<Host> hosts = findAll();
-        for (int i = 0; i < hosts.size(); i++) {
-            if (hosts.get(i).getId().equals(updatedHost.getId())) {
-                hosts.set(i, updatedHost);
-                return writeAll(hosts);
+    public synchronized boolean update(Host updatedHost) {
+        ensureLoaded();
+        List<Host> updated = new ArrayList<>(hosts);
+        for (int i = 0; i < updated.size(); i++) {
+            if (updated.get(i).getId().equals(updatedHost.getId())) {
+                updated.set(i, new Host(updatedHost));
+                return commit(updated);
             }
         }
         return false;
     }
 
-    public boolean delete(String hostId) {
-        List<Host> hosts = findAll();
-        boolean removed = hosts.removeIf(h -> h.getId().equals(hostId));
-        return removed && writeAll(hosts);
+    public synchronized boolean delete(String hostId) {
+        ensureLoaded();
+        List<Host> updated = new ArrayList<>(hosts);
+        boolean removed = updated.removeIf(h -> h.getId().equals(hostId));
+        return removed && commit(updated);
+    }
+
+    /**
+     * Writes the new rows to disk and, only if that worked, rebuilds the indexes.
+     */
+    private boolean commit(List<Host> updated) {
+        if (!writeAll(updated)) {
+            stamp = null; // file state unknown, rebuild on next read
+            return false;
+        }
+        replaceCatalog(updated, FileStamp.of(filePath));
+        return true;
     }
 
+    /**
+     * Writes the entire host list back to the CSV.
+     * The file is replaced atomically, so a crash mid-write leaves the old file intact.
+     */
     private boolean writeAll(List<Host> hosts) {
-        try (PrintWriter writer = new PrintWriter(filePath.toFile())) {
-            writer.println(HEADER);
+        try {
+            CsvCodec csv = CsvCodec.forThread();
+            StringBuilder buffer = new StringBuilder(HEADER.length() + hosts.size() * 120);
+            buffer.append(HEADER).append(System.lineSeparator());
             for (Host h : hosts) {
-                writer.printf("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s%n",
-                        h.getId(),
-                        h.getLastName(),
-                        h.getEmail(),
-                        h.getPhone(),
-                        h.getAddress(),
-                        h.getCity(),
-                        h.getState(),
-                        h.getPostalCode(),
-                        h.getStandardRate().toPlainString(),
-                        h.getWeekendsRate().toPlainString()
-                );
+                csv.beginRow()
+                        .field(h.getId())
+                        .field(h.getLastName())
+                        .field(h.getEmail())
+                        .field(h.getPhone())
+                        .field(h.getAddress())
+                        .field(h.getCity())
+                        .field(h.getState())
+                        .field(h.getPostalCode())
+                        .field(h.getStandardRate())
+                        .field(h.getWeekendsRate())
+                        .endRow(buffer);
             }
+            durableWriter.replace(filePath, buffer.toString());
             return true;
         } catch (Exception e) {
             System.out.println("Error writing hosts.csv: " + e.getMessage());
@@ -0,0 +1,53 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Host;
+
+import java.util.List;
+
+/**
+ * Host storage engine. Implemented by the CSV, JDBC and in-memory repositories.
+ */
+public interface HostStorage extends Storage {
+
+    List<Host> findAll();
+
+    /**
+     * @return host with this email (case-insensitive), or null
+     */
+    Host findByEmail(String email);
+
+    /**
+     * @return host with this ID, or null
+     */
+    Host findById(String id);
+
+    /**
+     * @return hosts in this state (case-insensitive)
+     */
+    List<Host> findByState(String state);
+
+    /**
+     * @return hosts in this city (case-insensitive)
+     */
+    List<Host> findByCity(String city);
+
+    /**
+     * @return hosts with exactly this postal code
+     */
+    List<Host> findByPostalCode(String postalCode);
+
+    boolean add(Host host);
+
+    boolean update(Host updatedHost);
+
+    boolean delete(String hostId);
+
+    /**
+     * Opaque value that changes whenever the stored hosts change (including edits made outside the app),
+     * so callers can cache derived data, see ReservationStorage.changeToken
+     * @return the token, or null if this engine can't tell
+     */
+    default Object changeToken() {
+        return null;
+    }
+}
@@ -0,0 +1,198 @@
+package com.dwmyhouse.data;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Connection factory and schema for the embedded SQL backend (H2, in-process, no server).
+ * Emails, cities and states get lower-cased generated key columns so the case-insensitive
+ * lookups the CSV repositories do can use an index.
+ * Money is stored as DECIMAL(12,2), so amounts come back with 2 decimals.
+ * Connections are pooled: closing one from connect() hands it back for reuse. Keeping them open also keeps
+ * an H2 file database open between calls, instead of H2 closing and reopening the file every time.
+ */
+public class JdbcDatabase implements AutoCloseable {
+
+    static final int MAX_IDLE = 8;
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS guest ("
+                    + " row_order BIGINT GENERATED BY DEFAULT AS IDENTITY,"
+                    + " guest_id VARCHAR(64) PRIMARY KEY,"
+                    + " first_name VARCHAR(100),"
+                    + " last_name VARCHAR(100),"
+                    + " email VARCHAR(255),"
+                    + " email_key VARCHAR(255) GENERATED ALWAYS AS (LOWER(email)),"
+                    + " phone VARCHAR(50),"
+                    + " state VARCHAR(10))",
+            "CREATE INDEX IF NOT EXISTS guest_email_idx ON guest(email_key)",
+
+            "CREATE TABLE IF NOT EXISTS host ("
+                    + " row_order BIGINT GENERATED BY DEFAULT AS IDENTITY,"
+                    + " host_id VARCHAR(64) PRIMARY KEY,"
+                    + " last_name VARCHAR(100),"
+                    + " email VARCHAR(255),"
+                    + " email_key VARCHAR(255) GENERATED ALWAYS AS (LOWER(email)),"
+                    + " phone VARCHAR(50),"
+                    + " address VARCHAR(255),"
+                    + " city VARCHAR(100),"
+                    + " city_key VARCHAR(100) GENERATED ALWAYS AS (LOWER(city)),"
+                    + " state VARCHAR(10),"
+                    + " state_key VARCHAR(10) GENERATED ALWAYS AS (LOWER(state)),"
+                    + " postal_code VARCHAR(20),"
+                    + " standard_rate DECIMAL(12,2),"
+                    + " weekend_rate DECIMAL(12,2))",
+            "CREATE INDEX IF NOT EXISTS host_email_idx ON host(email_key)",
+            "CREATE INDEX IF NOT EXISTS host_state_idx ON host(state_key)",
+            "CREATE INDEX IF NOT EXISTS host_city_idx ON host(city_key)",
+            "CREATE INDEX IF NOT EXISTS host_postal_code_idx ON host(postal_code)",
+
+            // Reservation IDs in the CSV data are only unique per host, so the key is (host_id, id)
+            "CREATE TABLE IF NOT EXISTS reservation ("
+                    + " row_order BIGINT GENERATED BY DEFAULT AS IDENTITY,"
+                    + " host_id VARCHAR(64) NOT NULL,"
+                    + " id INT NOT NULL,"
+                    + " start_date DATE NOT NULL,"
+                    + " end_date DATE NOT NULL,"
+                    + " guest_id VARCHAR(64) NOT NULL,"
+                    + " total DECIMAL(12,2),"
+                    + " version INT DEFAULT 1 NOT NULL,"
+                    + " PRIMARY KEY (host_id, id))",
+            // Databases created before reservations were versioned
+            "ALTER TABLE reservation ADD COLUMN IF NOT EXISTS version INT DEFAULT 1 NOT NULL",
+            "CREATE INDEX IF NOT EXISTS reservation_host_start_idx ON reservation(host_id, start_date)",
+            "CREATE INDEX IF NOT EXISTS reservation_guest_idx ON reservation(guest_id)",
+            "CREATE SEQUENCE IF NOT EXISTS reservation_id_seq START WITH 1"
+    };
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final BlockingQueue<Connection> idle = new ArrayBlockingQueue<>(MAX_IDLE);
+
+    /**
+     * @param url JDBC URL, e.g. jdbc:h2:./data/dwmh
+     */
+    public JdbcDatabase(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        try {
+            initSchema();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not initialise database schema at " + url, e);
+        }
+    }
+
+    /**
+     * Takes an idle connection, or opens a new one if there's none.
+     * Closing the returned connection gives it back (rolled back, auto-commit on); at most MAX_IDLE are kept.
+     */
+    public Connection connect() throws SQLException {
+        Connection physical = idle.poll();
+        while (physical != null && physical.isClosed()) {
+            physical = idle.poll();
+        }
+        if (physical == null) {
+            physical = DriverManager.getConnection(url, user, password);
+        }
+        return pooled(physical);
+    }
+
+    /**
+     * Closes the idle connections (the file database closes with the last one)
+     */
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                System.out.println("Error closing database connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Connections sitting in the pool
+     */
+    int idleCount() {
+        return idle.size();
+    }
+
+    private Connection pooled(Connection physical) {
+        boolean[] released = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close" -> {
+                            if (!released[0]) {
+                                released[0] = true;
+                                release(physical);
+                            }
+                            return null;
+                        }
+                        case "isClosed" -> {
+                            return released[0] || physical.isClosed();
+                        }
+                        default -> {
+                            if (released[0]) {
+                                throw new SQLException("Connection has been returned to the pool");
+                            }
+                            try {
+                                return method.invoke(physical, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Puts a connection back in the pool, or closes it if it's broken or the pool is full
+     */
+    private void release(Connection physical) throws SQLException {
+        if (physical.isClosed()) {
+            return;
+        }
+        try {
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            physical.close();
+            return;
+        }
+        if (!idle.offer(physical)) {
+            physical.close();
+        }
+    }
+
+    /**
+     * Binds positional parameters to a statement
+     */
+    static void bind(PreparedStatement statement, Object... params) throws SQLException {
+        for (int i = 0; i < params.length; i++) {
+            statement.setObject(i + 1, params[i]);
+        }
+    }
+
+    private void initSchema() throws SQLException {
+        try (Connection connection = connect();
+             Statement statement = connection.createStatement()) {
+            for (String sql : SCHEMA) {
+                statement.execute(sql);
+            }
+        }
+    }
+}
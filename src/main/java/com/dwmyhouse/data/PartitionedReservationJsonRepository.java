@@ -0,0 +1,334 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reservation JSON store partitioned by host.
+ * Each host has its own JSON Lines file (one reservation object per line) under the folder,
+ * and manifest.json records the partitions, their row counts and the next reservation ID.
+ * A write only touches one host's partition plus the small manifest.
+ * The partition is written before the manifest, so a crash in between leaves the manifest behind.
+ * The manifest also keeps each partition's byte size; on first load any partition whose size
+ * doesn't match (or that the manifest doesn't list) is re-read to recover its row count and IDs.
+ */
+@Repository
+public class PartitionedReservationJsonRepository {
+
+    static final String MANIFEST = "manifest.json";
+    private static final String EXTENSION = ".jsonl";
+    private static final int LAYOUT_VERSION = 1;
+
+    private final Path directory;
+    private final DurableFileWriter durableWriter;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Manifest manifest;
+
+    public PartitionedReservationJsonRepository(String directory) {
+        this(directory, DurableFileWriter.defaultWriter());
+    }
+
+    @Autowired
+    public PartitionedReservationJsonRepository(
+            @Value("${reservation.json.dir.path:./data/reservations-json}") String directory,
+            DurableFileWriter durableWriter) {
+        this.directory = Path.of(directory);
+        this.durableWriter = durableWriter;
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    /**
+     * Reads every partition in parallel
+     * @return all reservations, grouped by host in manifest order
+     */
+    public List<Reservation> findAll() {
+        List<String> hostIds = hostIds();
+        return hostIds.parallelStream()
+                .flatMap(hostId -> readPartition(hostId).stream())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads a single host's partition
+     * @param hostId the host's ID
+     * @return that host's reservations
+     */
+    public List<Reservation> findByHostId(String hostId) {
+        return readPartition(hostId);
+    }
+
+    /**
+     * Scans every partition in parallel for a guest's reservations
+     * @param guestId the guest's ID
+     * @return matching reservations
+     */
+    public List<Reservation> findByGuestId(String guestId) {
+        return hostIds().parallelStream()
+                .flatMap(hostId -> readPartition(hostId).stream())
+                .filter(r -> guestId.equals(r.getGuestId()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Host IDs that have a partition
+     */
+    public synchronized List<String> hostIds() {
+        return new ArrayList<>(manifest().partitions.keySet());
+    }
+
+    /**
+     * Appends one reservation to its host's partition. Assigns the next ID.
+     * @param reservation reservation with its hostId set
+     * @return true if successful
+     */
+    public boolean add(Reservation reservation) {
+        return addAll(reservation.getHostId(), List.of(reservation));
+    }
+
+    /**
+     * Appends many reservations to one host's partition with a single write. Assigns consecutive IDs.
+     * @param hostId the host's ID
+     * @param reservations reservations to append
+     * @return true if successful
+     */
+    public synchronized boolean addAll(String hostId, List<Reservation> reservations) {
+        if (hostId == null) {
+            return false;
+        }
+        if (reservations.isEmpty()) {
+            return true;
+        }
+        Manifest current = manifest();
+        int nextId = current.nextId;
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (Reservation r : reservations) {
+                r.setId(nextId++);
+                r.setHostId(hostId);
+                lines.append(mapper.writeValueAsString(r)).append('\n');
+            }
+            Files.createDirectories(directory);
+            durableWriter.append(partitionFile(hostId), lines.toString());
+            current.nextId = nextId;
+            current.partitions.merge(hostId, reservations.size(), Integer::sum);
+            current.sizes.put(hostId, Files.size(partitionFile(hostId)));
+            writeManifest(current);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Error writing reservation partition: " + e.getMessage());
+            manifest = null; // reload from disk next time
+            return false;
+        }
+    }
+
+    /**
+     * Replaces a reservation in its host's partition, matched by ID
+     * @param updated reservation with its hostId set
+     * @return true if it was found and written
+     */
+    public synchronized boolean update(Reservation updated) {
+        List<Reservation> partition = readPartition(updated.getHostId());
+        for (int i = 0; i < partition.size(); i++) {
+            if (partition.get(i).getId() == updated.getId()) {
+                partition.set(i, updated);
+                return writePartition(updated.getHostId(), partition);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Deletes a reservation from a host's partition
+     * @param id reservation ID
+     * @param hostId the host's ID
+     * @return true if it was found and removed
+     */
+    public synchronized boolean delete(int id, String hostId) {
+        List<Reservation> partition = readPartition(hostId);
+        boolean removed = partition.removeIf(r -> r.getId() == id);
+        return removed && writePartition(hostId, partition);
+    }
+
+    /**
+     * Inserts or replaces (matched by ID) reservations in one host's partition, keeping their IDs.
+     * Running it twice with the same rows leaves the partition unchanged.
+     */
+    public synchronized boolean upsertAll(String hostId, List<Reservation> reservations) {
+        return applyChanges(hostId, reservations, Set.of());
+    }
+
+    /**
+     * Applies a row-level diff to one host's partition with one write: upserts (matched by ID), then deletes
+     */
+    public synchronized boolean applyChanges(String hostId, List<Reservation> upserts, Set<Integer> deletedIds) {
+        if (hostId == null) {
+            return false;
+        }
+        Map<Integer, Reservation> byId = new LinkedHashMap<>();
+        for (Reservation r : readPartition(hostId)) {
+            byId.put(r.getId(), r);
+        }
+        for (Reservation r : upserts) {
+            byId.put(r.getId(), r);
+        }
+        byId.keySet().removeAll(deletedIds);
+        return writePartition(hostId, new ArrayList<>(byId.values()));
+    }
+
+    /**
+     * Rewrites one host's partition with exactly these reservations (IDs are kept)
+     */
+    public synchronized boolean writePartition(String hostId, List<Reservation> reservations) {
+        try {
+            StringBuilder lines = new StringBuilder();
+            for (Reservation r : reservations) {
+                r.setHostId(hostId);
+                lines.append(mapper.writeValueAsString(r)).append('\n');
+            }
+            Files.createDirectories(directory);
+            durableWriter.replace(partitionFile(hostId), lines.toString());
+            Manifest current = manifest();
+            current.partitions.put(hostId, reservations.size());
+            current.sizes.put(hostId, Files.size(partitionFile(hostId)));
+            for (Reservation r : reservations) {
+                current.nextId = Math.max(current.nextId, r.getId() + 1);
+            }
+            writeManifest(current);
+            return true;
+        } catch (Exception e) {
+            System.out.println("Error writing reservation partition: " + e.getMessage());
+            manifest = null;
+            return false;
+        }
+    }
+
+    private List<Reservation> readPartition(String hostId) {
+        List<Reservation> result = new ArrayList<>();
+        if (hostId == null) {
+            return result;
+        }
+        File file = partitionFile(hostId).toFile();
+        if (!file.exists()) {
+            return result;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    Reservation r = mapper.readValue(line, Reservation.class);
+                    r.setHostId(hostId);
+                    result.add(r);
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("Error reading reservation partition " + hostId + ": " + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * Loads the manifest and checks it against the partition files (see reconcile).
+     * A missing or unreadable manifest is rebuilt from the partitions.
+     */
+    private Manifest manifest() {
+        if (manifest != null) {
+            return manifest;
+        }
+        Manifest loaded = new Manifest();
+        Path file = directory.resolve(MANIFEST);
+        try {
+            if (Files.exists(file)) {
+                loaded = mapper.readValue(file.toFile(), Manifest.class);
+            }
+        } catch (Exception e) {
+            System.out.println("Error reading reservation manifest, rebuilding: " + e.getMessage());
+        }
+        manifest = reconcile(loaded);
+        return manifest;
+    }
+
+    /**
+     * Brings a manifest in line with the partition files on disk: drops partitions that are gone and
+     * re-reads those that are new or whose size changed since the manifest was written (e.g. a crash
+     * between the partition append and the manifest write), moving nextId past every ID found.
+     * The fixed manifest is saved if anything changed.
+     */
+    private Manifest reconcile(Manifest loaded) {
+        if (!Files.isDirectory(directory)) {
+            return loaded;
+        }
+        boolean changed = false;
+        List<String> onDisk = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(EXTENSION))
+                    .sorted()
+                    .forEach(name -> onDisk.add(name.substring(0, name.length() - EXTENSION.length())));
+            for (String hostId : onDisk) {
+                long size = Files.size(partitionFile(hostId));
+                Long recorded = loaded.sizes.get(hostId);
+                if (recorded != null && recorded == size && loaded.partitions.containsKey(hostId)) {
+                    continue;
+                }
+                List<Reservation> partition = readPartition(hostId);
+                loaded.partitions.put(hostId, partition.size());
+                loaded.sizes.put(hostId, size);
+                for (Reservation r : partition) {
+                    loaded.nextId = Math.max(loaded.nextId, r.getId() + 1);
+                }
+                changed = true;
+            }
+        } catch (Exception e) {
+            System.out.println("Error scanning reservation partitions: " + e.getMessage());
+        }
+        changed |= loaded.partitions.keySet().retainAll(onDisk);
+        loaded.sizes.keySet().retainAll(onDisk);
+        if (changed) {
+            try {
+                writeManifest(loaded);
+            } catch (Exception e) {
+                System.out.println("Error writing reservation manifest: " + e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    private void writeManifest(Manifest current) throws Exception {
+        durableWriter.replace(directory.resolve(MANIFEST),
+                mapper.writerWithDefaultPrettyPrinter().writeValueAsString(current));
+    }
+
+    private Path partitionFile(String hostId) {
+        return directory.resolve(hostId + EXTENSION);
+    }
+
+    /**
+     * Contents of manifest.json
+     */
+    static class Manifest {
+        public int version = LAYOUT_VERSION;
+        public int nextId = 1;
+        public Map<String, Integer> partitions = new TreeMap<>();
+        // Byte size of each partition file when the manifest was written
+        public Map<String, Long> sizes = new TreeMap<>();
+    }
+}
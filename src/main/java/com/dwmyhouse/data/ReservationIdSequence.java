@@ -0,0 +1,138 @@
+package com.dwmyhouse.data;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Durable high-water-mark sequence for global reservation IDs.
+ * The sidecar file holds the first ID that has not been handed out yet.
+ * IDs are reserved in blocks: the new high-water mark is written (temp file + atomic rename)
+ * before any ID from the block is used, so a crash can only leave gaps, never duplicates.
+ * A separate lock file keeps concurrent processes from reserving the same block.
+ * IDs seen in the data files (observe) push the mark past them, so rows written by other tools aren't reused.
+ */
+class ReservationIdSequence {
+
+    static final String FILE_NAME = "reservation-id.seq";
+
+    // File locks are per process, so writers inside one JVM also share a monitor per sidecar
+    private static final Map<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path sequenceFile;
+    private final Path lockFile;
+    private final Path tempFile;
+    private final int blockSize;
+    private final IntSupplier seed;
+
+    private int next;   // next ID to hand out
+    private int limit;  // end (exclusive) of the reserved block
+    private int floor;  // lowest ID the next block may start at, from observed IDs
+
+    /**
+     * @param directory folder that holds the sidecar files
+     * @param blockSize how many IDs to reserve per sidecar write
+     * @param seed supplies the next free ID when the sidecar is missing or unreadable (full scan)
+     */
+    ReservationIdSequence(Path directory, int blockSize, IntSupplier seed) {
+        this.sequenceFile = directory.resolve(FILE_NAME);
+        this.lockFile = directory.resolve(FILE_NAME + ".lock");
+        this.tempFile = directory.resolve(FILE_NAME + ".tmp");
+        this.blockSize = Math.max(1, blockSize);
+        this.seed = seed;
+    }
+
+    /**
+     * Hands out the next ID, reserving a new block from the sidecar when the current one runs out.
+     * @return a reservation ID that has never been handed out before
+     */
+    synchronized int next() throws IOException {
+        if (next >= limit) {
+            reserve(blockSize);
+        }
+        return next++;
+    }
+
+    /**
+     * Reserves a contiguous run of IDs in one step, used for batch inserts.
+     * @param count how many IDs are needed
+     * @return the first ID of the run; the run is [first, first + count)
+     */
+    synchronized int allocate(int count) throws IOException {
+        if (limit - next < count) {
+            reserve(Math.max(count, blockSize));
+        }
+        int first = next;
+        next += count;
+        return first;
+    }
+
+    /**
+     * Records that maxSeen is in use, so no ID up to it is handed out.
+     * Inside the current block it just skips ahead; past the block a new one is reserved above it.
+     */
+    synchronized void observe(int maxSeen) throws IOException {
+        floor = Math.max(floor, maxSeen + 1);
+        if (limit == 0 || maxSeen < next) {
+            return; // no block yet (the floor applies when one is reserved), or already past it
+        }
+        if (maxSeen < limit) {
+            next = maxSeen + 1;
+        } else {
+            reserve(blockSize);
+        }
+    }
+
+    /**
+     * Moves the high-water mark forward by {@code size} under an exclusive file lock.
+     */
+    private void reserve(int size) throws IOException {
+        Object processLock = PROCESS_LOCKS.computeIfAbsent(sequenceFile.toAbsolutePath().normalize(), k -> new Object());
+        synchronized (processLock) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                 FileLock ignored = channel.lock()) {
+                int highWater = readHighWater();
+                if (highWater < 1) {
+                    highWater = seed.getAsInt();
+                }
+                highWater = Math.max(highWater, floor);
+                writeHighWater(highWater + size);
+                next = highWater;
+                limit = highWater + size;
+            }
+        }
+    }
+
+    /**
+     * Reads the stored high-water mark
+     * @return the stored value, or -1 if the sidecar is missing or corrupt
+     */
+    private int readHighWater() {
+        try {
+            if (!Files.exists(sequenceFile)) {
+                return -1;
+            }
+            return Integer.parseInt(Files.readString(sequenceFile, StandardCharsets.UTF_8).trim());
+        } catch (Exception e) {
+            System.out.println("Reservation ID sequence unreadable, reseeding: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private void writeHighWater(int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(StandardCharsets.UTF_8.encode(Integer.toString(value)));
+            channel.force(true);
+        }
+        Files.move(tempFile, sequenceFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
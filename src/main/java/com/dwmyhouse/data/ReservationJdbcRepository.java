@@ -0,0 +1,290 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reservation repository backed by the embedded SQL database.
+ * Selected with storage.backend=jdbc.
+ * New IDs come from a database sequence, so they stay globally unique like the CSV ones.
+ * Updates and deletes with a version check it in the WHERE clause, so the compare-and-set is one statement.
+ * applyChanges runs a whole batch in one transaction.
+ */
+public class ReservationJdbcRepository implements ReservationStorage {
+
+    private static final String COLUMNS = "id, start_date, end_date, guest_id, total, host_id, version";
+    private static final String INSERT = "INSERT INTO reservation (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE = "UPDATE reservation SET start_date = ?, end_date = ?, guest_id = ?, total = ?,"
+            + " version = version + 1 WHERE host_id = ? AND id = ? AND (? <= 0 OR version = ?)";
+    private static final String DELETE = "DELETE FROM reservation WHERE host_id = ? AND id = ? AND (? <= 0 OR version = ?)";
+    private static final String VERSION = "SELECT version FROM reservation WHERE host_id = ? AND id = ?";
+
+    private final JdbcDatabase database;
+
+    public ReservationJdbcRepository(JdbcDatabase database) {
+        this.database = database;
+    }
+
+    @Override
+    public List<Reservation> findByHost(String hostId) {
+        return query("SELECT " + COLUMNS + " FROM reservation WHERE host_id = ? ORDER BY row_order", hostId);
+    }
+
+    /**
+     * Uses the (host_id, start_date) index: only rows starting on or before the range end are read.
+     */
+    @Override
+    public List<Reservation> findByHostBetween(String hostId, LocalDate from, LocalDate to) {
+        return query("SELECT " + COLUMNS + " FROM reservation WHERE host_id = ? AND start_date <= ? AND end_date >= ?"
+                + " ORDER BY row_order", hostId, Date.valueOf(to), Date.valueOf(from));
+    }
+
+    @Override
+    public boolean add(Reservation reservation, String hostId) {
+        return addAll(List.of(reservation), hostId);
+    }
+
+    /**
+     * Takes IDs from the sequence and inserts all rows in one transaction
+     */
+    @Override
+    public boolean addAll(List<Reservation> reservations, String hostId) {
+        try (Connection connection = database.connect()) {
+            connection.setAutoCommit(false);
+            try (Statement sequence = connection.createStatement();
+                 PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (Reservation r : reservations) {
+                    r.setId(nextId(sequence));
+                    r.setHostId(hostId);
+                    r.setVersion(1);
+                    bindRow(statement, r, hostId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.out.println("Error adding reservations: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Inserts reservations for one host in a single transaction, keeping their IDs. Used by the CSV importer.
+     * @return true if every row was inserted
+     */
+    public boolean insertAll(List<Reservation> reservations, String hostId) {
+        try (Connection connection = database.connect()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                for (Reservation r : reservations) {
+                    bindRow(statement, r, hostId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                connection.commit();
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.out.println("Error importing reservations for host " + hostId + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Moves the ID sequence past every stored ID
+     */
+    public void resetIdSequence() throws SQLException {
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM reservation")) {
+            rs.next();
+            int next = rs.getInt(1);
+            statement.execute("ALTER SEQUENCE reservation_id_seq RESTART WITH " + next);
+        }
+    }
+
+    /**
+     * Updates the row if its version still matches (any version when updated has none),
+     * then gives updated the row's new version
+     */
+    @Override
+    public boolean update(Reservation updated, String hostId) {
+        int expected = updated.getVersion();
+        boolean changed = execute(UPDATE, Date.valueOf(updated.getStartDate()), Date.valueOf(updated.getEndDate()),
+                updated.getGuestId(), updated.getTotal(), hostId, updated.getId(), expected, expected);
+        if (changed) {
+            updated.setVersion(expected > 0 ? expected + 1 : currentVersion(updated.getId(), hostId));
+        }
+        return changed;
+    }
+
+    @Override
+    public boolean delete(int reservationId, String hostId) {
+        return delete(reservationId, hostId, 0);
+    }
+
+    @Override
+    public boolean delete(int reservationId, String hostId, int expectedVersion) {
+        return execute(DELETE, hostId, reservationId, expectedVersion, expectedVersion);
+    }
+
+    /**
+     * Inserts, updates and deletes in one transaction. If an update or delete finds no matching row
+     * (gone, or a stale version), the transaction is rolled back and nothing changes.
+     * IDs and versions are only written back to the reservations once it commits.
+     */
+    @Override
+    public boolean applyChanges(String hostId, List<Reservation> added, Collection<Reservation> updated,
+                                Collection<Integer> deletedIds) {
+        int[] ids = new int[added.size()];
+        int[] versions = new int[updated.size()];
+        try (Connection connection = database.connect()) {
+            connection.setAutoCommit(false);
+            try (Statement sequence = connection.createStatement();
+                 PreparedStatement insert = connection.prepareStatement(INSERT);
+                 PreparedStatement update = connection.prepareStatement(UPDATE);
+                 PreparedStatement version = connection.prepareStatement(VERSION);
+                 PreparedStatement delete = connection.prepareStatement(DELETE)) {
+                for (int i = 0; i < added.size(); i++) {
+                    Reservation r = new Reservation(added.get(i));
+                    r.setId(ids[i] = nextId(sequence));
+                    r.setVersion(1);
+                    bindRow(insert, r, hostId);
+                    insert.addBatch();
+                }
+                if (!added.isEmpty()) {
+                    insert.executeBatch();
+                }
+                int u = 0;
+                for (Reservation r : updated) {
+                    int expected = r.getVersion();
+                    JdbcDatabase.bind(update, Date.valueOf(r.getStartDate()), Date.valueOf(r.getEndDate()),
+                            r.getGuestId(), r.getTotal(), hostId, r.getId(), expected, expected);
+                    if (update.executeUpdate() == 0) {
+                        connection.rollback();
+                        return false;
+                    }
+                    if (expected > 0) {
+                        versions[u++] = expected + 1;
+                        continue;
+                    }
+                    JdbcDatabase.bind(version, hostId, r.getId());
+                    try (ResultSet rs = version.executeQuery()) {
+                        rs.next();
+                        versions[u++] = rs.getInt(1);
+                    }
+                }
+                for (int id : deletedIds) {
+                    JdbcDatabase.bind(delete, hostId, id, 0, 0);
+                    if (delete.executeUpdate() == 0) {
+                        connection.rollback();
+                        return false;
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            System.out.println("Error writing reservations: " + e.getMessage());
+            return false;
+        }
+        for (int i = 0; i < added.size(); i++) {
+            added.get(i).setId(ids[i]);
+            added.get(i).setHostId(hostId);
+            added.get(i).setVersion(1);
+        }
+        int u = 0;
+        for (Reservation r : updated) {
+            r.setVersion(versions[u++]);
+        }
+        return true;
+    }
+
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.allOf(StorageCapability.class);
+    }
+
+    private List<Reservation> query(String sql, Object... params) {
+        List<Reservation> result = new ArrayList<>();
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            JdbcDatabase.bind(statement, params);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    Reservation r = new Reservation(rs.getInt("id"),
+                            rs.getObject("start_date", LocalDate.class),
+                            rs.getObject("end_date", LocalDate.class),
+                            rs.getString("guest_id"), rs.getBigDecimal("total"));
+                    r.setHostId(rs.getString("host_id"));
+                    r.setVersion(rs.getInt("version"));
+                    result.add(r);
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading reservations: " + e.getMessage());
+        }
+        return result;
+    }
+
+    private static int nextId(Statement sequence) throws SQLException {
+        try (ResultSet rs = sequence.executeQuery("SELECT NEXT VALUE FOR reservation_id_seq")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void bindRow(PreparedStatement statement, Reservation r, String hostId) throws SQLException {
+        JdbcDatabase.bind(statement, r.getId(), Date.valueOf(r.getStartDate()), Date.valueOf(r.getEndDate()),
+                r.getGuestId(), r.getTotal(), hostId, Math.max(1, r.getVersion()));
+    }
+
+    /**
+     * Stored version of a row, or 0 if it's gone
+     */
+    private int currentVersion(int reservationId, String hostId) {
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement(VERSION)) {
+            JdbcDatabase.bind(statement, hostId, reservationId);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading reservations: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private boolean execute(String sql, Object... params) {
+        try (Connection connection = database.connect();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            JdbcDatabase.bind(statement, params);
+            return statement.executeUpdate() > 0;
+        } catch (SQLException e) {
+            System.out.println("Error writing reservations: " + e.getMessage());
+            return false;
+        }
+    }
+}
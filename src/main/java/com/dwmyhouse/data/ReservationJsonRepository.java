@@ -1,16 +1,25 @@
 package com.dwmyhouse.data;
 
 import com.dwmyhouse.models.Reservation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Repository
 public class ReservationJsonRepository {
@@ -38,15 +47,116 @@ public class ReservationJsonRepository {
     }
 
     public List<Reservation> findByHostId(String hostId) {
-        return findAll().stream()
-                .filter(r -> hostId.equals(r.getHostId()))
-                .toList();
+        try (Stream<Reservation> matches = streamByHostId(hostId)) {
+            return matches.toList();
+        }
     }
 
     public List<Reservation> findByGuestId(String guestId) {
-        return findAll().stream()
-                .filter(r -> guestId.equals(r.getGuestId()))
-                .toList();
+        try (Stream<Reservation> matches = streamByGuestId(guestId)) {
+            return matches.toList();
+        }
+    }
+
+    /**
+     * Lazily streams the reservations of one host straight from reservations.json.
+     * Only matching objects are bound, so memory is bounded by the matches, not the file.
+     * The stream holds the file open: close it (try-with-resources) when done.
+     * @param hostId the host's ID
+     * @return stream of that host's reservations
+     */
+    public Stream<Reservation> streamByHostId(String hostId) {
+        return streamMatching("hostId", hostId);
+    }
+
+    /**
+     * Lazily streams the reservations of one guest straight from reservations.json.
+     * The stream holds the file open: close it (try-with-resources) when done.
+     * @param guestId the guest's ID
+     * @return stream of that guest's reservations
+     */
+    public Stream<Reservation> streamByGuestId(String guestId) {
+        return streamMatching("guestId", guestId);
+    }
+
+    /**
+     * Walks the top-level array with a streaming parser and binds objects whose field equals the value.
+     */
+    private Stream<Reservation> streamMatching(String field, String value) {
+        if (value == null || !file.exists()) {
+            return Stream.empty();
+        }
+        JsonParser parser;
+        try {
+            parser = mapper.getFactory().createParser(file);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                parser.close();
+                return Stream.empty();
+            }
+        } catch (Exception e) {
+            System.out.println("Error reading reservations.json: " + e.getMessage());
+            return Stream.empty();
+        }
+
+        Spliterator<Reservation> matches = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Reservation> action) {
+                try {
+                    Reservation next = nextMatch(parser, field, value);
+                    if (next == null) {
+                        return false;
+                    }
+                    action.accept(next);
+                    return true;
+                } catch (IOException e) {
+                    System.out.println("Error reading reservations.json: " + e.getMessage());
+                    return false;
+                }
+            }
+        };
+        return StreamSupport.stream(matches, false).onClose(() -> {
+            try {
+                parser.close();
+            } catch (IOException ignored) {
+            }
+        });
+    }
+
+    /**
+     * Reads objects until one matches. Fields are buffered as tokens until the match field is seen;
+     * once it doesn't match, the rest of the object is skipped without buffering.
+     * @return the next matching reservation, or null at the end of the array
+     */
+    private Reservation nextMatch(JsonParser parser, String field, String value) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            TokenBuffer buffer = new TokenBuffer(parser);
+            buffer.writeStartObject();
+            boolean matched = false;
+            boolean rejected = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (rejected) {
+                    parser.skipChildren();
+                    continue;
+                }
+                if (name.equals(field)) {
+                    matched = token.isScalarValue() && value.equals(parser.getText());
+                    rejected = !matched;
+                }
+                buffer.writeFieldName(name);
+                buffer.copyCurrentStructure(parser);
+            }
+            buffer.writeEndObject();
+            if (matched) {
+                try (JsonParser bound = buffer.asParser(mapper)) {
+                    bound.nextToken();
+                    return mapper.readValue(bound, Reservation.class);
+                }
+            }
+        }
+        return null;
     }
 
     public boolean add(Reservation reservation) {
@@ -56,6 +166,20 @@ public class ReservationJsonRepository {
         return writeAll(all);
     }
 
+    /**
+     * Appends many reservations with one read and one write of the file.
+     * IDs are assigned in order, continuing from the current highest ID like add().
+     */
+    public boolean addAll(List<Reservation> reservations) {
+        List<Reservation> all = findAll();
+        int next = nextId(all);
+        for (Reservation r : reservations) {
+            r.setId(next++);
+        }
+        all.addAll(reservations);
+        return writeAll(all);
+    }
+
     public boolean update(Reservation updated) {
         List<Reservation> all = findAll();
         for (int i = 0; i < all.size(); i++) {
@@ -0,0 +1,214 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory reservation storage for benchmarking and ephemeral runs. Nothing is written to disk.
+ * Selected with storage.backend=memory.
+ * Each host keeps its rows in insertion order plus a start-date index for range queries.
+ * applyChanges is all-or-nothing.
+ */
+public class ReservationMemoryRepository implements ReservationStorage {
+
+    private final Map<String, HostRows> hosts = new HashMap<>();
+    private int nextId = 1;
+
+    @Override
+    public synchronized List<Reservation> findByHost(String hostId) {
+        HostRows rows = hosts.get(hostId);
+        List<Reservation> result = new ArrayList<>();
+        if (rows != null) {
+            for (Reservation r : rows.byId.values()) {
+                result.add(copyOf(r));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Only visits rows that start on or before the range end
+     */
+    @Override
+    public synchronized List<Reservation> findByHostBetween(String hostId, LocalDate from, LocalDate to) {
+        HostRows rows = hosts.get(hostId);
+        List<Reservation> result = new ArrayList<>();
+        if (rows == null) {
+            return result;
+        }
+        for (List<Reservation> sameStart : rows.byStart.headMap(to, true).values()) {
+            for (Reservation r : sameStart) {
+                if (!r.getEndDate().isBefore(from)) {
+                    result.add(copyOf(r));
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized boolean add(Reservation reservation, String hostId) {
+        reservation.setId(nextId++);
+        reservation.setVersion(1);
+        put(reservation, hostId);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean addAll(List<Reservation> reservations, String hostId) {
+        for (Reservation r : reservations) {
+            add(r, hostId);
+        }
+        return true;
+    }
+
+    /**
+     * Stores a reservation with the ID it already has, e.g. when loading existing data
+     */
+    public synchronized void load(Reservation reservation, String hostId) {
+        nextId = Math.max(nextId, reservation.getId() + 1);
+        reservation.setVersion(Math.max(1, reservation.getVersion()));
+        HostRows rows = hosts.get(hostId);
+        if (rows != null && rows.byId.containsKey(reservation.getId())) {
+            rows.remove(reservation.getId());
+        }
+        put(reservation, hostId);
+    }
+
+    /**
+     * Compare-and-set on the version, see Reservation.getVersion
+     */
+    @Override
+    public synchronized boolean update(Reservation updated, String hostId) {
+        HostRows rows = hosts.get(hostId);
+        Reservation stored = rows == null ? null : rows.byId.get(updated.getId());
+        if (stored == null || (updated.getVersion() > 0 && updated.getVersion() != stored.getVersion())) {
+            return false;
+        }
+        updated.setVersion(stored.getVersion() + 1);
+        Reservation copy = copyOf(updated);
+        copy.setHostId(hostId);
+        rows.unindex(rows.byId.get(updated.getId()));
+        rows.byId.put(copy.getId(), copy); // keeps its position
+        rows.index(copy);
+        return true;
+    }
+
+    @Override
+    public synchronized boolean delete(int reservationId, String hostId) {
+        return delete(reservationId, hostId, 0);
+    }
+
+    @Override
+    public synchronized boolean delete(int reservationId, String hostId, int expectedVersion) {
+        HostRows rows = hosts.get(hostId);
+        Reservation stored = rows == null ? null : rows.byId.get(reservationId);
+        if (stored == null || (expectedVersion > 0 && expectedVersion != stored.getVersion())) {
+            return false;
+        }
+        return rows.remove(reservationId);
+    }
+
+    /**
+     * Checks every update and delete before changing anything, so either the whole batch
+     * is applied or none of it (a missing row or stale version fails it)
+     */
+    @Override
+    public synchronized boolean applyChanges(String hostId, List<Reservation> added, Collection<Reservation> updated,
+                                             Collection<Integer> deletedIds) {
+        HostRows rows = hosts.get(hostId);
+        Map<Integer, Integer> versions = new HashMap<>();
+        for (Reservation r : updated) {
+            Reservation stored = rows == null ? null : rows.byId.get(r.getId());
+            if (stored == null) {
+                return false;
+            }
+            int current = versions.getOrDefault(r.getId(), stored.getVersion());
+            if (r.getVersion() > 0 && r.getVersion() != current) {
+                return false;
+            }
+            versions.put(r.getId(), current + 1);
+        }
+        Set<Integer> deleted = new HashSet<>();
+        for (int id : deletedIds) {
+            if (rows == null || !rows.byId.containsKey(id) || !deleted.add(id)) {
+                return false;
+            }
+        }
+
+        addAll(added, hostId);
+        for (Reservation r : updated) {
+            update(r, hostId);
+        }
+        for (int id : deletedIds) {
+            rows.remove(id);
+        }
+        return true;
+    }
+
+    /**
+     * Number of writes made to the host so far
+     */
+    @Override
+    public synchronized Object changeToken(String hostId) {
+        HostRows rows = hosts.get(hostId);
+        return rows == null ? 0 : rows.version;
+    }
+
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.allOf(StorageCapability.class);
+    }
+
+    private void put(Reservation reservation, String hostId) {
+        reservation.setHostId(hostId);
+        Reservation copy = copyOf(reservation);
+        HostRows rows = hosts.computeIfAbsent(hostId, k -> new HostRows());
+        rows.byId.put(copy.getId(), copy);
+        rows.index(copy);
+    }
+
+    private static Reservation copyOf(Reservation r) {
+        return new Reservation(r);
+    }
+
+    private static class HostRows {
+        final Map<Integer, Reservation> byId = new LinkedHashMap<>();
+        final TreeMap<LocalDate, List<Reservation>> byStart = new TreeMap<>();
+        int version;
+
+        void index(Reservation r) {
+            version++;
+            byStart.computeIfAbsent(r.getStartDate(), k -> new ArrayList<>()).add(r);
+        }
+
+        void unindex(Reservation r) {
+            version++;
+            List<Reservation> sameStart = byStart.get(r.getStartDate());
+            sameStart.remove(r);
+            if (sameStart.isEmpty()) {
+                byStart.remove(r.getStartDate());
+            }
+        }
+
+        boolean remove(int id) {
+            Reservation old = byId.remove(id);
+            if (old == null) {
+                return false;
+            }
+            unindex(old);
+            return true;
+        }
+    }
+}
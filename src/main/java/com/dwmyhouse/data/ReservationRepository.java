@@ -1,77 +1,419 @@
 package com.dwmyhouse.data;
 
 import com.dwmyhouse.models.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
 import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.PrintWriter;
-import java.math.BigDecimal;
+import java.io.RandomAccessFile;
 import java.nio.file.Path;
-import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Lock;
 
 /**
  * Repository for handling reservation files per host
+ *
+ * In append-only mode, writes never rewrite the host file:
+ * -add appends one row
+ * -update appends a newer row with the same ID (the last row for an ID wins)
+ * -delete appends a tombstone row "id,,,,"
+ * Readers resolve the latest row per ID, so plain files written by the old code read the same.
+ *
+ * Rows carry a version column (see Reservation.getVersion). Files from before it was added
+ * have five columns and read as version 1; they gain the column the next time they're rewritten.
+ * Updates and deletes with a version are compare-and-set: they fail if the stored row has moved on.
+ * Once a file's dead-row ratio crosses COMPACT_DEAD_RATIO, a background thread rewrites it.
+ *
+ * Each host file is guarded by a striped read/write lock (HostLocks): reads of a host run together,
+ * writes to it run one at a time, and different hosts don't wait on each other.
  */
 @Repository
-public class ReservationRepository {
+public class ReservationRepository implements ReservationStorage {
+
+    private static final String HEADER = "id,start_date,end_date,guest_id,total,version";
+    private static final String LEGACY_HEADER = "id,start_date,end_date,guest_id,total";
+    private static final int ID_BLOCK_SIZE = 20;
+    static final double COMPACT_DEAD_RATIO = 0.5;
+    static final int COMPACT_MIN_ROWS = 16;
 
-    private static final String HEADER = "id,start_date,end_date,guest_id,total";
     private final Path reservationsDir;
+    private final ReservationIdSequence idSequence;
+    private final boolean appendOnly;
+    private final DurableFileWriter durableWriter;
+
+    private final HostLocks locks = new HostLocks();
+
+    // Row counts per host file, kept so appends know when a file is worth compacting.
+    // A host's entry is only changed under that host's lock.
+    private final Map<String, HostFileStats> stats = new ConcurrentHashMap<>();
+    private final Set<String> pendingCompactions = ConcurrentHashMap.newKeySet();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "reservation-compactor");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ReservationRepository(String reservationsDir) {
+        this(reservationsDir, false);
+    }
+
+    public ReservationRepository(String reservationsDir, boolean appendOnly) {
+        this(reservationsDir, appendOnly, DurableFileWriter.defaultWriter());
+    }
 
-    public ReservationRepository(@Value("${reservation.dir.path:./data/reservations}")String reservationsDir) {
+    @Autowired
+    public ReservationRepository(@Value("${reservation.dir.path:./data/reservations}") String reservationsDir,
+                                 @Value("${reservation.append.only:false}") boolean appendOnly,
+                                 DurableFileWriter durableWriter) {
         this.reservationsDir = Path.of(reservationsDir);
+        this.idSequence = new ReservationIdSequence(this.reservationsDir, ID_BLOCK_SIZE, this::generateGlobalId);
+        this.appendOnly = appendOnly;
+        this.durableWriter = durableWriter;
     }
 
     /**
      * Loads all the reservations for the given host ID from its corresponding file.
-     * Skips invalid lines
+     * Skips invalid lines. If an ID appears more than once the last row wins, and tombstones remove it.
      * @param hostId the host's ID
      * @return list of all reservations for that host
      */
     public List<Reservation> findByHost(String hostId) {
-        List<Reservation> result = new ArrayList<>();
-        Path filePath = reservationsDir.resolve(hostId + ".csv");
+        Lock lock = locks.forHost(hostId).readLock();
+        lock.lock();
+        try {
+            Path filePath = hostFile(hostId);
+
+            if (!filePath.toFile().exists()) {
+                stats.remove(hostId);
+                return new ArrayList<>();
+            }
+
+            FileStamp stamp = FileStamp.of(filePath);
+            Map<Integer, Reservation> latest = new LinkedHashMap<>();
+            int rows = parse(filePath, hostId, latest);
+
+            stats.put(hostId, new HostFileStats(stamp, rows, versionsOf(latest.values())));
+            observeIds(latest.keySet());
+            return new ArrayList<>(latest.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Moves the ID sequence past IDs found in a host file, so rows added by other tools are never reused
+     */
+    private void observeIds(Collection<Integer> ids) {
+        int max = 0;
+        for (int id : ids) {
+            max = Math.max(max, id);
+        }
+        try {
+            idSequence.observe(max);
+        } catch (Exception e) {
+            System.out.println("Error updating reservation ID sequence: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Reads a host file without taking the repository lock or touching its caches,
+     * so many host files can be parsed at once (e.g. by the data migration).
+     * Sees the same rows as findByHost, but isn't ordered with writes made through this repository.
+     * @param hostId the host's ID
+     * @return list of all reservations for that host
+     */
+    public List<Reservation> readHostFile(String hostId) {
+        Path filePath = hostFile(hostId);
         if (!filePath.toFile().exists()) {
-            return result;
+            return new ArrayList<>();
         }
+        Map<Integer, Reservation> latest = new LinkedHashMap<>();
+        parse(filePath, hostId, latest);
+        return new ArrayList<>(latest.values());
+    }
 
+    /**
+     * Parses a host file into latest (ID to last live row)
+     * @return number of data rows read, including tombstones and invalid lines
+     */
+    private int parse(Path filePath, String hostId, Map<Integer, Reservation> latest) {
+        int rows = 0;
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
             String line;
             boolean isFirst = true;
             while ((line = reader.readLine()) != null) {
-                if (isFirst && line.equalsIgnoreCase(HEADER)) {
+                if (isFirst && isHeader(line)) {
                     isFirst = false;
                     continue;
                 }
+                rows++;
+                Integer tombstone = tombstoneId(line);
+                if (tombstone != null) {
+                    latest.remove(tombstone);
+                    continue;
+                }
                 Reservation r = deserialize(line, hostId);
                 if (r != null) {
-                    result.add(r);
+                    latest.put(r.getId(), r);
                 }
             }
         } catch (Exception e) {
             System.out.println("Error reading reservation file for host: " + e.getMessage());
         }
-
-        return result;
+        return rows;
     }
 
     /**
      * Adds a new reservation for the given host.
-     * Automatically assigns the next available ID.
+     * Automatically assigns the next available ID from the persistent ID sequence.
      * @param reservation the reservation to add
      * @param hostId the host's ID
      * @return true if successful, false otherwise
      */
     public boolean add(Reservation reservation, String hostId) {
-        List<Reservation> existing = findByHost(hostId);
-        reservation.setId(generateGlobalId());
-        existing.add(reservation);
-        return writeAll(existing, hostId);
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            List<Reservation> existing = appendOnly ? null : findByHost(hostId);
+            int id = nextId();
+            if (id <= 0) {
+                return false;
+            }
+            reservation.setId(id);
+            reservation.setVersion(1);
+            if (appendOnly) {
+                return append(hostId, reservation, reservation.getId());
+            }
+            existing.add(reservation);
+            return writeAll(existing, hostId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds several reservations to a host file with one write.
+     * IDs are reserved as one contiguous run from the ID sequence.
+     * @param reservations the reservations to add; their IDs are overwritten
+     * @param hostId the host's ID
+     * @return true if successful
+     */
+    @Override
+    public boolean addAll(List<Reservation> reservations, String hostId) {
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            if (reservations.isEmpty()) {
+                return true;
+            }
+            if (!assignIds(reservations, hostId)) {
+                return false;
+            }
+            Path filePath = hostFile(hostId);
+            if (appendOnly && filePath.toFile().exists()) {
+                CsvCodec csv = CsvCodec.forThread();
+                StringBuilder text = new StringBuilder(reservations.size() * 64);
+                if (!endsWithNewline(filePath)) {
+                    text.append(System.lineSeparator());
+                }
+                for (Reservation r : reservations) {
+                    formatRow(csv, r).endRow(text);
+                }
+                stats.remove(hostId); // recounted on the next read
+                try {
+                    durableWriter.append(filePath, text.toString());
+                    return true;
+                } catch (Exception e) {
+                    System.out.println("Error writing reservation file for host: " + e.getMessage());
+                    return false;
+                }
+            }
+            List<Reservation> existing = findByHost(hostId);
+            existing.addAll(reservations);
+            return writeAll(existing, hostId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies adds, updates and deletes for one host with one write: a single rewrite of the host file,
+     * or in append-only mode a single append of the new rows and tombstones.
+     * Nothing is written if an update or delete names an ID that isn't in the file,
+     * or an update's version no longer matches. The caller's reservations only get their new IDs
+     * and versions once the write succeeded, so a failed batch can be retried as is.
+     * @return true if successful
+     */
+    @Override
+    public boolean applyChanges(String hostId, List<Reservation> added, Collection<Reservation> updated,
+                                Collection<Integer> deletedIds) {
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            if (added.isEmpty() && updated.isEmpty() && deletedIds.isEmpty()) {
+                return true;
+            }
+            Path filePath = hostFile(hostId);
+            boolean appending = appendOnly && filePath.toFile().exists();
+            Map<Integer, Reservation> rows = new LinkedHashMap<>();
+            Map<Integer, Integer> versions;
+            if (appending) {
+                versions = liveVersions(hostId);
+            } else {
+                versions = new HashMap<>();
+                for (Reservation r : findByHost(hostId)) {
+                    rows.put(r.getId(), r);
+                    versions.put(r.getId(), r.getVersion());
+                }
+            }
+            if (!updated.stream().allMatch(r -> versionMatches(versions.get(r.getId()), r.getVersion()))
+                    || !versions.keySet().containsAll(deletedIds)) {
+                return false;
+            }
+            int firstId = added.isEmpty() ? 0 : allocateIds(added.size());
+            if (!added.isEmpty() && firstId <= 0) {
+                return false;
+            }
+
+            // Written as copies; the caller's objects change only after the write
+            List<Reservation> newRows = new ArrayList<>(added.size());
+            for (int i = 0; i < added.size(); i++) {
+                Reservation copy = new Reservation(added.get(i));
+                copy.setId(firstId + i);
+                copy.setHostId(hostId);
+                copy.setVersion(1);
+                newRows.add(copy);
+            }
+            List<Reservation> changedRows = new ArrayList<>(updated.size());
+            for (Reservation r : updated) {
+                Reservation copy = new Reservation(r);
+                copy.setVersion(versions.get(r.getId()) + 1);
+                changedRows.add(copy);
+            }
+
+            boolean written;
+            if (appending) {
+                CsvCodec csv = CsvCodec.forThread();
+                StringBuilder text = new StringBuilder((added.size() + updated.size() + deletedIds.size()) * 64);
+                if (!endsWithNewline(filePath)) {
+                    text.append(System.lineSeparator());
+                }
+                for (Reservation r : newRows) {
+                    formatRow(csv, r).endRow(text);
+                }
+                for (Reservation r : changedRows) {
+                    formatRow(csv, r).endRow(text);
+                }
+                for (int id : deletedIds) {
+                    text.append(id).append(",,,,").append(System.lineSeparator());
+                }
+                stats.remove(hostId); // recounted on the next read
+                try {
+                    durableWriter.append(filePath, text.toString());
+                    written = true;
+                } catch (Exception e) {
+                    System.out.println("Error writing reservation file for host: " + e.getMessage());
+                    written = false;
+                }
+            } else {
+                changedRows.forEach(r -> rows.put(r.getId(), r));
+                deletedIds.forEach(rows::remove);
+                List<Reservation> result = new ArrayList<>(rows.values());
+                result.addAll(newRows);
+                written = writeAll(result, hostId);
+            }
+            if (!written) {
+                return false;
+            }
+
+            for (int i = 0; i < added.size(); i++) {
+                added.get(i).setId(firstId + i);
+                added.get(i).setHostId(hostId);
+                added.get(i).setVersion(1);
+            }
+            int i = 0;
+            for (Reservation r : updated) {
+                r.setVersion(changedRows.get(i++).getVersion());
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return false if no IDs could be reserved (the reservations are left untouched)
+     */
+    private boolean assignIds(List<Reservation> reservations, String hostId) {
+        if (reservations.isEmpty()) {
+            return true;
+        }
+        int first = allocateIds(reservations.size());
+        if (first <= 0) {
+            return false;
+        }
+        for (int i = 0; i < reservations.size(); i++) {
+            reservations.get(i).setId(first + i);
+            reservations.get(i).setHostId(hostId);
+            reservations.get(i).setVersion(1);
+        }
+        return true;
+    }
+
+    /**
+     * Reserves a contiguous run of IDs from the sequence file, see nextId()
+     * @return the first ID of the run, or 0 if the sequence can't be used
+     */
+    private int allocateIds(int count) {
+        try {
+            return idSequence.allocate(count);
+        } catch (Exception e) {
+            System.out.println("Error reading reservation ID sequence: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * The host file's modified time and size
+     */
+    @Override
+    public Object changeToken(String hostId) {
+        return FileStamp.of(hostFile(hostId));
+    }
+
+    /**
+     * CSV files support batch writes (addAll); range queries and lookups scan the host file.
+     */
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.of(StorageCapability.BATCH_WRITES);
+    }
+
+    /**
+     * Takes the next ID from the sequence file.
+     * If the sequence can't be written (e.g. read-only folder) the write fails: a scan for the
+     * highest ID could hand out one another writer has already reserved.
+     * @return the ID, or 0 if the sequence can't be used
+     */
+    private int nextId() {
+        try {
+            return idSequence.next();
+        } catch (Exception e) {
+            System.out.println("Error reading reservation ID sequence: " + e.getMessage());
+            return 0;
+        }
     }
 
     /**
@@ -82,14 +424,42 @@ public class ReservationRepository {
      * @return true if update succeeded, false otherwise
      */
     public boolean update(Reservation updated, String hostId) {
-        List<Reservation> reservations = findByHost(hostId);
-        for (int i = 0; i < reservations.size(); i++) {
-            if (reservations.get(i).getId() == updated.getId()) {
-                reservations.set(i, updated);
-                return writeAll(reservations, hostId);
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            int expected = updated.getVersion();
+            if (appendOnly) {
+                Integer stored = liveVersions(hostId).get(updated.getId());
+                if (!versionMatches(stored, expected)) {
+                    return false;
+                }
+                updated.setVersion(stored + 1);
+                if (append(hostId, updated, updated.getId())) {
+                    return true;
+                }
+                updated.setVersion(expected);
+                return false;
+            }
+            List<Reservation> reservations = findByHost(hostId);
+            for (int i = 0; i < reservations.size(); i++) {
+                Reservation stored = reservations.get(i);
+                if (stored.getId() == updated.getId()) {
+                    if (!versionMatches(stored.getVersion(), expected)) {
+                        return false;
+                    }
+                    updated.setVersion(stored.getVersion() + 1);
+                    reservations.set(i, updated);
+                    if (writeAll(reservations, hostId)) {
+                        return true;
+                    }
+                    updated.setVersion(expected);
+                    return false;
+                }
             }
+            return false;
+        } finally {
+            lock.unlock();
         }
-        return false;
     }
 
     /**
@@ -99,9 +469,140 @@ public class ReservationRepository {
      * @return true if successfully deleted, false otherwise
      */
     public boolean delete(int reservationId, String hostId) {
-        List<Reservation> reservations = findByHost(hostId);
-        boolean removed = reservations.removeIf(r -> r.getId() == reservationId);
-        return removed && writeAll(reservations, hostId);
+        return delete(reservationId, hostId, 0);
+    }
+
+    /**
+     * Deletes a reservation only if its stored version is still expectedVersion (0 skips the check)
+     * @return true if successfully deleted, false if missing, changed since, or the write failed
+     */
+    @Override
+    public boolean delete(int reservationId, String hostId, int expectedVersion) {
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            if (appendOnly) {
+                return versionMatches(liveVersions(hostId).get(reservationId), expectedVersion)
+                        && append(hostId, null, reservationId);
+            }
+            List<Reservation> reservations = findByHost(hostId);
+            boolean removed = reservations.removeIf(r -> r.getId() == reservationId
+                    && versionMatches(r.getVersion(), expectedVersion));
+            return removed && writeAll(reservations, hostId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites a host file with only its live rows, dropping superseded rows and tombstones.
+     * @param hostId the host's ID
+     * @return true if the file was rewritten
+     */
+    public boolean compact(String hostId) {
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            pendingCompactions.remove(hostId);
+            if (!hostFile(hostId).toFile().exists()) {
+                return false;
+            }
+            return writeAll(findByHost(hostId), hostId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Versions of the IDs currently live in the host file, from the last read if the file hasn't changed since.
+     */
+    private Map<Integer, Integer> liveVersions(String hostId) {
+        HostFileStats known = stats.get(hostId);
+        if (known == null || !known.stamp.equals(FileStamp.of(hostFile(hostId)))) {
+            findByHost(hostId);
+            known = stats.get(hostId);
+        }
+        return known == null ? Map.of() : known.liveVersions;
+    }
+
+    /**
+     * Appends one row to the host file (creating it with a header if needed),
+     * then updates the row counts and schedules compaction if too many rows are dead.
+     * @param reservation the new version of the row, or null to append a tombstone
+     * @param id the reservation ID the row belongs to
+     */
+    private boolean append(String hostId, Reservation reservation, int id) {
+        Path filePath = hostFile(hostId);
+        boolean live = reservation != null;
+        if (!filePath.toFile().exists()) {
+            return live && writeAll(List.of(reservation), hostId);
+        }
+        String row = live ? formatRow(CsvCodec.forThread(), reservation).row().toString() : id + ",,,,";
+
+        HostFileStats known = stats.get(hostId);
+        boolean statsCurrent = known != null && known.stamp.equals(FileStamp.of(filePath));
+
+        String text = endsWithNewline(filePath)
+                ? row + System.lineSeparator()
+                : System.lineSeparator() + row + System.lineSeparator();
+        try {
+            durableWriter.append(filePath, text);
+        } catch (Exception e) {
+            System.out.println("Error writing reservation file for host: " + e.getMessage());
+            stats.remove(hostId);
+            return false;
+        }
+
+        if (!statsCurrent) {
+            stats.remove(hostId);
+            return true;
+        }
+        known.rows++;
+        if (live) {
+            known.liveVersions.put(id, reservation.getVersion());
+        } else {
+            known.liveVersions.remove(id);
+        }
+        known.stamp = FileStamp.of(filePath);
+
+        if (known.rows >= COMPACT_MIN_ROWS
+                && (known.rows - known.liveVersions.size()) > known.rows * COMPACT_DEAD_RATIO
+                && pendingCompactions.add(hostId)) {
+            compactor.submit(() -> compact(hostId));
+        }
+        return true;
+    }
+
+    private static boolean endsWithNewline(Path filePath) {
+        try (RandomAccessFile file = new RandomAccessFile(filePath.toFile(), "r")) {
+            if (file.length() == 0) {
+                return true;
+            }
+            file.seek(file.length() - 1);
+            int last = file.read();
+            return last == '\n' || last == '\r';
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    /**
+     * Returns the reservation ID if the line is a tombstone ("id,,,,"), otherwise null
+     */
+    private static Integer tombstoneId(String line) {
+        if (!line.endsWith(",,,,")) {
+            return null;
+        }
+        String id = line.substring(0, line.length() - 4);
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Path hostFile(String hostId) {
+        return reservationsDir.resolve(hostId + ".csv");
     }
 
     /**
@@ -109,16 +610,18 @@ public class ReservationRepository {
      * Returns a Reservation or null if line is invalid
      */
     Reservation deserialize(String line, String hostId) {
-        String[] tokens = line.split(",", -1);
-        if (tokens.length != 5) return null;
+        CsvCodec csv = CsvCodec.forThread();
+        int fields = csv.split(line);
+        if (fields != 5 && fields != 6) return null;
 
         try {
             Reservation r = new Reservation();
-            r.setId(Integer.parseInt(tokens[0]));
-            r.setStartDate(LocalDate.parse(tokens[1]));
-            r.setEndDate(LocalDate.parse(tokens[2]));
-            r.setGuestId(tokens[3]);
-            r.setTotal(new BigDecimal(tokens[4]));
+            r.setId(csv.parseInt(0));
+            r.setStartDate(csv.parseDate(1));
+            r.setEndDate(csv.parseDate(2));
+            r.setGuestId(csv.text(3));
+            r.setTotal(csv.parseDecimal(4));
+            r.setVersion(fields == 6 && !csv.text(5).isEmpty() ? csv.parseInt(5) : 1);
             r.setHostId(hostId);
             return r;
         } catch (Exception e) {
@@ -134,33 +637,34 @@ public class ReservationRepository {
      * @return comma-separated string
      */
     public String serialize(Reservation r) {
-        return String.format("%s,%s,%s,%s,%s",
-                r.getId(),
-                r.getStartDate(),
-                r.getEndDate(),
-                r.getGuestId(),
-                r.getTotal()
-        );
+        return CsvCodec.forThread().beginRow()
+                .field(r.getId())
+                .field(r.getStartDate())
+                .field(r.getEndDate())
+                .field(r.getGuestId())
+                .field(String.valueOf(r.getTotal()))
+                .field(Math.max(1, r.getVersion()))
+                .row().toString();
     }
 
     /**
      * Writes all reservations for a host back to the CSV file.
+     * The file is replaced atomically, so a crash mid-write leaves the old file intact.
      * @param reservations list of reservations
      * @param hostId the host's ID
      * @return true if file write was successful
      */
     private boolean writeAll(List<Reservation> reservations, String hostId) {
-        Path filePath = reservationsDir.resolve(hostId + ".csv");
-        try (PrintWriter writer = new PrintWriter(filePath.toFile())) {
-            writer.println(HEADER);
+        Path filePath = hostFile(hostId);
+        try {
+            CsvCodec csv = CsvCodec.forThread();
+            StringBuilder buffer = new StringBuilder(HEADER.length() + reservations.size() * 64);
+            buffer.append(HEADER).append(System.lineSeparator());
             for (Reservation r : reservations) {
-                writer.printf("%d,%s,%s,%s,%s%n",
-                        r.getId(),
-                        r.getStartDate(),
-                        r.getEndDate(),
-                        r.getGuestId(),
-                        r.getTotal().toPlainString());
+                formatRow(csv, r).endRow(buffer);
             }
+            durableWriter.replace(filePath, buffer.toString());
+            stats.put(hostId, new HostFileStats(FileStamp.of(filePath), reservations.size(), versionsOf(reservations)));
             return true;
         } catch (Exception e) {
             System.out.println("Error writing reservation file for host: " + e.getMessage());
@@ -168,8 +672,41 @@ public class ReservationRepository {
         return false;
     }
 
+    /**
+     * Builds a reservation row the way writeAll stores it
+     */
+    private static CsvCodec formatRow(CsvCodec csv, Reservation r) {
+        return csv.beginRow()
+                .field(r.getId())
+                .field(r.getStartDate())
+                .field(r.getEndDate())
+                .field(r.getGuestId())
+                .field(r.getTotal())
+                .field(Math.max(1, r.getVersion()));
+    }
+
+    private static Map<Integer, Integer> versionsOf(Collection<Reservation> reservations) {
+        Map<Integer, Integer> versions = new HashMap<>();
+        for (Reservation r : reservations) {
+            versions.put(r.getId(), r.getVersion());
+        }
+        return versions;
+    }
+
+    private static boolean isHeader(String line) {
+        return line.equalsIgnoreCase(HEADER) || line.equalsIgnoreCase(LEGACY_HEADER);
+    }
+
+    /**
+     * True if a row with this stored version may be overwritten by a write expecting expectedVersion
+     */
+    private static boolean versionMatches(Integer storedVersion, int expectedVersion) {
+        return storedVersion != null && (expectedVersion <= 0 || expectedVersion == storedVersion);
+    }
+
     /**
      * Scans all reservation files and returns the next available global reservation ID
+     * Only used to seed the ID sequence, under its lock
      */
     int generateGlobalId() {
         int maxId = 0;
@@ -177,17 +714,17 @@ public class ReservationRepository {
             if (reservationsDir.toFile().exists()) {
                 for(var file : reservationsDir.toFile().listFiles((dir,name) -> name.endsWith(".csv"))) {
                     try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+                        CsvCodec csv = CsvCodec.forThread();
                         String line;
                         boolean isFirst = true;
                         while ((line = reader.readLine()) != null) {
-                            if(isFirst && line.equalsIgnoreCase(HEADER)) {
+                            if(isFirst && isHeader(line)) {
                                 isFirst = false;
                                 continue;
                             }
-                            String[] tokens = line.split(",", -1);
-                            if(tokens.length == 5) {
+                            if(csv.split(line) >= 5) {
                                 try {
-                                    int id = Integer.parseInt(tokens[0]);
+                                    int id = csv.parseInt(0);
                                     if (id > maxId) {
                                         maxId = id;
                                     }
@@ -205,4 +742,18 @@ public class ReservationRepository {
         return maxId + 1;
     }
 
+    /**
+     * What we know about a host file since we last read or wrote it
+     */
+    private static class HostFileStats {
+        FileStamp stamp;
+        int rows;
+        final Map<Integer, Integer> liveVersions;
+
+        HostFileStats(FileStamp stamp, int rows, Map<Integer, Integer> liveVersions) {
+            this.stamp = stamp;
+            this.rows = rows;
+            this.liveVersions = liveVersions;
+        }
+    }
 }
@@ -0,0 +1,223 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only, memory-mapped binary snapshot of every reservation.
+ *
+ * File layout (big-endian):
+ * -header: magic "DWMS", version, row count, then the source files (name, mtime, size) it was built from
+ * -dictionaries: host IDs, then guest IDs (length-prefixed UTF-8)
+ * -fixed-width columns, 8-byte aligned: id, host index, guest index, start and end as epoch days, version (ints),
+ *  total in cents (longs), total scale (bytes, -1 = no total)
+ * Version 2 added the version column; older files are rejected, so the store rebuilds them.
+ * Queries scan a single int column and only build Reservation objects for matching rows.
+ *
+ * The CSV files stay the source of truth; see ReservationSnapshotBuilder.
+ */
+public final class ReservationSnapshot {
+
+    static final int MAGIC = 0x44574D53; // "DWMS"
+    static final short VERSION = 2;
+
+    private final MappedByteBuffer buffer;
+    private final int rows;
+    private final Map<String, SourceFile> sources;
+    private final String[] hostIds;
+    private final String[] guestIds;
+    private final Map<String, Integer> guestIndex = new HashMap<>();
+    private final Map<String, Integer> hostIndex = new HashMap<>();
+
+    // Column offsets into the buffer
+    private final int idColumn;
+    private final int hostColumn;
+    private final int guestColumn;
+    private final int startColumn;
+    private final int endColumn;
+    private final int versionColumn;
+    private final int centsColumn;
+    private final int scaleColumn;
+
+    private ReservationSnapshot(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a reservation snapshot");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported reservation snapshot version " + version);
+        }
+        buffer.getShort(); // reserved
+        rows = buffer.getInt();
+
+        int sourceCount = buffer.getInt();
+        sources = new HashMap<>();
+        for (int i = 0; i < sourceCount; i++) {
+            String name = readString(buffer);
+            sources.put(name, new SourceFile(buffer.getLong(), buffer.getLong()));
+        }
+        hostIds = readDictionary(buffer);
+        guestIds = readDictionary(buffer);
+        for (int i = 0; i < hostIds.length; i++) {
+            hostIndex.put(hostIds[i], i);
+        }
+        for (int i = 0; i < guestIds.length; i++) {
+            guestIndex.put(guestIds[i], i);
+        }
+
+        idColumn = align(buffer.position());
+        hostColumn = idColumn + rows * Integer.BYTES;
+        guestColumn = hostColumn + rows * Integer.BYTES;
+        startColumn = guestColumn + rows * Integer.BYTES;
+        endColumn = startColumn + rows * Integer.BYTES;
+        versionColumn = endColumn + rows * Integer.BYTES;
+        centsColumn = align(versionColumn + rows * Integer.BYTES);
+        scaleColumn = centsColumn + rows * Long.BYTES;
+        if (scaleColumn + rows > buffer.capacity()) {
+            throw new IOException("Reservation snapshot is truncated");
+        }
+    }
+
+    /**
+     * Maps a snapshot file into memory and reads its header and dictionaries
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file is missing, truncated or has another version
+     */
+    public static ReservationSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new ReservationSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int rowCount() {
+        return rows;
+    }
+
+    /**
+     * Finds a guest's reservations by scanning the guest column
+     * @param guestId the guest's ID
+     * @return matching reservations with hostId set
+     */
+    public List<Reservation> findByGuestId(String guestId) {
+        List<Reservation> result = new ArrayList<>();
+        Integer target = guestIndex.get(guestId);
+        if (target == null) {
+            return result;
+        }
+        for (int row = 0; row < rows; row++) {
+            if (buffer.getInt(guestColumn + row * Integer.BYTES) == target) {
+                result.add(reservationAt(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the reservations of several hosts by scanning the host column once
+     * @param hostIds the hosts' IDs
+     * @return matching reservations with hostId set, in snapshot order
+     */
+    public List<Reservation> findByHostIds(Collection<String> hostIds) {
+        List<Reservation> result = new ArrayList<>();
+        boolean[] wanted = new boolean[this.hostIds.length];
+        boolean any = false;
+        for (String hostId : hostIds) {
+            Integer index = hostIndex.get(hostId);
+            if (index != null) {
+                wanted[index] = true;
+                any = true;
+            }
+        }
+        if (!any) {
+            return result;
+        }
+        for (int row = 0; row < rows; row++) {
+            if (wanted[buffer.getInt(hostColumn + row * Integer.BYTES)]) {
+                result.add(reservationAt(row));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks the snapshot against the CSV files it was built from.
+     * @param reservationDir the reservation CSV folder
+     * @return true if any file was added, removed or modified since the snapshot was built
+     */
+    public boolean isStale(Path reservationDir) {
+        File[] files = reservationDir.toFile().listFiles((d, name) -> name.endsWith(".csv"));
+        if (files == null) {
+            return !sources.isEmpty();
+        }
+        if (files.length != sources.size()) {
+            return true;
+        }
+        for (File f : files) {
+            SourceFile source = sources.get(f.getName());
+            if (source == null || source.lastModified != f.lastModified() || source.size != f.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Reservation reservationAt(int row) {
+        int offset = row * Integer.BYTES;
+        Reservation r = new Reservation(
+                buffer.getInt(idColumn + offset),
+                LocalDate.ofEpochDay(buffer.getInt(startColumn + offset)),
+                LocalDate.ofEpochDay(buffer.getInt(endColumn + offset)),
+                guestIds[buffer.getInt(guestColumn + offset)],
+                total(row));
+        r.setHostId(hostIds[buffer.getInt(hostColumn + offset)]);
+        r.setVersion(buffer.getInt(versionColumn + offset));
+        return r;
+    }
+
+    private BigDecimal total(int row) {
+        byte scale = buffer.get(scaleColumn + row);
+        if (scale < 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(buffer.getLong(centsColumn + row * Long.BYTES), 2).setScale(scale);
+    }
+
+    static int align(int position) {
+        return (position + 7) & ~7;
+    }
+
+    private static String[] readDictionary(ByteBuffer buffer) {
+        String[] values = new String[buffer.getInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readString(buffer);
+        }
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private record SourceFile(long lastModified, long size) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Regenerates the binary reservation snapshot from the CSV files.
+ * Source file stamps are recorded before the rows are read, so a write that races with a build
+ * makes the new snapshot stale instead of silently missing from it.
+ */
+public class ReservationSnapshotBuilder {
+
+    private final Path reservationDir;
+    private final ReservationRepository repository;
+
+    public ReservationSnapshotBuilder(Path reservationDir, ReservationRepository repository) {
+        this.reservationDir = reservationDir;
+        this.repository = repository;
+    }
+
+    /**
+     * Builds a snapshot and atomically replaces the target file with it
+     * @param target the snapshot file
+     * @return number of reservations written
+     */
+    public int build(Path target) throws IOException {
+        File[] files = reservationDir.toFile().listFiles((d, name) -> name.endsWith(".csv"));
+        if (files == null) {
+            files = new File[0];
+        }
+        Arrays.sort(files, Comparator.comparing(File::getName));
+
+        ByteArrayOutputStream sourceBytes = new ByteArrayOutputStream();
+        DataOutputStream sourcesOut = new DataOutputStream(sourceBytes);
+        for (File f : files) {
+            writeString(sourcesOut, f.getName());
+            sourcesOut.writeLong(f.lastModified());
+            sourcesOut.writeLong(f.length());
+        }
+
+        Map<String, Integer> hosts = new LinkedHashMap<>();
+        Map<String, Integer> guests = new LinkedHashMap<>();
+        List<Reservation> rows = new ArrayList<>();
+        for (File f : files) {
+            String hostId = f.getName().substring(0, f.getName().length() - ".csv".length());
+            for (Reservation r : repository.findByHost(hostId)) {
+                hosts.putIfAbsent(hostId, hosts.size());
+                guests.putIfAbsent(r.getGuestId(), guests.size());
+                r.setHostId(hostId);
+                rows.add(r);
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + rows.size() * 32);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(ReservationSnapshot.MAGIC);
+        out.writeShort(ReservationSnapshot.VERSION);
+        out.writeShort(0);
+        out.writeInt(rows.size());
+        out.writeInt(files.length);
+        sourceBytes.writeTo(out);
+        writeDictionary(out, hosts);
+        writeDictionary(out, guests);
+
+        pad(out);
+        for (Reservation r : rows) {
+            out.writeInt(r.getId());
+        }
+        for (Reservation r : rows) {
+            out.writeInt(hosts.get(r.getHostId()));
+        }
+        for (Reservation r : rows) {
+            out.writeInt(guests.get(r.getGuestId()));
+        }
+        for (Reservation r : rows) {
+            out.writeInt(Math.toIntExact(r.getStartDate().toEpochDay()));
+        }
+        for (Reservation r : rows) {
+            out.writeInt(Math.toIntExact(r.getEndDate().toEpochDay()));
+        }
+        for (Reservation r : rows) {
+            out.writeInt(r.getVersion());
+        }
+        pad(out);
+        for (Reservation r : rows) {
+            out.writeLong(r.getTotal() == null ? 0
+                    : r.getTotal().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+        }
+        for (Reservation r : rows) {
+            out.writeByte(scaleOf(r.getTotal()));
+        }
+        out.flush();
+
+        write(target, bytes.toByteArray());
+        return rows.size();
+    }
+
+    /**
+     * Scale to restore on read: the original scale clamped to 0..2, or -1 for no total.
+     * Totals with more than 2 decimals are stored rounded to cents.
+     */
+    private static int scaleOf(BigDecimal total) {
+        if (total == null) {
+            return -1;
+        }
+        return Math.min(2, Math.max(0, total.scale()));
+    }
+
+    private static void writeDictionary(DataOutputStream out, Map<String, Integer> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values.keySet()) {
+            writeString(out, value);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length > 0xFFFF) {
+            throw new IOException("Value too long for reservation snapshot: " + value.substring(0, 32) + "...");
+        }
+        out.writeShort(utf8.length);
+        out.write(utf8);
+    }
+
+    private static void pad(DataOutputStream out) throws IOException {
+        while (out.size() != ReservationSnapshot.align(out.size())) {
+            out.writeByte(0);
+        }
+    }
+
+    private static void write(Path target, byte[] content) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,72 @@
+package com.dwmyhouse.data;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * Keeps the optional binary reservation snapshot mapped and fresh.
+ * Disabled when reservation.snapshot.path is blank or storage.backend isn't csv (the snapshot is built
+ * from the CSV files). The snapshot is mapped (or built) at startup,
+ * and rebuilt on the next read after any reservation CSV file changes.
+ */
+@Component
+public class ReservationSnapshotStore {
+
+    private final Path snapshotFile;
+    private final Path reservationDir;
+    private final ReservationSnapshotBuilder builder;
+    private ReservationSnapshot snapshot;
+
+    public ReservationSnapshotStore(String snapshotPath, String reservationDir, ReservationRepository repository) {
+        this(snapshotPath, reservationDir, "csv", repository);
+    }
+
+    @Autowired
+    public ReservationSnapshotStore(@Value("${reservation.snapshot.path:}") String snapshotPath,
+                                    @Value("${reservation.dir.path:./data/reservations}") String reservationDir,
+                                    @Value("${storage.backend:csv}") String backend,
+                                    ReservationRepository repository) {
+        boolean csv = "csv".equalsIgnoreCase(backend.trim());
+        this.snapshotFile = !csv || snapshotPath == null || snapshotPath.isBlank() ? null : Path.of(snapshotPath);
+        this.reservationDir = Path.of(reservationDir);
+        this.builder = new ReservationSnapshotBuilder(this.reservationDir, repository);
+        if (isEnabled()) {
+            current();
+        }
+    }
+
+    public boolean isEnabled() {
+        return snapshotFile != null;
+    }
+
+    /**
+     * Returns an up-to-date snapshot, mapping or rebuilding it if needed
+     * @return the snapshot, or null if disabled or it couldn't be built (callers fall back to the CSV files)
+     */
+    public synchronized ReservationSnapshot current() {
+        if (!isEnabled()) {
+            return null;
+        }
+        try {
+            if (snapshot == null && snapshotFile.toFile().exists()) {
+                snapshot = ReservationSnapshot.open(snapshotFile);
+            }
+        } catch (Exception e) {
+            System.out.println("Reservation snapshot unreadable, rebuilding: " + e.getMessage());
+            snapshot = null;
+        }
+        if (snapshot == null || snapshot.isStale(reservationDir)) {
+            snapshot = null;
+            try {
+                builder.build(snapshotFile);
+                snapshot = ReservationSnapshot.open(snapshotFile);
+            } catch (Exception e) {
+                System.out.println("Error building reservation snapshot: " + e.getMessage());
+            }
+        }
+        return snapshot;
+    }
+}
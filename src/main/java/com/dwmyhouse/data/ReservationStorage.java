@@ -0,0 +1,98 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reservation storage engine. Implemented by the CSV, JDBC and in-memory repositories.
+ * Reservations are grouped by host; IDs handed out by add() are unique across hosts.
+ */
+public interface ReservationStorage extends Storage {
+
+    /**
+     * @return the host's reservations in storage order, with hostId set
+     */
+    List<Reservation> findByHost(String hostId);
+
+    /**
+     * Adds a reservation and assigns it the next ID
+     */
+    boolean add(Reservation reservation, String hostId);
+
+    /**
+     * Replaces the reservation with the same ID. If updated carries a version (see Reservation.getVersion)
+     * it must match the stored one, otherwise nothing is written. On success updated gets the new version.
+     */
+    boolean update(Reservation updated, String hostId);
+
+    boolean delete(int reservationId, String hostId);
+
+    /**
+     * Deletes a reservation only if its version still matches (0 skips the check).
+     * The default checks then deletes, which isn't atomic; engines override it with a single step.
+     */
+    default boolean delete(int reservationId, String hostId, int expectedVersion) {
+        if (expectedVersion > 0 && findByHost(hostId).stream()
+                .noneMatch(r -> r.getId() == reservationId && r.getVersion() == expectedVersion)) {
+            return false;
+        }
+        return delete(reservationId, hostId);
+    }
+
+    /**
+     * Opaque value that changes whenever the host's reservations change, so callers can cache
+     * derived data (e.g. an interval index) and know when to rebuild it.
+     * @return the token, or null if this engine can't tell (callers must not cache)
+     */
+    default Object changeToken(String hostId) {
+        return null;
+    }
+
+    /**
+     * Reservations of a host whose dates touch [from, to] (both ends inclusive).
+     * Engines with RANGE_QUERIES answer this from an index; the default filters findByHost.
+     */
+    default List<Reservation> findByHostBetween(String hostId, LocalDate from, LocalDate to) {
+        return findByHost(hostId).stream()
+                .filter(r -> !r.getEndDate().isBefore(from) && !r.getStartDate().isAfter(to))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Adds several reservations to one host, assigning each the next ID.
+     * Engines with BATCH_WRITES do this in one write; the default adds them one by one.
+     * @return true if all were added
+     */
+    default boolean addAll(List<Reservation> reservations, String hostId) {
+        boolean all = true;
+        for (Reservation r : reservations) {
+            all &= add(r, hostId);
+        }
+        return all;
+    }
+
+    /**
+     * Applies a mix of changes to one host: adds (assigning IDs), then updates, then deletes.
+     * Engines with BATCH_WRITES do this in one write and apply all of it or none of it.
+     * The default calls addAll, update and delete, which isn't atomic: on false, some changes may have been saved.
+     * @param added new reservations; their IDs are overwritten
+     * @param updated replacements for existing reservations
+     * @param deletedIds IDs of existing reservations to remove
+     * @return true if every change was applied
+     */
+    default boolean applyChanges(String hostId, List<Reservation> added, Collection<Reservation> updated,
+                                 Collection<Integer> deletedIds) {
+        boolean all = added.isEmpty() || addAll(added, hostId);
+        for (Reservation r : updated) {
+            all &= update(r, hostId);
+        }
+        for (int id : deletedIds) {
+            all &= delete(id, hostId);
+        }
+        return all;
+    }
+}
@@ -0,0 +1,15 @@
+package com.dwmyhouse.data;
+
+import java.util.Set;
+
+/**
+ * Common base of the storage interfaces: reports which optional capabilities an engine has.
+ */
+public interface Storage {
+
+    Set<StorageCapability> capabilities();
+
+    default boolean supports(StorageCapability capability) {
+        return capabilities().contains(capability);
+    }
+}
@@ -0,0 +1,14 @@
+package com.dwmyhouse.data;
+
+/**
+ * Optional features a storage engine can offer beyond the basic reads and writes.
+ * Callers check these before relying on a fast path; the default methods still work without them.
+ */
+public enum StorageCapability {
+    /** Date-range reservation queries are answered from an index instead of a full host scan */
+    RANGE_QUERIES,
+    /** Lookups by email, state, city or postal code use an index instead of a scan */
+    SECONDARY_INDEXES,
+    /** Many rows can be written in one operation (one file write / one transaction) */
+    BATCH_WRITES
+}
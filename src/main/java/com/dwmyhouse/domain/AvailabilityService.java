@@ -0,0 +1,118 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Answers availability questions from a per-host OccupancyCalendar.
+ * A calendar covers availability.horizon.days days from today. It is built on first use,
+ * patched by ReservationService on make/edit/cancel, and rebuilt when the day rolls over
+ * or the storage reports a change made outside the service.
+ * Queries past the horizon fall back to ReservationService.findReservationsBetween.
+ */
+@Service
+public class AvailabilityService {
+
+    private final ReservationService reservationService;
+    private final int horizonDays;
+    private final Map<String, HostCalendar> calendars = new ConcurrentHashMap<>();
+
+    public AvailabilityService(ReservationService reservationService) {
+        this(reservationService, 730);
+    }
+
+    @Autowired
+    public AvailabilityService(ReservationService reservationService,
+                               @Value("${availability.horizon.days:730}") int horizonDays) {
+        this.reservationService = reservationService;
+        this.horizonDays = horizonDays;
+        reservationService.addListener(this::reservationChanged);
+    }
+
+    /**
+     * Checks whether a host has no reservation touching [start, end]
+     * @return true if a reservation for those dates wouldn't overlap anything
+     */
+    public boolean isAvailable(String hostId, LocalDate start, LocalDate end) {
+        OccupancyCalendar calendar = calendarFor(hostId);
+        if (!calendar.covers(start, end)) {
+            return reservationService.findReservationsBetween(hostId, start, end).isEmpty();
+        }
+        return calendar.isFree(start, end);
+    }
+
+    /**
+     * Finds the earliest stay of the given length that could be booked
+     * @param from earliest start date (tomorrow at the soonest, like makeReservation)
+     * @param nights nights in the stay; the end date is start + nights
+     * @return the start date, or null if nothing fits before the horizon
+     */
+    public LocalDate nextFreeWindow(String hostId, LocalDate from, int nights) {
+        if (nights <= 0) {
+            return null;
+        }
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        LocalDate earliest = from.isBefore(tomorrow) ? tomorrow : from;
+        // Start and end days are both booked by a reservation, so a stay needs nights + 1 free days
+        return calendarFor(hostId).nextFreeWindow(earliest, nights + 1);
+    }
+
+    /**
+     * Share of days in [start, end] that are booked, between 0 and 1
+     */
+    public double occupancyRatio(String hostId, LocalDate start, LocalDate end) {
+        OccupancyCalendar calendar = calendarFor(hostId);
+        if (!calendar.covers(start, end)) {
+            calendar = OccupancyCalendar.of(start, (int) (end.toEpochDay() - start.toEpochDay() + 1),
+                    reservationService.findReservationsBetween(hostId, start, end));
+        }
+        return calendar.occupancyRatio(start, end);
+    }
+
+    private OccupancyCalendar calendarFor(String hostId) {
+        LocalDate today = LocalDate.now();
+        Object token = reservationService.changeToken(hostId);
+        HostCalendar cached = calendars.get(hostId);
+        if (cached != null && token != null && token.equals(cached.token)
+                && cached.calendar.origin().equals(today)) {
+            return cached.calendar;
+        }
+        OccupancyCalendar calendar = OccupancyCalendar.of(today, horizonDays,
+                reservationService.findReservationsBetween(hostId, today, today.plusDays(horizonDays - 1)));
+        if (token != null) {
+            calendars.put(hostId, new HostCalendar(token, calendar));
+        }
+        return calendar;
+    }
+
+    private void reservationChanged(String hostId, Reservation before, Reservation after) {
+        HostCalendar cached = calendars.get(hostId);
+        if (cached == null) {
+            return;
+        }
+        OccupancyCalendar calendar = cached.calendar;
+        if (before != null) {
+            calendar.release(before.getStartDate(), before.getEndDate());
+            // Rebook anything else still on those days (old data can overlap)
+            List<Reservation> remaining = reservationService.findReservationsBetween(
+                    hostId, before.getStartDate(), before.getEndDate());
+            for (Reservation r : remaining) {
+                calendar.occupy(r.getStartDate(), r.getEndDate());
+            }
+        }
+        if (after != null) {
+            calendar.occupy(after.getStartDate(), after.getEndDate());
+        }
+        calendars.put(hostId, new HostCalendar(reservationService.changeToken(hostId), calendar));
+    }
+
+    private record HostCalendar(Object token, OccupancyCalendar calendar) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.dwmyhouse.domain;
+
+import java.time.LocalDate;
+
+/**
+ * One row of a bulk reservation import, e.g. from a partner feed
+ */
+public record BookingRequest(String hostId, String guestId, LocalDate startDate, LocalDate endDate) {
+}
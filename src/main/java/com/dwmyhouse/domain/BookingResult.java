@@ -0,0 +1,16 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Reservation;
+
+/**
+ * Outcome of one bulk import row
+ * @param row 1-based position of the row in the import
+ * @param reservation the stored reservation (with ID and total), or null if rejected
+ * @param error why the row was rejected, or null if it was booked
+ */
+public record BookingResult(int row, BookingRequest request, Reservation reservation, String error) {
+
+    public boolean accepted() {
+        return error == null;
+    }
+}
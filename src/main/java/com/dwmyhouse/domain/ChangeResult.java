@@ -0,0 +1,17 @@
+package com.dwmyhouse.domain;
+
+/**
+ * Outcome of an edit or cancellation, see ReservationService.tryEditReservation
+ */
+public enum ChangeResult {
+    /** The change was stored */
+    SUCCESS,
+    /** The change broke a rule (dates, overlap, past reservation, missing fields) */
+    INVALID,
+    /** No stored reservation with that ID */
+    NOT_FOUND,
+    /** The stored reservation changed since the caller read it (its version moved on) */
+    CONFLICT,
+    /** Storage refused or failed the write */
+    FAILED
+}
@@ -1,11 +1,13 @@
 package com.dwmyhouse.domain;
 
-import com.dwmyhouse.data.GuestRepository;
+import com.dwmyhouse.data.GuestStorage;
 import com.dwmyhouse.models.Guest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Provides guest-related business operations
@@ -13,10 +15,10 @@ import java.util.List;
 @Service
 public class GuestService {
 
-    private final GuestRepository repository;
+    private final GuestStorage repository;
 
     @Autowired
-    public GuestService(GuestRepository repository) {
+    public GuestService(GuestStorage repository) {
         this.repository = repository;
     }
 
@@ -38,6 +40,15 @@ public class GuestService {
         return repository.findById(id);
     }
 
+    /**
+     * Finds several guests in one pass, e.g. every guest of a list of reservations
+     * @param ids the guests' ids (duplicates are fine)
+     * @return found guests by id; unknown ids are left out
+     */
+    public Map<String, Guest> getGuestsByIds(Collection<String> ids) {
+        return repository.findByIds(ids);
+    }
+
     public List<Guest> findAll() {
         return repository.findAll();
     }
@@ -0,0 +1,365 @@
+package com.dwmyhouse.domain;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints (host ordinals), laid out like a Roaring bitmap:
+ * values are grouped by their high 16 bits, and each group of 65536 is stored either as a
+ * sorted char array (up to 4096 values, 2 bytes each) or as a 1024-word bitmap (8 KB),
+ * whichever is smaller. Set operations work group by group on whole words.
+ * Not thread-safe; the result of and/andNot/or is a new bitmap.
+ */
+public final class HostBitmap {
+
+    private static final int ARRAY_LIMIT = 4096;
+    private static final int WORDS = 1024;
+
+    private final TreeMap<Integer, Container> containers = new TreeMap<>();
+
+    public void add(int value) {
+        Integer key = value >>> 16;
+        Container c = containers.get(key);
+        containers.put(key, c == null ? new ArrayContainer().add((char) value) : c.add((char) value));
+    }
+
+    public void remove(int value) {
+        Integer key = value >>> 16;
+        Container c = containers.get(key);
+        if (c != null) {
+            c = c.remove((char) value);
+            if (c.cardinality() == 0) {
+                containers.remove(key);
+            } else {
+                containers.put(key, c);
+            }
+        }
+    }
+
+    public boolean contains(int value) {
+        Container c = containers.get(value >>> 16);
+        return c != null && c.contains((char) value);
+    }
+
+    public int cardinality() {
+        int total = 0;
+        for (Container c : containers.values()) {
+            total += c.cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return containers.isEmpty();
+    }
+
+    /**
+     * Calls the action for each value in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (Map.Entry<Integer, Container> e : containers.entrySet()) {
+            e.getValue().forEach(e.getKey() << 16, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] result = new int[cardinality()];
+        int[] at = {0};
+        forEach(v -> result[at[0]++] = v);
+        return result;
+    }
+
+    /**
+     * Union of many bitmaps. Each group is OR-ed into one word buffer, then compressed once.
+     */
+    public static HostBitmap or(Collection<HostBitmap> bitmaps) {
+        TreeMap<Integer, long[]> words = new TreeMap<>();
+        for (HostBitmap b : bitmaps) {
+            for (Map.Entry<Integer, Container> e : b.containers.entrySet()) {
+                e.getValue().orInto(words.computeIfAbsent(e.getKey(), k -> new long[WORDS]));
+            }
+        }
+        HostBitmap result = new HostBitmap();
+        for (Map.Entry<Integer, long[]> e : words.entrySet()) {
+            result.put(e.getKey(), Container.of(e.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Values in both bitmaps
+     */
+    public HostBitmap and(HostBitmap other) {
+        HostBitmap result = new HostBitmap();
+        for (Map.Entry<Integer, Container> e : containers.entrySet()) {
+            Container theirs = other.containers.get(e.getKey());
+            if (theirs == null) {
+                continue;
+            }
+            Container mine = e.getValue();
+            if (mine instanceof ArrayContainer a) {
+                result.put(e.getKey(), a.filter(theirs, true));
+            } else if (theirs instanceof ArrayContainer a) {
+                result.put(e.getKey(), a.filter(mine, true));
+            } else {
+                long[] w = ((BitmapContainer) mine).words.clone();
+                long[] o = ((BitmapContainer) theirs).words;
+                for (int i = 0; i < WORDS; i++) {
+                    w[i] &= o[i];
+                }
+                result.put(e.getKey(), Container.of(w));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Values in this bitmap but not in the other
+     */
+    public HostBitmap andNot(HostBitmap other) {
+        HostBitmap result = new HostBitmap();
+        for (Map.Entry<Integer, Container> e : containers.entrySet()) {
+            Container mine = e.getValue();
+            Container theirs = other.containers.get(e.getKey());
+            if (theirs == null) {
+                result.put(e.getKey(), mine.copy());
+            } else if (mine instanceof ArrayContainer a) {
+                result.put(e.getKey(), a.filter(theirs, false));
+            } else {
+                long[] w = ((BitmapContainer) mine).words.clone();
+                theirs.clearFrom(w);
+                result.put(e.getKey(), Container.of(w));
+            }
+        }
+        return result;
+    }
+
+    private void put(Integer key, Container c) {
+        if (c != null && c.cardinality() > 0) {
+            containers.put(key, c);
+        }
+    }
+
+    // ---------------------------------------------------------------- containers
+
+    private abstract static class Container {
+
+        abstract boolean contains(char value);
+
+        /**
+         * @return this container, or a replacement if it switched representation
+         */
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract int cardinality();
+
+        abstract void orInto(long[] words);
+
+        abstract void clearFrom(long[] words);
+
+        abstract void forEach(int high, IntConsumer action);
+
+        abstract Container copy();
+
+        /**
+         * Picks the smaller representation for a group given as words
+         * @return the container, or null if no bit is set
+         */
+        static Container of(long[] words) {
+            int card = 0;
+            for (long w : words) {
+                card += Long.bitCount(w);
+            }
+            if (card == 0) {
+                return null;
+            }
+            if (card > ARRAY_LIMIT) {
+                return new BitmapContainer(words, card);
+            }
+            char[] values = new char[card];
+            int n = 0;
+            for (int i = 0; i < WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    values[n++] = (char) ((i << 6) + Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+            return new ArrayContainer(values, n);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int size;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                return this;
+            }
+            if (size == ARRAY_LIMIT) {
+                long[] words = new long[WORDS];
+                orInto(words);
+                words[value >>> 6] |= 1L << value;
+                return new BitmapContainer(words, size + 1);
+            }
+            at = -at - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, size * 2));
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int at = Arrays.binarySearch(values, 0, size, value);
+            if (at >= 0) {
+                System.arraycopy(values, at + 1, values, at, size - at - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < size; i++) {
+                char v = values[i];
+                words[v >>> 6] |= 1L << v;
+            }
+        }
+
+        @Override
+        void clearFrom(long[] words) {
+            for (int i = 0; i < size; i++) {
+                char v = values[i];
+                words[v >>> 6] &= ~(1L << v);
+            }
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, size), size);
+        }
+
+        /**
+         * Keeps the values that are (keep = true) or are not (keep = false) in the other container
+         */
+        Container filter(Container other, boolean keep) {
+            char[] result = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i]) == keep) {
+                    result[n++] = values[i];
+                }
+            }
+            return n == 0 ? null : new ArrayContainer(result, n);
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            if (!contains(value)) {
+                words[value >>> 6] |= 1L << value;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            if (contains(value)) {
+                words[value >>> 6] &= ~(1L << value);
+                cardinality--;
+                if (cardinality <= ARRAY_LIMIT) {
+                    return Container.of(words);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void orInto(long[] target) {
+            for (int i = 0; i < WORDS; i++) {
+                target[i] |= words[i];
+            }
+        }
+
+        @Override
+        void clearFrom(long[] target) {
+            for (int i = 0; i < WORDS; i++) {
+                target[i] &= ~words[i];
+            }
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < WORDS; i++) {
+                long w = words[i];
+                while (w != 0) {
+                    action.accept(high | (i << 6) + Long.numberOfTrailingZeros(w));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+    }
+}
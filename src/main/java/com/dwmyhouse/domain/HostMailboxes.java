@@ -0,0 +1,97 @@
+package com.dwmyhouse.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * One bounded mailbox per host, drained by a shared pool of worker threads (actors without a thread per host).
+ * A host's messages are handed to the handler in arrival order, in batches of up to maxBatch,
+ * and never two batches of the same host at once; different hosts are drained in parallel.
+ * offer() refuses a message when the host's mailbox is full, so a slow host pushes back on its callers
+ * instead of queueing without limit.
+ */
+final class HostMailboxes<T> {
+
+    private final int capacity;
+    private final int maxBatch;
+    private final Executor workers;
+    private final BiConsumer<String, List<T>> handler;
+    private final Map<String, Mailbox<T>> mailboxes = new ConcurrentHashMap<>();
+
+    /**
+     * @param capacity most messages a host's mailbox holds while waiting
+     * @param maxBatch most messages handed to the handler at once
+     * @param workers runs the drain tasks
+     * @param handler processes one host's batch; must not throw
+     */
+    HostMailboxes(int capacity, int maxBatch, Executor workers, BiConsumer<String, List<T>> handler) {
+        this.capacity = Math.max(1, capacity);
+        this.maxBatch = Math.max(1, maxBatch);
+        this.workers = workers;
+        this.handler = handler;
+    }
+
+    /**
+     * Queues a message for a host and makes sure a worker will drain it
+     * @return false if the host's mailbox is full
+     */
+    boolean offer(String hostId, T message) {
+        Mailbox<T> mailbox = mailboxes.computeIfAbsent(hostId, id -> new Mailbox<>(capacity));
+        if (!mailbox.queue.offer(message)) {
+            return false;
+        }
+        schedule(hostId, mailbox);
+        return true;
+    }
+
+    /**
+     * Messages waiting in a host's mailbox (not counting the batch being handled)
+     */
+    int pending(String hostId) {
+        Mailbox<T> mailbox = mailboxes.get(hostId);
+        return mailbox == null ? 0 : mailbox.queue.size();
+    }
+
+    private void schedule(String hostId, Mailbox<T> mailbox) {
+        if (mailbox.scheduled.compareAndSet(false, true)) {
+            workers.execute(() -> drain(hostId, mailbox));
+        }
+    }
+
+    /**
+     * Handles one batch, then hands the mailbox back to the pool if more arrived,
+     * so a busy host doesn't keep a worker from the others
+     */
+    private void drain(String hostId, Mailbox<T> mailbox) {
+        List<T> batch = new ArrayList<>();
+        mailbox.queue.drainTo(batch, maxBatch);
+        try {
+            if (!batch.isEmpty()) {
+                handler.accept(hostId, batch);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error handling mailbox for host " + hostId + ": " + e.getMessage());
+        } finally {
+            mailbox.scheduled.set(false);
+            if (!mailbox.queue.isEmpty()) {
+                schedule(hostId, mailbox);
+            }
+        }
+    }
+
+    private static class Mailbox<T> {
+        final BlockingQueue<T> queue;
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(int capacity) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Guest-facing search: which hosts are free for given dates.
+ * Keeps an inverted index from each day of the horizon (availability.horizon.days from today)
+ * to a HostBitmap of the ordinals of hosts booked that day, plus one bitmap per state.
+ * A search ORs the day bitmaps of the range and removes them from the state's bitmap.
+ * The index is built on first use and again when the day rolls over or hosts change (in the app or
+ * on disk, via HostService.changeToken), and is patched by ReservationService on make/edit/cancel.
+ * It also keeps each host's reservation change token: before a search, candidate hosts whose token
+ * moved (e.g. their CSV was edited by another tool) are re-read. A host's token is checked at most once
+ * every host.search.recheck.ms (one file stat per host for CSV), so outside edits can take that long to show.
+ * Dates outside the horizon are checked host by host with findReservationsBetween.
+ */
+@Service
+public class HostSearchService {
+
+    private final HostService hostService;
+    private final ReservationService reservationService;
+    private final int horizonDays;
+    private final long recheckNanos;
+
+    private LocalDate origin;
+    private List<Host> hosts;
+    private Map<String, Integer> ordinals;
+    private HostBitmap allHosts;
+    private Map<String, HostBitmap> byState;
+    private HostBitmap[] bookedByDay;
+    private Object hostsToken;
+    private Object[] reservationTokens; // by ordinal
+    private long[] checkedAt; // System.nanoTime() of each host's last token check, by ordinal
+
+    public HostSearchService(HostService hostService, ReservationService reservationService) {
+        this(hostService, reservationService, 730);
+    }
+
+    public HostSearchService(HostService hostService, ReservationService reservationService, int horizonDays) {
+        this(hostService, reservationService, horizonDays, 2000);
+    }
+
+    @Autowired
+    public HostSearchService(HostService hostService, ReservationService reservationService,
+                             @Value("${availability.horizon.days:730}") int horizonDays,
+                             @Value("${host.search.recheck.ms:2000}") long recheckMillis) {
+        this.hostService = hostService;
+        this.reservationService = reservationService;
+        this.horizonDays = horizonDays;
+        this.recheckNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, recheckMillis));
+        hostService.addListener(this::invalidate);
+        reservationService.addListener(this::reservationChanged);
+    }
+
+    /**
+     * Finds hosts with no reservation touching [start, end]
+     * @param state two-letter state to search in (case-insensitive), or null/blank for every state
+     * @return free hosts, in host file order
+     */
+    public synchronized List<Host> findAvailableHosts(String state, LocalDate start, LocalDate end) {
+        ensureBuilt();
+        HostBitmap candidates = state == null || state.isBlank()
+                ? allHosts : byState.getOrDefault(key(state), new HostBitmap());
+        long now = System.nanoTime();
+        candidates.forEach(ordinal -> refresh(ordinal, now));
+
+        int from = (int) Math.max(0, offset(start));
+        int to = (int) Math.min(horizonDays - 1, offset(end));
+        if (from <= to) {
+            candidates = candidates.andNot(HostBitmap.or(Arrays.asList(bookedByDay).subList(from, to + 1)));
+        }
+
+        boolean inHorizon = offset(start) >= 0 && offset(end) < horizonDays;
+        List<Host> result = new ArrayList<>(candidates.cardinality());
+        candidates.forEach(ordinal -> {
+            Host h = hosts.get(ordinal);
+            if (inHorizon || reservationService.findReservationsBetween(h.getId(), start, end).isEmpty()) {
+                result.add(h);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Drops the index; the next search rebuilds it
+     */
+    public synchronized void invalidate() {
+        origin = null;
+    }
+
+    private void ensureBuilt() {
+        LocalDate today = LocalDate.now();
+        Object token = hostService.changeToken();
+        if (today.equals(origin) && Objects.equals(token, hostsToken)) {
+            return;
+        }
+        origin = today;
+        hostsToken = token;
+        hosts = hostService.findAll();
+        reservationTokens = new Object[hosts.size()];
+        checkedAt = new long[hosts.size()];
+        Arrays.fill(checkedAt, System.nanoTime());
+        ordinals = new HashMap<>();
+        allHosts = new HostBitmap();
+        byState = new HashMap<>();
+        bookedByDay = new HostBitmap[horizonDays];
+        for (int d = 0; d < horizonDays; d++) {
+            bookedByDay[d] = new HostBitmap();
+        }
+        LocalDate last = today.plusDays(horizonDays - 1);
+        for (int i = 0; i < hosts.size(); i++) {
+            Host h = hosts.get(i);
+            ordinals.put(h.getId(), i);
+            allHosts.add(i);
+            if (h.getState() != null) {
+                byState.computeIfAbsent(key(h.getState()), k -> new HostBitmap()).add(i);
+            }
+            reservationTokens[i] = reservationService.changeToken(h.getId());
+            for (Reservation r : reservationService.findReservationsBetween(h.getId(), today, last)) {
+                book(i, r, true);
+            }
+        }
+    }
+
+    /**
+     * Re-reads a host's bookings if its reservations changed since they were indexed
+     * (hosts without a change token are only updated through the listener).
+     * Skipped if the host's token was checked less than recheckNanos ago.
+     */
+    private void refresh(int ordinal, long now) {
+        if (now - checkedAt[ordinal] < recheckNanos) {
+            return;
+        }
+        checkedAt[ordinal] = now;
+        String hostId = hosts.get(ordinal).getId();
+        Object token = reservationService.changeToken(hostId);
+        if (token == null || token.equals(reservationTokens[ordinal])) {
+            return;
+        }
+        reservationTokens[ordinal] = token;
+        for (HostBitmap day : bookedByDay) {
+            day.remove(ordinal);
+        }
+        for (Reservation r : reservationService.findReservationsBetween(
+                hostId, origin, origin.plusDays(horizonDays - 1))) {
+            book(ordinal, r, true);
+        }
+    }
+
+    private synchronized void reservationChanged(String hostId, Reservation before, Reservation after) {
+        if (origin == null || !origin.equals(LocalDate.now())) {
+            return;
+        }
+        Integer ordinal = ordinals.get(hostId);
+        if (ordinal == null) {
+            return;
+        }
+        if (before != null) {
+            book(ordinal, before, false);
+            // Rebook anything else still on those days (old data can overlap)
+            for (Reservation r : reservationService.findReservationsBetween(
+                    hostId, before.getStartDate(), before.getEndDate())) {
+                book(ordinal, r, true);
+            }
+        }
+        if (after != null) {
+            book(ordinal, after, true);
+        }
+        reservationTokens[ordinal] = reservationService.changeToken(hostId);
+    }
+
+    /**
+     * Sets or clears the host's bit on every day of the reservation inside the horizon
+     */
+    private void book(int ordinal, Reservation r, boolean booked) {
+        int from = (int) Math.max(0, offset(r.getStartDate()));
+        int to = (int) Math.min(horizonDays - 1, offset(r.getEndDate()));
+        for (int d = from; d <= to; d++) {
+            if (booked) {
+                bookedByDay[d].add(ordinal);
+            } else {
+                bookedByDay[d].remove(ordinal);
+            }
+        }
+    }
+
+    private long offset(LocalDate date) {
+        return date.toEpochDay() - origin.toEpochDay();
+    }
+
+    private static String key(String state) {
+        return state.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,11 +1,12 @@
 package com.dwmyhouse.domain;
 
-import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.HostStorage;
 import com.dwmyhouse.models.Host;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Provides host-related business operations
@@ -13,10 +14,11 @@ import java.util.List;
 @Service
 public class HostService {
 
-    private final HostRepository repository;
+    private final HostStorage repository;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
 
     @Autowired
-    public HostService(HostRepository repository) {
+    public HostService(HostStorage repository) {
         this.repository = repository;
     }
 
@@ -29,6 +31,42 @@ public class HostService {
         return repository.findByEmail(email);
     }
 
+    /**
+     * Finds a host by ID
+     * @param id the host's ID
+     * @return Host or null if not found
+     */
+    public Host getHostById(String id) {
+        return repository.findById(id);
+    }
+
+    /**
+     * Returns hosts located in the given state (case-insensitive)
+     * @param state the state, e.g. NY
+     * @return List of hosts
+     */
+    public List<Host> findByState(String state) {
+        return repository.findByState(state);
+    }
+
+    /**
+     * Returns hosts located in the given city (case-insensitive)
+     * @param city the city
+     * @return List of hosts
+     */
+    public List<Host> findByCity(String city) {
+        return repository.findByCity(city);
+    }
+
+    /**
+     * Returns hosts with the given zip code
+     * @param postalCode the zip code
+     * @return List of hosts
+     */
+    public List<Host> findByPostalCode(String postalCode) {
+        return repository.findByPostalCode(postalCode);
+    }
+
     /**
      * For stretch goal-- unused now
      * Returns all hosts
@@ -38,15 +76,37 @@ public class HostService {
         return repository.findAll();
     }
 
+    /**
+     * Storage change token for the hosts, see HostStorage.changeToken
+     * @return the token, or null if only changes made through this service can be seen (via listeners)
+     */
+    public Object changeToken() {
+        return repository.changeToken();
+    }
+
+    /**
+     * Registers a listener run after each successful add, update or delete
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
     public boolean addHost(Host host) {
-        return repository.add(host);
+        return notifyIf(repository.add(host));
     }
 
     public boolean updateHost(Host host) {
-        return repository.update(host);
+        return notifyIf(repository.update(host));
     }
 
     public boolean deleteHost(String hostId) {
-        return repository.delete(hostId);
+        return notifyIf(repository.delete(hostId));
+    }
+
+    private boolean notifyIf(boolean changed) {
+        if (changed) {
+            listeners.forEach(Runnable::run);
+        }
+        return changed;
     }
 }
@@ -0,0 +1,117 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * One host's booked days over a fixed horizon, one bit per day starting at origin.
+ * A reservation books every day from its start date to its end date, both inclusive,
+ * matching the overlap rule in ReservationService. BitSet works on 64-day words,
+ * so checks and searches skip whole words of free or booked days at a time.
+ * Methods are synchronized since the calendar is shared and updated in place.
+ */
+public final class OccupancyCalendar {
+
+    private final long origin;
+    private final int days;
+    private final BitSet booked;
+
+    public OccupancyCalendar(LocalDate origin, int days) {
+        this.origin = origin.toEpochDay();
+        this.days = days;
+        this.booked = new BitSet(days);
+    }
+
+    /**
+     * Builds a calendar and books every given reservation (parts outside the horizon are ignored)
+     */
+    public static OccupancyCalendar of(LocalDate origin, int days, Collection<Reservation> reservations) {
+        OccupancyCalendar calendar = new OccupancyCalendar(origin, days);
+        for (Reservation r : reservations) {
+            calendar.occupy(r.getStartDate(), r.getEndDate());
+        }
+        return calendar;
+    }
+
+    public LocalDate origin() {
+        return LocalDate.ofEpochDay(origin);
+    }
+
+    /**
+     * @return the last day covered by the calendar
+     */
+    public LocalDate end() {
+        return LocalDate.ofEpochDay(origin + days - 1);
+    }
+
+    /**
+     * @return true if every day of [start, end] is inside the horizon
+     */
+    public boolean covers(LocalDate start, LocalDate end) {
+        return offset(start) >= 0 && offset(end) < days;
+    }
+
+    public synchronized void occupy(LocalDate start, LocalDate end) {
+        int from = clip(offset(start));
+        int to = clip(offset(end) + 1);
+        booked.set(from, to);
+    }
+
+    public synchronized void release(LocalDate start, LocalDate end) {
+        int from = clip(offset(start));
+        int to = clip(offset(end) + 1);
+        booked.clear(from, to);
+    }
+
+    /**
+     * @return true if no day of [start, end] is booked. The range must be covered.
+     */
+    public synchronized boolean isFree(LocalDate start, LocalDate end) {
+        int next = booked.nextSetBit((int) offset(start));
+        return next < 0 || next > offset(end);
+    }
+
+    /**
+     * Finds the first run of free days starting on or after from
+     * @param length number of consecutive free days needed
+     * @return the first day of the run, or null if none fits inside the horizon
+     */
+    public synchronized LocalDate nextFreeWindow(LocalDate from, int length) {
+        int at = clip(offset(from));
+        while (at + length <= days) {
+            int start = booked.nextClearBit(at);
+            int next = booked.nextSetBit(start);
+            if (start + length > days) {
+                return null;
+            }
+            if (next < 0 || next - start >= length) {
+                return LocalDate.ofEpochDay(origin + start);
+            }
+            at = next;
+        }
+        return null;
+    }
+
+    /**
+     * @return booked days in [start, end] divided by the number of days. The range must be covered.
+     */
+    public synchronized double occupancyRatio(LocalDate start, LocalDate end) {
+        int from = (int) offset(start);
+        int to = (int) offset(end) + 1;
+        if (to <= from) {
+            return 0.0;
+        }
+        return (double) booked.get(from, to).cardinality() / (to - from);
+    }
+
+    private long offset(LocalDate date) {
+        return date.toEpochDay() - origin;
+    }
+
+    private int clip(long offset) {
+        return (int) Math.max(0, Math.min(days, offset));
+    }
+}
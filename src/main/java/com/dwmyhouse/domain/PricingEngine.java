@@ -0,0 +1,84 @@
+package com.dwmyhouse.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Prices a stay without walking it night by night.
+ * Weekend nights (Friday and Saturday) are counted from the day of week of the start date:
+ * every full week has 2, and the leftover nights are looked up in a table. Each rate is then
+ * multiplied once, in long units at the rates' scale, falling back to BigDecimal on overflow.
+ * Results equal the old loop exactly, scale included: the scale is the largest of 0 and the
+ * scales of the rates actually used, and a stay with no nights costs BigDecimal.ZERO.
+ */
+public final class PricingEngine {
+
+    // WEEKENDS_BEFORE[k] = Fridays and Saturdays among the first k days of a two-week run starting Monday
+    private static final int[] WEEKENDS_BEFORE = new int[15];
+
+    static {
+        for (int k = 1; k < WEEKENDS_BEFORE.length; k++) {
+            int dayOfWeek = (k - 1) % 7 + 1;
+            WEEKENDS_BEFORE[k] = WEEKENDS_BEFORE[k - 1] + (dayOfWeek == 5 || dayOfWeek == 6 ? 1 : 0);
+        }
+    }
+
+    private PricingEngine() {
+    }
+
+    /**
+     * Total for the nights from start up to the night before end
+     * @param standardRate rate for Sunday to Thursday nights
+     * @param weekendRate rate for Friday and Saturday nights
+     */
+    public static BigDecimal total(LocalDate start, LocalDate end, BigDecimal standardRate, BigDecimal weekendRate) {
+        long nights = end.toEpochDay() - start.toEpochDay();
+        if (nights <= 0) {
+            return BigDecimal.ZERO;
+        }
+        long weekend = weekendNights(start, nights);
+        long weekday = nights - weekend;
+
+        int scale = 0;
+        if (weekday > 0) {
+            scale = Math.max(scale, standardRate.scale());
+        }
+        if (weekend > 0) {
+            scale = Math.max(scale, weekendRate.scale());
+        }
+        try {
+            long units = Math.addExact(
+                    weekday == 0 ? 0 : Math.multiplyExact(weekday, units(standardRate, scale)),
+                    weekend == 0 ? 0 : Math.multiplyExact(weekend, units(weekendRate, scale)));
+            return BigDecimal.valueOf(units, scale);
+        } catch (ArithmeticException overflow) {
+            BigDecimal total = BigDecimal.ZERO;
+            if (weekday > 0) {
+                total = total.add(standardRate.multiply(BigDecimal.valueOf(weekday)));
+            }
+            if (weekend > 0) {
+                total = total.add(weekendRate.multiply(BigDecimal.valueOf(weekend)));
+            }
+            return total.setScale(scale);
+        }
+    }
+
+    /**
+     * Friday and Saturday nights among the given number of nights starting on start
+     */
+    public static long weekendNights(LocalDate start, long nights) {
+        if (nights <= 0) {
+            return 0;
+        }
+        int first = start.getDayOfWeek().getValue() - 1; // Monday = 0
+        int rest = (int) (nights % 7);
+        return nights / 7 * 2 + WEEKENDS_BEFORE[first + rest] - WEEKENDS_BEFORE[first];
+    }
+
+    /**
+     * The rate as a whole number of 10^-scale units (scale is never below the rate's own)
+     */
+    static long units(BigDecimal rate, int scale) {
+        return rate.setScale(scale).unscaledValue().longValueExact();
+    }
+}
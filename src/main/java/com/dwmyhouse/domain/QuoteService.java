@@ -0,0 +1,154 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Host;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Prices stays without booking them, using the same rules as ReservationService.
+ * Each host gets a RateTable (prefix sums of nightly rates) covering quote.horizon.days from today,
+ * so every quote inside it is one subtraction. Tables are rebuilt when the host's rates change or
+ * the day rolls over, and only the most recently used hosts are kept.
+ * Quotes outside the horizon, and single-stay quotes across many hosts, use PricingEngine directly,
+ * which is also O(1) and cheaper than building a table for one lookup.
+ * Totals equal what makeReservation would store, scale included.
+ */
+@Service
+public class QuoteService {
+
+    private static final int MAX_TABLES = 1024;
+
+    private final int horizonDays;
+    private final Map<String, HostTable> tables = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, HostTable> eldest) {
+            return size() > MAX_TABLES;
+        }
+    };
+
+    public QuoteService() {
+        this(730);
+    }
+
+    @Autowired
+    public QuoteService(@Value("${quote.horizon.days:730}") int horizonDays) {
+        this.horizonDays = horizonDays;
+    }
+
+    /**
+     * Quotes several stays at one host
+     * @return one total per range, in the same order
+     */
+    public List<BigDecimal> quote(Host host, List<StayRange> ranges) {
+        RateTable table = tableFor(host);
+        List<BigDecimal> totals = new ArrayList<>(ranges.size());
+        for (StayRange range : ranges) {
+            totals.add(quote(host, table, range.start(), range.end()));
+        }
+        return totals;
+    }
+
+    /**
+     * Nightly prices for a host, e.g. for a calendar view
+     * @param from first night
+     * @param nights number of nights
+     * @return price of each night, in date order
+     */
+    public Map<LocalDate, BigDecimal> priceCalendar(Host host, LocalDate from, int nights) {
+        RateTable table = tableFor(host);
+        Map<LocalDate, BigDecimal> calendar = new LinkedHashMap<>();
+        for (int i = 0; i < nights; i++) {
+            LocalDate night = from.plusDays(i);
+            calendar.put(night, quote(host, table, night, night.plusDays(1)));
+        }
+        return calendar;
+    }
+
+    /**
+     * Quotes the same stay at many hosts in parallel, e.g. for a search result page
+     * @return host ID to total, in the order of the given hosts
+     */
+    public Map<String, BigDecimal> quoteHosts(List<Host> hosts, LocalDate start, LocalDate end) {
+        BigDecimal[] totals = hosts.parallelStream()
+                .map(h -> quote(h, cachedTable(h), start, end))
+                .toArray(BigDecimal[]::new);
+        Map<String, BigDecimal> result = new LinkedHashMap<>();
+        for (int i = 0; i < hosts.size(); i++) {
+            result.put(hosts.get(i).getId(), totals[i]);
+        }
+        return result;
+    }
+
+    private BigDecimal quote(Host host, RateTable table, LocalDate start, LocalDate end) {
+        if (table == null || !table.covers(start, end)) {
+            return PricingEngine.total(start, end, host.getStandardRate(), host.getWeekendsRate());
+        }
+        long nights = end.toEpochDay() - start.toEpochDay();
+        if (nights <= 0) {
+            return BigDecimal.ZERO;
+        }
+        // The table sums at the larger scale of the two rates; match the scale PricingEngine would give
+        long weekend = PricingEngine.weekendNights(start, nights);
+        int scale = 0;
+        if (nights > weekend) {
+            scale = Math.max(scale, host.getStandardRate().scale());
+        }
+        if (weekend > 0) {
+            scale = Math.max(scale, host.getWeekendsRate().scale());
+        }
+        return table.total(start, end).setScale(scale);
+    }
+
+    /**
+     * Returns the host's table, building it if it's missing or out of date
+     */
+    private RateTable tableFor(Host host) {
+        LocalDate today = LocalDate.now();
+        synchronized (tables) {
+            HostTable cached = tables.get(host.getId());
+            if (cached != null && cached.matches(host, today)) {
+                return cached.table;
+            }
+        }
+        if (host.getStandardRate() == null || host.getWeekendsRate() == null) {
+            return null;
+        }
+        RateTable table;
+        try {
+            table = RateTable.weekly(today, horizonDays, host.getStandardRate(), host.getWeekendsRate());
+        } catch (ArithmeticException e) {
+            return null; // rates too large for long units: PricingEngine falls back to BigDecimal
+        }
+        synchronized (tables) {
+            tables.put(host.getId(), new HostTable(host.getStandardRate(), host.getWeekendsRate(), table));
+        }
+        return table;
+    }
+
+    /**
+     * Returns the host's table only if one is already cached and current
+     */
+    private RateTable cachedTable(Host host) {
+        synchronized (tables) {
+            HostTable cached = tables.get(host.getId());
+            return cached != null && cached.matches(host, LocalDate.now()) ? cached.table : null;
+        }
+    }
+
+    private record HostTable(BigDecimal standardRate, BigDecimal weekendRate, RateTable table) {
+        boolean matches(Host host, LocalDate today) {
+            return table.origin().equals(today)
+                    && Objects.equals(standardRate, host.getStandardRate())
+                    && Objects.equals(weekendRate, host.getWeekendsRate());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.dwmyhouse.domain;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Nightly rates for one host over a date range, stored as prefix sums so any stay inside it
+ * is priced with one subtraction. Rates can vary per night (seasonal prices, overrides);
+ * use PricingEngine directly when only the standard and weekend rates apply.
+ * Totals use the largest scale in the table, so they can carry more decimal places than
+ * PricingEngine.total would for the same stay.
+ */
+public final class RateTable {
+
+    private final long origin;
+    private final int scale;
+    // prefix[i] = sum of the first i nightly rates, in 10^-scale units
+    private final long[] prefix;
+
+    private RateTable(long origin, int scale, long[] prefix) {
+        this.origin = origin;
+        this.scale = scale;
+        this.prefix = prefix;
+    }
+
+    /**
+     * @param origin date of the first night
+     * @param nightlyRates one rate per night, from origin on
+     * @throws ArithmeticException if the sum doesn't fit in a long at the table's scale
+     */
+    public static RateTable of(LocalDate origin, List<BigDecimal> nightlyRates) {
+        int scale = 0;
+        for (BigDecimal rate : nightlyRates) {
+            scale = Math.max(scale, rate.scale());
+        }
+        long[] prefix = new long[nightlyRates.size() + 1];
+        for (int i = 0; i < nightlyRates.size(); i++) {
+            prefix[i + 1] = Math.addExact(prefix[i], PricingEngine.units(nightlyRates.get(i), scale));
+        }
+        return new RateTable(origin.toEpochDay(), scale, prefix);
+    }
+
+    /**
+     * Table for the usual two-rate week (weekend = Friday and Saturday nights)
+     */
+    public static RateTable weekly(LocalDate origin, int nights, BigDecimal standardRate, BigDecimal weekendRate) {
+        BigDecimal[] rates = new BigDecimal[nights];
+        for (int i = 0; i < nights; i++) {
+            int dayOfWeek = origin.plusDays(i).getDayOfWeek().getValue();
+            rates[i] = dayOfWeek == 5 || dayOfWeek == 6 ? weekendRate : standardRate;
+        }
+        return of(origin, List.of(rates));
+    }
+
+    public LocalDate origin() {
+        return LocalDate.ofEpochDay(origin);
+    }
+
+    /**
+     * @return true if every night from start up to the night before end is in the table
+     */
+    public boolean covers(LocalDate start, LocalDate end) {
+        return start.toEpochDay() >= origin && end.toEpochDay() - origin <= prefix.length - 1;
+    }
+
+    /**
+     * Total for the nights from start up to the night before end, which must be covered
+     * @return the total, or BigDecimal.ZERO if there are no nights
+     */
+    public BigDecimal total(LocalDate start, LocalDate end) {
+        if (!end.isAfter(start)) {
+            return BigDecimal.ZERO;
+        }
+        int from = (int) (start.toEpochDay() - origin);
+        int to = (int) (end.toEpochDay() - origin);
+        return BigDecimal.valueOf(prefix[to] - prefix[from], scale);
+    }
+}
@@ -0,0 +1,63 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Bulk reservation import.
+ * Rows are grouped by host and each group goes through ReservationService.makeReservations,
+ * so a host's file is read once and written once however many rows it gets.
+ */
+@Service
+public class ReservationImportService {
+
+    private final HostService hostService;
+    private final ReservationService reservationService;
+
+    @Autowired
+    public ReservationImportService(HostService hostService, ReservationService reservationService) {
+        this.hostService = hostService;
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Books every row that is valid and doesn't conflict with existing reservations or other rows
+     * @param requests rows to import, in feed order
+     * @return one result per row, in the same order
+     */
+    public List<BookingResult> importReservations(Stream<BookingRequest> requests) {
+        List<BookingRequest> rows = requests.toList();
+        Map<String, List<Integer>> byHost = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            byHost.computeIfAbsent(rows.get(i).hostId(), k -> new ArrayList<>()).add(i);
+        }
+
+        BookingResult[] results = new BookingResult[rows.size()];
+        for (Map.Entry<String, List<Integer>> group : byHost.entrySet()) {
+            Host host = group.getKey() == null ? null : hostService.getHostById(group.getKey());
+            List<Reservation> reservations = new ArrayList<>();
+            for (int i : group.getValue()) {
+                BookingRequest r = rows.get(i);
+                reservations.add(new Reservation(0, r.startDate(), r.endDate(), r.guestId(), null));
+            }
+
+            List<String> errors = reservationService.makeReservations(reservations, host);
+            for (int k = 0; k < reservations.size(); k++) {
+                int row = group.getValue().get(k);
+                String error = errors.get(k);
+                results[row] = new BookingResult(row + 1, rows.get(row),
+                        error == null ? reservations.get(k) : null, error);
+            }
+        }
+        return Arrays.asList(results);
+    }
+}
@@ -0,0 +1,166 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable interval index over one host's reservations.
+ * Rows are sorted by start date, and maxEnd[i] is the latest end date among rows 0..i.
+ * maxEnd never decreases, so both ends of the candidate range are found by binary search:
+ * -rows before the first maxEnd >= start all end before the query starts
+ * -rows from the first start > end onwards all start after the query ends
+ * A host's own reservations don't overlap, so every candidate in between is a match:
+ * lookups are O(log n + k). Overlapping legacy rows only add a few candidates that get filtered.
+ * Dates are inclusive at both ends, like ReservationService.datesOverlap.
+ * Lookups return copies, so callers can't change the indexed rows.
+ */
+public final class ReservationIntervalIndex {
+
+    private static final Comparator<Reservation> ORDER =
+            Comparator.comparing(Reservation::getStartDate).thenComparingInt(Reservation::getId);
+
+    private final Reservation[] rows;
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] maxEnd;
+
+    private ReservationIntervalIndex(Reservation[] sortedRows) {
+        this.rows = sortedRows;
+        int n = sortedRows.length;
+        starts = new long[n];
+        ends = new long[n];
+        maxEnd = new long[n];
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            starts[i] = sortedRows[i].getStartDate().toEpochDay();
+            ends[i] = sortedRows[i].getEndDate().toEpochDay();
+            max = Math.max(max, ends[i]);
+            maxEnd[i] = max;
+        }
+    }
+
+    /**
+     * Builds an index in O(n log n)
+     * @param reservations a host's reservations
+     */
+    public static ReservationIntervalIndex of(Collection<Reservation> reservations) {
+        Reservation[] sorted = reservations.toArray(new Reservation[0]);
+        Arrays.sort(sorted, ORDER);
+        return new ReservationIntervalIndex(sorted);
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    /**
+     * Reservations whose dates touch [start, end], both inclusive (copies)
+     */
+    public List<Reservation> overlapping(LocalDate start, LocalDate end) {
+        long s = start.toEpochDay();
+        long e = end.toEpochDay();
+        List<Reservation> result = new ArrayList<>();
+        for (int i = firstReaching(s), hi = firstStartingAfter(e); i < hi; i++) {
+            if (ends[i] >= s) {
+                result.add(new Reservation(rows[i]));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Checks for an overlap with any reservation other than ignoreId
+     * @param ignoreId ID of the reservation being edited, or 0 for a new one
+     */
+    public boolean overlapsAny(LocalDate start, LocalDate end, int ignoreId) {
+        long s = start.toEpochDay();
+        long e = end.toEpochDay();
+        for (int i = firstReaching(s), hi = firstStartingAfter(e); i < hi; i++) {
+            if (ends[i] >= s && rows[i].getId() != ignoreId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reservation with this ID, O(n)
+     * @return a copy of the reservation, or null if it isn't indexed
+     */
+    public Reservation find(int reservationId) {
+        for (Reservation r : rows) {
+            if (r.getId() == reservationId) {
+                return new Reservation(r);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * New index with one more reservation, O(n) (no re-sort)
+     */
+    public ReservationIntervalIndex with(Reservation reservation) {
+        int at = Arrays.binarySearch(rows, reservation, ORDER);
+        at = at >= 0 ? at : -at - 1;
+        Reservation[] next = new Reservation[rows.length + 1];
+        System.arraycopy(rows, 0, next, 0, at);
+        next[at] = reservation;
+        System.arraycopy(rows, at, next, at + 1, rows.length - at);
+        return new ReservationIntervalIndex(next);
+    }
+
+    /**
+     * New index without the reservation with this ID, O(n)
+     */
+    public ReservationIntervalIndex without(int reservationId) {
+        for (int i = 0; i < rows.length; i++) {
+            if (rows[i].getId() == reservationId) {
+                Reservation[] next = new Reservation[rows.length - 1];
+                System.arraycopy(rows, 0, next, 0, i);
+                System.arraycopy(rows, i + 1, next, i, rows.length - i - 1);
+                return new ReservationIntervalIndex(next);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * First row whose running max end is >= day (rows before it all end earlier)
+     */
+    private int firstReaching(long day) {
+        int lo = 0;
+        int hi = rows.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (maxEnd[mid] < day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * First row that starts after day
+     */
+    private int firstStartingAfter(long day) {
+        int lo = 0;
+        int hi = rows.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= day) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
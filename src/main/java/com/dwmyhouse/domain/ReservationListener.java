@@ -0,0 +1,17 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Reservation;
+
+/**
+ * Notified by ReservationService after a reservation is stored, edited or cancelled
+ */
+@FunctionalInterface
+public interface ReservationListener {
+
+    /**
+     * @param hostId the host whose reservations changed
+     * @param before the stored reservation before the change, or null for a new one
+     * @param after the stored reservation after the change, or null for a cancellation
+     */
+    void reservationChanged(String hostId, Reservation before, Reservation after);
+}
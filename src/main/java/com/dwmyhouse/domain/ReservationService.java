@@ -1,27 +1,129 @@
 package com.dwmyhouse.domain;
 
-import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.data.GuestReservationIndex;
+import com.dwmyhouse.data.HostLocks;
+import com.dwmyhouse.data.ReservationSnapshot;
+import com.dwmyhouse.data.ReservationSnapshotStore;
+import com.dwmyhouse.data.ReservationStorage;
+import com.dwmyhouse.data.StorageCapability;
 import com.dwmyhouse.models.Host;
 import com.dwmyhouse.models.Reservation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Handles reservation business logic including validation and cost calculation
+ *
+ * Safe to call from many threads. Each host has a striped read/write lock (HostLocks):
+ * -make, edit and cancel hold the write lock for the whole validate, price and save sequence,
+ *  so two bookings for the same host can't both pass the overlap check
+ * -host reads hold the read lock and don't block each other
+ * -different hosts don't wait on each other (unless they share a stripe)
+ * Listeners are called after the lock is released.
+ *
+ * The *Async methods are a lock-free mode for callers: each change is queued in its host's mailbox
+ * (at most reservation.mailbox.capacity waiting, further calls fail with RejectedExecutionException).
+ * A worker takes all queued changes for the host, checks them in order like the blocking methods,
+ * then saves them with one ReservationStorage.applyChanges call, so a burst costs one file write.
+ *
+ * Edits and cancellations are optimistic: a reservation read earlier carries its version, and the
+ * change is refused with ChangeResult.CONFLICT if someone else changed it in between (version 0 skips the check).
  */
 @Service
 public class ReservationService {
 
-    private final ReservationRepository repository;
+    private static final int DEFAULT_MAILBOX_CAPACITY = 1000;
+    private static final long DEFAULT_GUEST_INDEX_RECHECK_MS = 2000;
+    private static final int MAILBOX_BATCH = 500;
+
+    // Shared by every instance; threads are only started once something is queued
+    private static final ExecutorService MAILBOX_WORKERS = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), r -> {
+                Thread t = new Thread(r, "reservation-mailbox");
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final ReservationStorage repository;
+    private final ReservationSnapshotStore snapshotStore;
+    private final GuestReservationIndex guestIndex;
+    private final long guestIndexRecheckNanos;
+    // System.nanoTime() of the last check of every host's token against the guest index
+    private final AtomicLong guestIndexSweptAt;
+
+    // Interval index per host, tagged with the storage change token it was built from
+    private final Map<String, HostIndex> indexes = new ConcurrentHashMap<>();
+    private final List<ReservationListener> listeners = new CopyOnWriteArrayList<>();
+    private final HostLocks locks = new HostLocks();
+    private final HostMailboxes<Change> mailboxes;
+
+    public ReservationService(ReservationStorage repository) {
+        this(repository, null);
+    }
+
+    public ReservationService(ReservationStorage repository, ReservationSnapshotStore snapshotStore) {
+        this(repository, snapshotStore, null);
+    }
+
+    public ReservationService(ReservationStorage repository, ReservationSnapshotStore snapshotStore,
+                              GuestReservationIndex guestIndex) {
+        this(repository, snapshotStore, guestIndex, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    public ReservationService(ReservationStorage repository, ReservationSnapshotStore snapshotStore,
+                              GuestReservationIndex guestIndex, int mailboxCapacity) {
+        this(repository, snapshotStore, guestIndex, mailboxCapacity, DEFAULT_GUEST_INDEX_RECHECK_MS);
+    }
 
     @Autowired
-    public ReservationService(ReservationRepository repository) {
+    public ReservationService(ReservationStorage repository, ReservationSnapshotStore snapshotStore,
+                              GuestReservationIndex guestIndex,
+                              @Value("${reservation.mailbox.capacity:1000}") int mailboxCapacity,
+                              @Value("${reservation.guest.index.recheck.ms:2000}") long guestIndexRecheckMillis) {
+        this.mailboxes = new HostMailboxes<>(mailboxCapacity, MAILBOX_BATCH, MAILBOX_WORKERS, this::applyBatch);
         this.repository = repository;
+        this.snapshotStore = snapshotStore;
+        this.guestIndex = guestIndex != null && guestIndex.isEnabled() ? guestIndex : null;
+        this.guestIndexRecheckNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, guestIndexRecheckMillis));
+        this.guestIndexSweptAt = new AtomicLong(System.nanoTime() - guestIndexRecheckNanos); // due on first use
+    }
+
+    /**
+     * Registers a listener called after each successful make, edit or cancel
+     */
+    public void addListener(ReservationListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Storage change token for a host, see ReservationStorage.changeToken
+     * @return the token, or null if derived data can't be cached
+     */
+    public Object changeToken(String hostId) {
+        return repository.changeToken(hostId);
     }
 
     /**
@@ -31,7 +133,132 @@ public class ReservationService {
      */
     public List<Reservation> viewReservationsForHost(String hostId) {
         // Fetches all reservations associated with the given host ID
-        return repository.findByHost(hostId);
+        Lock lock = locks.forHost(hostId).readLock();
+        lock.lock();
+        try {
+            return repository.findByHost(hostId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a guest's reservations across the given hosts.
+     * Uses the binary snapshot when it's enabled and fresh, otherwise reads each host's file.
+     * Never touches the guest index, which must be built from every host (see findReservationsForGuest).
+     * @param guestId the guest's ID
+     * @param hosts hosts to search
+     * @return List of reservations
+     */
+    public List<Reservation> viewReservationsForGuest(String guestId, List<Host> hosts) {
+        ReservationSnapshot snapshot = snapshotStore == null ? null : snapshotStore.current();
+        if (snapshot != null) {
+            // The snapshot covers every host, so keep only the ones asked for
+            Set<String> hostIds = hosts.stream().map(Host::getId).collect(Collectors.toSet());
+            return snapshot.findByGuestId(guestId).stream()
+                    .filter(r -> hostIds.contains(r.getHostId()))
+                    .collect(Collectors.toList());
+        }
+        return hosts.stream()
+                .flatMap(h -> repository.findByHost(h.getId()).stream())
+                .filter(r -> r.getGuestId().equals(guestId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns a guest's reservations across all hosts.
+     * -the binary snapshot answers it when it's enabled and fresh
+     * -otherwise the guest index names the hosts holding the guest's bookings, and only those are read
+     *  (those hosts are re-indexed first if their change token moved, stale entries are filtered out and dropped)
+     * -with neither, every host is read
+     * Rows written to other hosts outside the app are found by a sweep of every host's change token,
+     * run at most once every reservation.guest.index.recheck.ms, so they can take that long to show.
+     * @param guestId the guest's ID
+     * @param hosts supplies every host; only called to rebuild or sweep the guest index, or when there's no index
+     * @return List of reservations
+     */
+    public List<Reservation> findReservationsForGuest(String guestId, Supplier<List<Host>> hosts) {
+        ReservationSnapshot snapshot = snapshotStore == null ? null : snapshotStore.current();
+        if (snapshot != null) {
+            return snapshot.findByGuestId(guestId);
+        }
+        if (guestIndex != null && (guestIndex.isReady() || rebuildGuestIndex(hosts.get()))) {
+            sweepGuestIndex(hosts);
+            guestIndex.find(guestId).keySet().forEach(this::syncGuestIndex);
+            List<Reservation> result = new ArrayList<>();
+            for (Map.Entry<String, Set<Integer>> entry : guestIndex.find(guestId).entrySet()) {
+                String hostId = entry.getKey();
+                Set<Integer> ids = entry.getValue();
+                for (Reservation r : repository.findByHost(hostId)) {
+                    if (ids.remove(r.getId()) && guestId.equals(r.getGuestId())) {
+                        result.add(r);
+                    }
+                }
+                for (int staleId : ids) {
+                    guestIndex.remove(guestId, hostId, staleId);
+                }
+            }
+            return result;
+        }
+        return hosts.get().stream()
+                .flatMap(h -> repository.findByHost(h.getId()).stream())
+                .filter(r -> r.getGuestId().equals(guestId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Re-indexes every host whose change token moved, if the last sweep was at least
+     * guestIndexRecheckNanos ago. Only one thread sweeps at a time.
+     */
+    private void sweepGuestIndex(Supplier<List<Host>> hosts) {
+        long now = System.nanoTime();
+        long last = guestIndexSweptAt.get();
+        if (now - last < guestIndexRecheckNanos || !guestIndexSweptAt.compareAndSet(last, now)) {
+            return;
+        }
+        hosts.get().forEach(h -> syncGuestIndex(h.getId()));
+    }
+
+    /**
+     * Rebuilds the guest index from every host's reservations.
+     * A missing or unreadable index file is rebuilt on first use; hosts changed outside the app are
+     * re-indexed one by one, so this is only needed to start over.
+     * @param hosts every host
+     * @return true if the index was rebuilt and saved (false if it's disabled)
+     */
+    public boolean rebuildGuestIndex(List<Host> hosts) {
+        if (guestIndex == null) {
+            return false;
+        }
+        guestIndexSweptAt.set(System.nanoTime()); // every token is read below
+        Map<String, List<Reservation>> reservationsByHost = new LinkedHashMap<>();
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        for (Host h : hosts) {
+            tokens.put(h.getId(), repository.changeToken(h.getId()));
+            reservationsByHost.put(h.getId(), repository.findByHost(h.getId()));
+        }
+        return guestIndex.rebuild(reservationsByHost, tokens);
+    }
+
+    /**
+     * Re-indexes one host in the guest index if its change token moved since it was indexed,
+     * e.g. because its file was edited by hand. Called before a lookup trusts the index and
+     * before a write moves the host's token on.
+     */
+    private void syncGuestIndex(String hostId) {
+        if (guestIndex == null || !guestIndex.isReady()) {
+            return;
+        }
+        Lock lock = locks.forHost(hostId).readLock();
+        lock.lock();
+        try {
+            Object token = repository.changeToken(hostId);
+            if (!guestIndex.isCurrent(hostId, token)) {
+                guestIndex.reindex(hostId, token, repository.findByHost(hostId));
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -41,13 +268,124 @@ public class ReservationService {
      * @return true if reservation was successful
      */
     public boolean makeReservation(Reservation reservation, Host host ) {
-        if(!isValid(reservation, host)) { //Validates reservation
+        if (host == null) {
             return false;
         }
+        Reservation stored;
+        Lock lock = locks.forHost(host.getId()).writeLock();
+        lock.lock();
+        try {
+            syncGuestIndex(host.getId());
+            if(!isValid(reservation, host)) { //Validates reservation
+                return false;
+            }
+
+            //If valid, calculate total
+            reservation.setTotal(calculateTotal(reservation, host));
+            if (!repository.add(reservation, host.getId())) {
+                return false;
+            }
+            stored = copyOf(reservation);
+            indexes.computeIfPresent(host.getId(), (id, cached) ->
+                    new HostIndex(repository.changeToken(id), cached.index.with(stored)));
+            if (guestIndex != null) {
+                guestIndex.add(stored.getGuestId(), host.getId(), stored.getId(), repository.changeToken(host.getId()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(host.getId(), null, stored);
+        return true;
+    }
+
+    /**
+     * Books several reservations for one host with a single storage write.
+     * Each row is validated like makeReservation and checked against the host's existing
+     * reservations, then the rows are sorted by start date and swept once to find conflicts
+     * between them: of two overlapping rows, the one starting first is kept (ties: the earlier row).
+     * Accepted rows get their totals and a block of IDs, and are saved with ReservationStorage.addAll.
+     * @param reservations new reservations for this host
+     * @param host the host (for rates and ID)
+     * @return one entry per row, in order: null if booked, otherwise why it was rejected
+     */
+    public List<String> makeReservations(List<Reservation> reservations, Host host) {
+        String[] errors = new String[reservations.size()];
+        if (host == null) {
+            Arrays.fill(errors, "Host not found.");
+            return Arrays.asList(errors);
+        }
+
+        List<Reservation> stored;
+        Lock lock = locks.forHost(host.getId()).writeLock();
+        lock.lock();
+        try {
+            syncGuestIndex(host.getId());
+            ReservationIntervalIndex existing = indexFor(host.getId());
+            if (existing == null) {
+                existing = ReservationIntervalIndex.of(repository.findByHost(host.getId()));
+            }
+            List<Integer> candidates = new ArrayList<>();
+            for (int i = 0; i < reservations.size(); i++) {
+                Reservation r = reservations.get(i);
+                errors[i] = validationError(r);
+                if (errors[i] == null && existing.overlapsAny(r.getStartDate(), r.getEndDate(), 0)) {
+                    errors[i] = "Overlaps an existing reservation.";
+                }
+                if (errors[i] == null) {
+                    candidates.add(i);
+                }
+            }
 
-        //If valid, calculate total
-        reservation.setTotal(calculateTotal(reservation, host));
-        return repository.add(reservation, host.getId());
+            candidates.sort(Comparator.comparing((Integer i) -> reservations.get(i).getStartDate())
+                    .thenComparingInt(i -> i));
+            LocalDate keptEnd = null;
+            for (int i : candidates) {
+                Reservation r = reservations.get(i);
+                if (keptEnd != null && !r.getStartDate().isAfter(keptEnd)) {
+                    errors[i] = "Overlaps another reservation in this batch.";
+                } else {
+                    keptEnd = r.getEndDate();
+                }
+            }
+
+            List<Reservation> accepted = new ArrayList<>();
+            for (int i = 0; i < reservations.size(); i++) {
+                if (errors[i] == null) {
+                    Reservation r = reservations.get(i);
+                    r.setTotal(calculateTotal(r, host));
+                    accepted.add(r);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return Arrays.asList(errors);
+            }
+            if (!repository.addAll(accepted, host.getId())) {
+                for (int i = 0; i < reservations.size(); i++) {
+                    if (errors[i] == null) {
+                        errors[i] = "Could not save reservations.";
+                    }
+                }
+                return Arrays.asList(errors);
+            }
+
+            stored = accepted.stream().map(ReservationService::copyOf).toList();
+            indexes.computeIfPresent(host.getId(), (id, cached) -> {
+                ReservationIntervalIndex index = cached.index;
+                for (Reservation r : stored) {
+                    index = index.with(r);
+                }
+                return new HostIndex(repository.changeToken(id), index);
+            });
+            if (guestIndex != null) {
+                guestIndex.addAll(host.getId(), stored, repository.changeToken(host.getId()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Reservation r : stored) {
+            notifyListeners(host.getId(), null, r);
+        }
+        return Arrays.asList(errors);
     }
 
     /**
@@ -58,13 +396,60 @@ public class ReservationService {
      * @return true if update was successful
      */
     public boolean editReservation(Reservation reservation, Host host) {
-        if(!isValid(reservation, host)) {
-            return false;
+        return tryEditReservation(reservation, host) == ChangeResult.SUCCESS;
+    }
+
+    /**
+     * Edits a reservation like editReservation, saying why it didn't happen.
+     * If the reservation carries a version, a stale one fails fast with CONFLICT before anything is validated.
+     * On success the reservation gets its new total and version.
+     * @param reservation the updated reservation
+     * @param host the host
+     * @return SUCCESS, or why the edit was refused
+     */
+    public ChangeResult tryEditReservation(Reservation reservation, Host host) {
+        if (host == null || reservation == null) {
+            return ChangeResult.INVALID;
         }
-        // Recalculate total and update the reservation in the repository
-        reservation.setTotal(calculateTotal(reservation, host));
+        Reservation before = null;
+        Reservation stored;
+        Lock lock = locks.forHost(host.getId()).writeLock();
+        lock.lock();
+        try {
+            syncGuestIndex(host.getId());
+            if (reservation.getVersion() > 0) {
+                before = findStored(host.getId(), reservation.getId());
+                if (before == null) {
+                    return ChangeResult.NOT_FOUND;
+                }
+                if (!versionMatches(before, reservation.getVersion())) {
+                    return ChangeResult.CONFLICT;
+                }
+            }
+            if(!isValid(reservation, host)) {
+                return ChangeResult.INVALID;
+            }
+            // Recalculate total and update the reservation in the repository
+            reservation.setTotal(calculateTotal(reservation, host));
 
-        return repository.update(reservation, host.getId());
+            if (before == null && !listeners.isEmpty()) {
+                before = findStored(host.getId(), reservation.getId());
+            }
+            if (!repository.update(reservation, host.getId())) {
+                return whyRefused(host.getId(), reservation.getId(), reservation.getVersion());
+            }
+            stored = copyOf(reservation);
+            indexes.computeIfPresent(host.getId(), (id, cached) ->
+                    new HostIndex(repository.changeToken(id), cached.index.without(stored.getId()).with(stored)));
+            if (guestIndex != null) {
+                // No-op unless the guest changed; the old guest's entry goes stale and is dropped on lookup
+                guestIndex.add(stored.getGuestId(), host.getId(), stored.getId(), repository.changeToken(host.getId()));
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(host.getId(), before, stored);
+        return ChangeResult.SUCCESS;
     }
 
     /**
@@ -74,18 +459,255 @@ public class ReservationService {
      * @return true if successfully cancelled
      */
     public boolean cancelReservation(int reservationId, String hostId) {
+        return tryCancelReservation(reservationId, 0, hostId) == ChangeResult.SUCCESS;
+    }
+
+    /**
+     * Cancels a future reservation like cancelReservation, saying why it didn't happen
+     * @param reservationId the ID of the reservation
+     * @param expectedVersion the version the caller last saw, or 0 to cancel whatever is stored
+     * @param hostId the Host's ID
+     * @return SUCCESS, or why the cancellation was refused
+     */
+    public ChangeResult tryCancelReservation(int reservationId, int expectedVersion, String hostId) {
         if(hostId == null || reservationId <= 0) {
-            return false;
+            return ChangeResult.INVALID;
         }
-        Reservation res = repository.findByHost(hostId).stream()
-                .filter(r -> r.getId() == reservationId)
-                .findFirst()
-                .orElse(null);
+        Reservation res;
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            syncGuestIndex(hostId);
+            res = repository.findByHost(hostId).stream()
+                    .filter(r -> r.getId() == reservationId)
+                    .findFirst()
+                    .orElse(null);
 
-        if(res == null || res.getStartDate().isBefore(LocalDate.now())) {
-            return false;
+            if (res == null) {
+                return ChangeResult.NOT_FOUND;
+            }
+            if (!versionMatches(res, expectedVersion)) {
+                return ChangeResult.CONFLICT;
+            }
+            if (res.getStartDate().isBefore(LocalDate.now())) {
+                return ChangeResult.INVALID;
+            }
+            if (!repository.delete(reservationId, hostId, expectedVersion)) {
+                return whyRefused(hostId, reservationId, expectedVersion);
+            }
+            indexes.computeIfPresent(hostId, (id, cached) ->
+                    new HostIndex(repository.changeToken(id), cached.index.without(reservationId)));
+            if (guestIndex != null) {
+                guestIndex.remove(res.getGuestId(), hostId, reservationId, repository.changeToken(hostId));
+            }
+        } finally {
+            lock.unlock();
+        }
+        notifyListeners(hostId, res, null);
+        return ChangeResult.SUCCESS;
+    }
+
+    /**
+     * Queues a new reservation for its host's mailbox, see makeReservation.
+     * The reservation gets its ID and total when the future completes; don't change it before then.
+     * @return completes with true if booked, or exceptionally if the host's mailbox is full
+     */
+    public CompletableFuture<Boolean> makeReservationAsync(Reservation reservation, Host host) {
+        if (host == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return enqueue(host.getId(), new Change(ChangeType.MAKE, reservation, host, 0));
+    }
+
+    /**
+     * Queues an edit for its host's mailbox, see editReservation
+     * @return completes with true if updated, or exceptionally if the host's mailbox is full
+     */
+    public CompletableFuture<Boolean> editReservationAsync(Reservation reservation, Host host) {
+        if (host == null || reservation == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return enqueue(host.getId(), new Change(ChangeType.EDIT, reservation, host, reservation.getId()));
+    }
+
+    /**
+     * Queues a cancellation for its host's mailbox, see cancelReservation
+     * @return completes with true if cancelled, or exceptionally if the host's mailbox is full
+     */
+    public CompletableFuture<Boolean> cancelReservationAsync(int reservationId, String hostId) {
+        if (hostId == null || reservationId <= 0) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return enqueue(hostId, new Change(ChangeType.CANCEL, null, null, reservationId));
+    }
+
+    /**
+     * Changes waiting in a host's mailbox
+     */
+    public int pendingChanges(String hostId) {
+        return mailboxes.pending(hostId);
+    }
+
+    private CompletableFuture<Boolean> enqueue(String hostId, Change change) {
+        if (!mailboxes.offer(hostId, change)) {
+            change.result.completeExceptionally(
+                    new RejectedExecutionException("Too many pending changes for host " + hostId));
+        }
+        return change.result;
+    }
+
+    /**
+     * Mailbox worker: checks a host's queued changes in order against its reservations plus the
+     * changes accepted so far, then saves every accepted change with one applyChanges call.
+     * New rows sit in the working index under negative IDs until storage assigns real ones.
+     * Totals, IDs and versions are worked out on copies and only copied to the callers'
+     * reservations once the batch is saved.
+     */
+    private void applyBatch(String hostId, List<Change> batch) {
+        Reservation[] before = new Reservation[batch.size()];
+        Reservation[] work = new Reservation[batch.size()];
+        boolean[] accepted = new boolean[batch.size()];
+        boolean saved = false;
+        Throwable failure = null;
+
+        Lock lock = locks.forHost(hostId).writeLock();
+        lock.lock();
+        try {
+            syncGuestIndex(hostId);
+            ReservationIntervalIndex index = indexFor(hostId);
+            if (index == null) {
+                index = ReservationIntervalIndex.of(repository.findByHost(hostId));
+            }
+            List<Reservation> added = new ArrayList<>();
+            Map<Integer, Reservation> updated = new LinkedHashMap<>();
+            Set<Integer> deleted = new LinkedHashSet<>();
+
+            for (int i = 0; i < batch.size(); i++) {
+                Change change = batch.get(i);
+                Reservation r = change.reservation == null ? null : copyOf(change.reservation);
+                work[i] = r;
+                switch (change.type) {
+                    case MAKE -> {
+                        if (validationError(r) == null && !index.overlapsAny(r.getStartDate(), r.getEndDate(), 0)) {
+                            r.setTotal(calculateTotal(r, change.host));
+                            Reservation pending = copyOf(r);
+                            pending.setId(-(i + 1));
+                            index = index.with(pending);
+                            added.add(r);
+                            accepted[i] = true;
+                        }
+                    }
+                    case EDIT -> {
+                        before[i] = index.find(change.reservationId);
+                        if (before[i] != null && versionMatches(before[i], r.getVersion())
+                                && validationError(r) == null
+                                && !index.overlapsAny(r.getStartDate(), r.getEndDate(), r.getId())) {
+                            r.setTotal(calculateTotal(r, change.host));
+                            // Storage checks against the version it holds; the working copy moves on
+                            // so a later edit in this batch with the old version conflicts
+                            Reservation earlier = updated.get(r.getId());
+                            r.setVersion(earlier != null ? earlier.getVersion() : before[i].getVersion());
+                            Reservation pending = copyOf(r);
+                            pending.setVersion(before[i].getVersion() > 0 ? before[i].getVersion() + 1 : 0);
+                            index = index.without(r.getId()).with(pending);
+                            updated.put(r.getId(), r);
+                            accepted[i] = true;
+                        }
+                    }
+                    case CANCEL -> {
+                        before[i] = index.find(change.reservationId);
+                        if (before[i] != null && !before[i].getStartDate().isBefore(LocalDate.now())) {
+                            index = index.without(change.reservationId);
+                            updated.remove(change.reservationId);
+                            deleted.add(change.reservationId);
+                            accepted[i] = true;
+                        }
+                    }
+                }
+            }
+
+            if (added.isEmpty() && updated.isEmpty() && deleted.isEmpty()) {
+                saved = true;
+            } else {
+                saved = repository.applyChanges(hostId, added, updated.values(), deleted);
+                indexes.remove(hostId); // rebuilt on next use, with the IDs storage assigned
+            }
+            if (saved) {
+                for (int i = 0; i < batch.size(); i++) {
+                    ChangeType type = batch.get(i).type;
+                    if (accepted[i] && type != ChangeType.CANCEL) {
+                        copySaved(work[i], batch.get(i).reservation,
+                                type == ChangeType.MAKE || updated.get(work[i].getId()) == work[i]);
+                    }
+                }
+            }
+            if (saved && guestIndex != null) {
+                guestIndex.addAll(hostId, added, repository.changeToken(hostId));
+                updated.values().forEach(r -> guestIndex.add(r.getGuestId(), hostId, r.getId()));
+                for (int i = 0; i < batch.size(); i++) {
+                    if (accepted[i] && batch.get(i).type == ChangeType.CANCEL) {
+                        guestIndex.remove(before[i].getGuestId(), hostId, before[i].getId());
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            failure = e; // the futures must complete whatever went wrong
+        } finally {
+            lock.unlock();
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Change change = batch.get(i);
+            if (failure != null) {
+                change.result.completeExceptionally(failure);
+                continue;
+            }
+            boolean done = accepted[i] && saved;
+            if (done) {
+                Reservation after = change.type == ChangeType.CANCEL ? null : copyOf(change.reservation);
+                notifyListeners(hostId, before[i], after);
+            }
+            change.result.complete(done);
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+    }
+
+    /**
+     * Copies what a saved batch gave a reservation (ID, total, version) back to the caller's object
+     * @param latest false for an edit overwritten by a later edit of the same row in the batch,
+     *               which keeps the version it was sent with
+     */
+    private static void copySaved(Reservation saved, Reservation caller, boolean latest) {
+        caller.setId(saved.getId());
+        caller.setHostId(saved.getHostId());
+        caller.setTotal(saved.getTotal());
+        if (latest) {
+            caller.setVersion(saved.getVersion());
+        }
+    }
+
+    /**
+     * Returns a host's reservations whose dates touch [start, end] (both inclusive)
+     * @param hostId the host's ID
+     * @return matching reservations
+     */
+    public List<Reservation> findReservationsBetween(String hostId, LocalDate start, LocalDate end) {
+        Lock lock = locks.forHost(hostId).readLock();
+        lock.lock();
+        try {
+            if (repository.supports(StorageCapability.RANGE_QUERIES)) {
+                return repository.findByHostBetween(hostId, start, end);
+            }
+            ReservationIntervalIndex index = indexFor(hostId);
+            if (index == null) {
+                return repository.findByHostBetween(hostId, start, end);
+            }
+            return index.overlapping(start, end);
+        } finally {
+            lock.unlock();
         }
-        return repository.delete(reservationId, hostId);
     }
 
     /**
@@ -100,31 +722,112 @@ public class ReservationService {
      * @return true if valid
      */
     private boolean isValid(Reservation reservation, Host host) {
-        if(reservation == null || host == null) {
+        if(host == null || validationError(reservation) != null) {
             return false;
         }
+
+        ReservationIntervalIndex index = repository.supports(StorageCapability.RANGE_QUERIES)
+                ? null : indexFor(host.getId());
+        if (index != null) {
+            return !index.overlapsAny(reservation.getStartDate(), reservation.getEndDate(), reservation.getId());
+        }
+
+        List<Reservation> existing = repository.supports(StorageCapability.RANGE_QUERIES)
+                ? repository.findByHostBetween(host.getId(), reservation.getStartDate(), reservation.getEndDate())
+                : repository.findByHost(host.getId());
+        for(Reservation r : existing) {
+            if(r.getId() == reservation.getId())
+                continue;
+            if(datesOverlap(r, reservation))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks the fields of a reservation (everything isValid checks except overlaps)
+     * @return why the reservation is invalid, or null if it's fine
+     */
+    private String validationError(Reservation reservation) {
+        if(reservation == null) {
+            return "Missing reservation.";
+        }
         if(reservation.getStartDate() == null || reservation.getEndDate() == null) {
-            return false;
+            return "Missing start or end date.";
         }
         if(!reservation.getStartDate().isBefore(reservation.getEndDate())) {
-            return false;
+            return "Start date must be before end date.";
         }
         if(!reservation.getStartDate().isAfter(LocalDate.now())) {
-            return false;
+            return "Start date must be in the future.";
         }
         if (reservation.getGuestId() == null || reservation.getGuestId().isBlank()) {
-            return false;
+            return "Missing guest.";
         }
+        return null;
+    }
 
-        List<Reservation> existing = repository.findByHost(host.getId());
-        for(Reservation r : existing) {
-            if(r.getId() == reservation.getId())
-                continue;
-            if(datesOverlap(r, reservation))
-                return false;
+    /**
+     * Returns the host's interval index, rebuilding it if the storage changed since it was built
+     * @return the index, or null if the storage has no change token (nothing can be cached)
+     */
+    private ReservationIntervalIndex indexFor(String hostId) {
+        Object token = repository.changeToken(hostId);
+        if (token == null) {
+            return null;
         }
+        HostIndex cached = indexes.get(hostId);
+        if (cached == null || !token.equals(cached.token)) {
+            cached = new HostIndex(token, ReservationIntervalIndex.of(repository.findByHost(hostId)));
+            indexes.put(hostId, cached);
+        }
+        return cached.index;
+    }
 
-        return true;
+    /**
+     * Looks up the stored copy of a reservation, from the cached index when there is one
+     */
+    private Reservation findStored(String hostId, int reservationId) {
+        ReservationIntervalIndex index = indexFor(hostId);
+        if (index != null) {
+            return index.find(reservationId);
+        }
+        return repository.findByHost(hostId).stream()
+                .filter(r -> r.getId() == reservationId)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * True if a write expecting this version may replace the stored reservation (0 expects any version)
+     */
+    private static boolean versionMatches(Reservation stored, int expectedVersion) {
+        return expectedVersion <= 0 || stored.getVersion() == expectedVersion;
+    }
+
+    /**
+     * Works out why storage refused a write, by looking at what it holds now
+     */
+    private ChangeResult whyRefused(String hostId, int reservationId, int expectedVersion) {
+        Reservation current = findStored(hostId, reservationId);
+        if (current == null) {
+            return ChangeResult.NOT_FOUND;
+        }
+        return versionMatches(current, expectedVersion) ? ChangeResult.FAILED : ChangeResult.CONFLICT;
+    }
+
+    private void notifyListeners(String hostId, Reservation before, Reservation after) {
+        for (ReservationListener listener : listeners) {
+            listener.reservationChanged(hostId, before, after);
+        }
+    }
+
+    /**
+     * Copy kept by the interval index, so later changes to the caller's object don't reach it
+     */
+    private static Reservation copyOf(Reservation r) {
+        return new Reservation(r);
     }
 
     /**
@@ -140,27 +843,23 @@ public class ReservationService {
      * Applies standard rate on Sun-Thu, weekend rate on Fri & Sat
      */
     private BigDecimal calculateTotal(Reservation reservation, Host host) {
-        BigDecimal total = BigDecimal.ZERO;
-        LocalDate date = reservation.getStartDate();
-
-        while(!date.isAfter(reservation.getEndDate().minusDays(1))) {
-            if(isWeekend(date)) {
-                total = total.add(host.getWeekendsRate());
-            } else {
-                total = total.add(host.getStandardRate());
-            }
-            date = date.plusDays(1);
-        }
+        return PricingEngine.total(reservation.getStartDate(), reservation.getEndDate(),
+                host.getStandardRate(), host.getWeekendsRate());
+    }
 
-        return total;
+    private record HostIndex(Object token, ReservationIntervalIndex index) {
     }
 
+    private enum ChangeType { MAKE, EDIT, CANCEL }
+
     /**
-     *Determine if a given date is considered a weekend
+     * A queued make, edit or cancel and the future its caller is waiting on
      */
-    private boolean isWeekend(LocalDate date) {
-        DayOfWeek day = date.getDayOfWeek();
-        return day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY;
+    private record Change(ChangeType type, Reservation reservation, Host host, int reservationId,
+                          CompletableFuture<Boolean> result) {
+        Change(ChangeType type, Reservation reservation, Host host, int reservationId) {
+            this(type, reservation, host, reservationId, new CompletableFuture<>());
+        }
     }
 
 }
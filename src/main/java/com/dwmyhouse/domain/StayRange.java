@@ -0,0 +1,13 @@
+package com.dwmyhouse.domain;
+
+import java.time.LocalDate;
+
+/**
+ * A candidate stay: nights from start up to the night before end
+ */
+public record StayRange(LocalDate start, LocalDate end) {
+
+    public long nights() {
+        return Math.max(0, end.toEpochDay() - start.toEpochDay());
+    }
+}
@@ -6,10 +6,21 @@ import com.dwmyhouse.models.Host;
 import com.dwmyhouse.models.Reservation;
 import com.dwmyhouse.ui.ReservationManager;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
+/**
+ * Copies the CSV data into the JSON files.
+ * Every target file is read and written once per migration, not once per record.
+ * Host reservation files are parsed in parallel on a fork-join pool
+ * (migration.parallelism threads, 0 = one per CPU), and migrateAll runs guests and hosts
+ * alongside reservations. Each step prints progress and its throughput.
+ */
 @Component
 public class DataMigrationService {
 
@@ -21,7 +32,22 @@ public class DataMigrationService {
 
     private final ReservationRepository reservationRepository;
     private final ReservationJsonRepository reservationJsonRepository;
+    private final PartitionedReservationJsonRepository partitionedReservationRepository;
 
+    private final int parallelism;
+
+    public DataMigrationService(
+            GuestRepository guestRepository,
+            GuestJsonRepository guestJsonRepository,
+            HostRepository hostRepository,
+            HostJsonRepository hostJsonRepository,
+            ReservationRepository reservationRepository,
+            ReservationJsonRepository reservationJsonRepository,
+            PartitionedReservationJsonRepository partitionedReservationRepository
+    ) {
+        this(guestRepository, guestJsonRepository, hostRepository, hostJsonRepository,
+                reservationRepository, reservationJsonRepository, partitionedReservationRepository, 0);
+    }
 
     @Autowired
     public DataMigrationService(
@@ -30,7 +56,9 @@ public class DataMigrationService {
             HostRepository hostRepository,
             HostJsonRepository hostJsonRepository,
             ReservationRepository reservationRepository,
-            ReservationJsonRepository reservationJsonRepository
+            ReservationJsonRepository reservationJsonRepository,
+            PartitionedReservationJsonRepository partitionedReservationRepository,
+            @Value("${migration.parallelism:0}") int parallelism
     ) {
         this.guestRepository = guestRepository;
         this.guestJsonRepository = guestJsonRepository;
@@ -38,46 +66,107 @@ public class DataMigrationService {
         this.hostJsonRepository = hostJsonRepository;
         this.reservationRepository = reservationRepository;
         this.reservationJsonRepository = reservationJsonRepository;
+        this.partitionedReservationRepository = partitionedReservationRepository;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
     }
 
-    public void migrateAll() {
-        migrateGuests();
-        migrateHosts();
-        migrateReservations();
+    /**
+     * Migrates guests, hosts and reservations, the first two alongside the third
+     * @return stats for guests, hosts and reservations, in that order
+     */
+    public List<MigrationStats> migrateAll() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ForkJoinTask<MigrationStats> guests = pool.submit(this::migrateGuests);
+            ForkJoinTask<MigrationStats> hosts = pool.submit(this::migrateHosts);
+            MigrationStats reservations = migrateReservations(pool);
+            return List.of(guests.join(), hosts.join(), reservations);
+        } finally {
+            pool.shutdown();
+        }
     }
 
-    public void migrateGuests() {
+    public MigrationStats migrateGuests() {
         System.out.println("Migrating guests...");
+        MigrationProgress progress = new MigrationProgress("Guests", 1);
         List<Guest> guests = guestRepository.findAll();
-        for (Guest g : guests) {
-            guestJsonRepository.add(g);
-        }
-        System.out.println("Guests migrated: " + guests.size());
+        progress.fileRead(guests.size());
+        return progress.finish(guestJsonRepository.addAll(guests) ? guests.size() : 0);
     }
 
-    public void migrateHosts() {
+    public MigrationStats migrateHosts() {
         System.out.println("Migrating hosts...");
+        MigrationProgress progress = new MigrationProgress("Hosts", 1);
         List<Host> hosts = hostRepository.findAll();
-        for (Host h : hosts) {
-            hostJsonRepository.add(h);
+        progress.fileRead(hosts.size());
+        return progress.finish(hostJsonRepository.addAll(hosts) ? hosts.size() : 0);
+    }
+
+    public MigrationStats migrateReservations() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return migrateReservations(pool);
+        } finally {
+            pool.shutdown();
         }
-        System.out.println("Hosts migrated: " + hosts.size());
     }
 
-    public void migrateReservations() {
-        System.out.println("Migrating reservations...");
+    /**
+     * Migrates reservations into the host-partitioned JSON layout.
+     * Each host's reservations are appended to its partition with one write.
+     */
+    public MigrationStats migrateReservationsToPartitions() {
+        System.out.println("Migrating reservations to partitions...");
         List<Host> hosts = hostRepository.findAll();
+        MigrationProgress progress = new MigrationProgress("Reservations", hosts.size());
 
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        List<List<Reservation>> byHost;
+        try {
+            byHost = readAll(pool, hosts, progress);
+        } finally {
+            pool.shutdown();
+        }
         int total = 0;
-        for(Host h : hosts) {
-            List<Reservation> hostReservations = reservationRepository.findByHost(h.getId());
-            for (Reservation r : hostReservations) {
-                r.setHostId(h.getId());
-                reservationJsonRepository.add(r);
-                total++;
+        for (int i = 0; i < hosts.size(); i++) {
+            List<Reservation> hostReservations = byHost.get(i);
+            if (partitionedReservationRepository.addAll(hosts.get(i).getId(), hostReservations)) {
+                total += hostReservations.size();
             }
         }
-        System.out.println("Reservations migrated: " + total);
+        return progress.finish(total);
+    }
+
+    /**
+     * Parses every host file in parallel, then writes reservations.json once (in host order)
+     */
+    private MigrationStats migrateReservations(ForkJoinPool pool) {
+        System.out.println("Migrating reservations...");
+        List<Host> hosts = hostRepository.findAll();
+        MigrationProgress progress = new MigrationProgress("Reservations", hosts.size());
+
+        List<Reservation> all = new ArrayList<>();
+        for (List<Reservation> hostReservations : readAll(pool, hosts, progress)) {
+            all.addAll(hostReservations);
+        }
+        return progress.finish(reservationJsonRepository.addAll(all) ? all.size() : 0);
+    }
+
+    /**
+     * Reads each host's reservations on the pool, with hostId set
+     * @return one list per host, in the same order as hosts
+     */
+    private List<List<Reservation>> readAll(ForkJoinPool pool, List<Host> hosts, MigrationProgress progress) {
+        return pool.submit(() -> hosts.parallelStream()
+                .map(h -> {
+                    List<Reservation> hostReservations = reservationRepository.readHostFile(h.getId());
+                    for (Reservation r : hostReservations) {
+                        r.setHostId(h.getId());
+                    }
+                    progress.fileRead(hostReservations.size());
+                    return hostReservations;
+                })
+                .toList()).join();
     }
 
 }
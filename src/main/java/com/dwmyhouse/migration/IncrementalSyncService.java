@@ -0,0 +1,266 @@
+package com.dwmyhouse.migration;
+
+import com.dwmyhouse.data.DurableFileWriter;
+import com.dwmyhouse.data.GuestJsonRepository;
+import com.dwmyhouse.data.GuestRepository;
+import com.dwmyhouse.data.HostJsonRepository;
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.PartitionedReservationJsonRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Guest;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Keeps the JSON stores in step with the CSV files after the first migration.
+ * The state file remembers each source file's modified time, size and SHA-256 digest.
+ * A file whose time and size are unchanged is skipped without being read; otherwise it is
+ * hashed, and only if the digest changed are its rows compared with the JSON target by ID.
+ * The differences (inserts, updates, deletes) are then written in one go per target.
+ * Guests go to guests.json, hosts to hosts.json, and each host's reservations to its
+ * partition in the partitioned JSON store (with the CSV IDs, like ResumableMigrationService).
+ */
+@Component
+public class IncrementalSyncService {
+
+    private static final String GUESTS_KEY = "guests.csv";
+    private static final String HOSTS_KEY = "hosts.csv";
+    private static final String RESERVATIONS_PREFIX = "reservations/";
+    private static final String EXTENSION = ".csv";
+
+    private final GuestRepository guestRepository;
+    private final GuestJsonRepository guestJsonRepository;
+    private final HostRepository hostRepository;
+    private final HostJsonRepository hostJsonRepository;
+    private final ReservationRepository reservationRepository;
+    private final PartitionedReservationJsonRepository partitionedReservationRepository;
+    private final Path guestFile;
+    private final Path hostFile;
+    private final Path reservationDir;
+    private final Path stateFile;
+    private final DurableFileWriter durableWriter;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Autowired
+    public IncrementalSyncService(GuestRepository guestRepository, GuestJsonRepository guestJsonRepository,
+                                  HostRepository hostRepository, HostJsonRepository hostJsonRepository,
+                                  ReservationRepository reservationRepository,
+                                  PartitionedReservationJsonRepository partitionedReservationRepository,
+                                  @Value("${guest.file.path:./data/guests.csv}") String guestFile,
+                                  @Value("${host.file.path:./data/hosts.csv}") String hostFile,
+                                  @Value("${reservation.dir.path:./data/reservations}") String reservationDir,
+                                  @Value("${migration.sync.state.path:./data/sync-state.json}") String statePath,
+                                  DurableFileWriter durableWriter) {
+        this.guestRepository = guestRepository;
+        this.guestJsonRepository = guestJsonRepository;
+        this.hostRepository = hostRepository;
+        this.hostJsonRepository = hostJsonRepository;
+        this.reservationRepository = reservationRepository;
+        this.partitionedReservationRepository = partitionedReservationRepository;
+        this.guestFile = Path.of(guestFile);
+        this.hostFile = Path.of(hostFile);
+        this.reservationDir = Path.of(reservationDir);
+        this.stateFile = Path.of(statePath);
+        this.durableWriter = durableWriter;
+    }
+
+    /**
+     * Re-syncs every source file that changed since the last sync (all of them on the first run)
+     */
+    public synchronized SyncReport sync() throws Exception {
+        SyncState previous = loadState();
+        SyncState next = new SyncState();
+        Counts counts = new Counts();
+
+        if (changed(GUESTS_KEY, guestFile, previous, next, counts)) {
+            Map<String, Guest> source = byKey(guestRepository.findAll(), Guest::getGuestId);
+            Map<String, Guest> target = byKey(guestJsonRepository.findAll(), Guest::getGuestId);
+            Diff<Guest, String> diff = diff(source, target, RecordHashes::canonical, counts);
+            if (!diff.isEmpty() && !guestJsonRepository.applyChanges(diff.upserts, diff.deletes)) {
+                retryNextTime(GUESTS_KEY, previous, next);
+            }
+        }
+
+        if (changed(HOSTS_KEY, hostFile, previous, next, counts)) {
+            Map<String, Host> source = byKey(hostRepository.findAll(), Host::getId);
+            Map<String, Host> target = byKey(hostJsonRepository.findAll(), Host::getId);
+            Diff<Host, String> diff = diff(source, target, RecordHashes::canonical, counts);
+            if (!diff.isEmpty() && !hostJsonRepository.applyChanges(diff.upserts, diff.deletes)) {
+                retryNextTime(HOSTS_KEY, previous, next);
+            }
+        }
+
+        Set<String> present = new HashSet<>();
+        if (Files.isDirectory(reservationDir)) {
+            try (Stream<Path> files = Files.list(reservationDir)) {
+                for (Path file : files.filter(p -> p.getFileName().toString().endsWith(EXTENSION)).sorted().toList()) {
+                    String name = file.getFileName().toString();
+                    String key = RESERVATIONS_PREFIX + name;
+                    present.add(key);
+                    if (changed(key, file, previous, next, counts)
+                            && !syncHostReservations(name.substring(0, name.length() - EXTENSION.length()), counts)) {
+                        retryNextTime(key, previous, next);
+                    }
+                }
+            }
+        }
+        // Host files that disappeared: their reservations are gone from the source too
+        for (String key : previous.files.keySet()) {
+            if (key.startsWith(RESERVATIONS_PREFIX) && !present.contains(key)) {
+                counts.checked++;
+                counts.changed++;
+                String name = key.substring(RESERVATIONS_PREFIX.length());
+                if (!syncHostReservations(name.substring(0, name.length() - EXTENSION.length()), counts)) {
+                    retryNextTime(key, previous, next);
+                }
+            }
+        }
+
+        saveState(next);
+        SyncReport report = new SyncReport(counts.checked, counts.changed, counts.inserted, counts.updated, counts.deleted);
+        System.out.println(report);
+        return report;
+    }
+
+    private boolean syncHostReservations(String hostId, Counts counts) {
+        List<Reservation> rows = reservationRepository.readHostFile(hostId);
+        for (Reservation r : rows) {
+            r.setHostId(hostId);
+        }
+        Map<Integer, Reservation> source = byKey(rows, Reservation::getId);
+        Map<Integer, Reservation> target = byKey(partitionedReservationRepository.findByHostId(hostId), Reservation::getId);
+        Diff<Reservation, Integer> diff = diff(source, target, RecordHashes::canonical, counts);
+        return diff.isEmpty() || partitionedReservationRepository.applyChanges(hostId, diff.upserts, diff.deletes);
+    }
+
+    /**
+     * Records the file's current state in next
+     * @return true if its content differs from the last sync (or it's new)
+     */
+    private boolean changed(String key, Path file, SyncState previous, SyncState next, Counts counts) throws Exception {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        counts.checked++;
+        FileState old = previous.files.get(key);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        long size = Files.size(file);
+        if (old != null && old.modified == modified && old.size == size) {
+            next.files.put(key, old);
+            return false;
+        }
+        FileState now = new FileState();
+        now.modified = modified;
+        now.size = size;
+        now.digest = RecordHashes.sha256(file);
+        next.files.put(key, now);
+        if (old != null && old.digest.equals(now.digest)) {
+            return false; // touched but not edited
+        }
+        counts.changed++;
+        return true;
+    }
+
+    /**
+     * Keeps the old state for a file whose changes couldn't be written, so the next sync tries again
+     */
+    private static void retryNextTime(String key, SyncState previous, SyncState next) {
+        FileState old = previous.files.get(key);
+        if (old == null) {
+            next.files.remove(key);
+        } else {
+            next.files.put(key, old);
+        }
+    }
+
+    private static <T, K> Map<K, T> byKey(List<T> records, Function<T, K> key) {
+        Map<K, T> result = new HashMap<>();
+        for (T r : records) {
+            result.put(key.apply(r), r);
+        }
+        return result;
+    }
+
+    private static <T, K> Diff<T, K> diff(Map<K, T> source, Map<K, T> target,
+                                          Function<T, String> canonical, Counts counts) {
+        Diff<T, K> diff = new Diff<>();
+        for (Map.Entry<K, T> e : source.entrySet()) {
+            T existing = target.get(e.getKey());
+            if (existing == null) {
+                diff.upserts.add(e.getValue());
+                counts.inserted++;
+            } else if (!canonical.apply(existing).equals(canonical.apply(e.getValue()))) {
+                diff.upserts.add(e.getValue());
+                counts.updated++;
+            }
+        }
+        for (K key : target.keySet()) {
+            if (!source.containsKey(key)) {
+                diff.deletes.add(key);
+                counts.deleted++;
+            }
+        }
+        return diff;
+    }
+
+    private SyncState loadState() throws Exception {
+        if (!Files.exists(stateFile)) {
+            return new SyncState();
+        }
+        return mapper.readValue(stateFile.toFile(), SyncState.class);
+    }
+
+    private void saveState(SyncState state) throws Exception {
+        Path parent = stateFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        durableWriter.replace(stateFile, mapper.writerWithDefaultPrettyPrinter().writeValueAsString(state));
+    }
+
+    private static class Diff<T, K> {
+        final List<T> upserts = new ArrayList<>();
+        final Set<K> deletes = new HashSet<>();
+
+        boolean isEmpty() {
+            return upserts.isEmpty() && deletes.isEmpty();
+        }
+    }
+
+    private static class Counts {
+        int checked;
+        int changed;
+        int inserted;
+        int updated;
+        int deleted;
+    }
+
+    /**
+     * Contents of the sync state file
+     */
+    static class SyncState {
+        public Map<String, FileState> files = new TreeMap<>();
+    }
+
+    static class FileState {
+        public long modified;
+        public long size;
+        public String digest;
+    }
+}
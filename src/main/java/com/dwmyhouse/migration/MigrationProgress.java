@@ -0,0 +1,45 @@
+package com.dwmyhouse.migration;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe progress printer for a migration step.
+ * Prints a line each time another 10% of the source files has been read.
+ */
+class MigrationProgress {
+
+    private final String target;
+    private final int files;
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger filesDone = new AtomicInteger();
+    private final AtomicLong records = new AtomicLong();
+
+    MigrationProgress(String target, int files) {
+        this.target = target;
+        this.files = files;
+    }
+
+    /**
+     * Records one more source file read
+     * @param recordCount records found in it
+     */
+    void fileRead(int recordCount) {
+        long total = records.addAndGet(recordCount);
+        int done = filesDone.incrementAndGet();
+        int step = Math.max(1, files / 10);
+        if (done % step == 0 || done == files) {
+            System.out.printf("%s: read %d/%d files, %d records (%.0f records/s)%n",
+                    target, done, files, total, total * 1e9 / Math.max(1, System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * @param written records written to the target
+     */
+    MigrationStats finish(int written) {
+        MigrationStats stats = new MigrationStats(target, written, (System.nanoTime() - startNanos) / 1_000_000);
+        System.out.println(stats);
+        return stats;
+    }
+}
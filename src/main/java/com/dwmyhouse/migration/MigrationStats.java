@@ -0,0 +1,19 @@
+package com.dwmyhouse.migration;
+
+/**
+ * Outcome of migrating one kind of record
+ * @param target what was migrated, e.g. "Reservations"
+ * @param records records written
+ * @param millis wall-clock time taken
+ */
+public record MigrationStats(String target, int records, long millis) {
+
+    public double recordsPerSecond() {
+        return millis == 0 ? records * 1000.0 : records * 1000.0 / millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s migrated: %d in %d ms (%.0f records/s)", target, records, millis, recordsPerSecond());
+    }
+}
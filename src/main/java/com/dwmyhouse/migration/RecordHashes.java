@@ -0,0 +1,89 @@
+package com.dwmyhouse.migration;
+
+import com.dwmyhouse.models.Guest;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+
+/**
+ * Canonical text forms of records and SHA-256 helpers, shared by the migration and sync code.
+ * Two records with the same canonical form hold the same data; amounts compare by value.
+ */
+final class RecordHashes {
+
+    private RecordHashes() {
+    }
+
+    static String canonical(Guest g) {
+        return String.join("|", g.getGuestId(), g.getFirstName(), g.getLastName(), g.getEmail(),
+                g.getPhone(), g.getState());
+    }
+
+    static String canonical(Host h) {
+        return String.join("|", h.getId(), h.getLastName(), h.getEmail(), h.getPhone(), h.getAddress(),
+                h.getCity(), h.getState(), h.getPostalCode(), amount(h.getStandardRate()), amount(h.getWeekendsRate()));
+    }
+
+    static String canonical(Reservation r) {
+        return String.join("|", String.valueOf(r.getId()), String.valueOf(r.getStartDate()),
+                String.valueOf(r.getEndDate()), r.getGuestId(), amount(r.getTotal()), String.valueOf(r.getVersion()));
+    }
+
+    /**
+     * Hash of key/canonical-form rows, in the map's iteration order
+     */
+    static String sha256(Map<String, String> rows) {
+        MessageDigest digest = newDigest();
+        for (Map.Entry<String, String> row : rows.entrySet()) {
+            update(digest, row.getKey(), row.getValue());
+        }
+        return hex(digest);
+    }
+
+    /**
+     * Adds one key/canonical-form row to a running hash, in the same form as sha256(Map)
+     */
+    static void update(MessageDigest digest, String key, String canonical) {
+        digest.update((key + "\t" + canonical + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String hex(MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hash of a file's bytes, read in blocks
+     */
+    static String sha256(Path file) throws Exception {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        }
+        return hex(digest);
+    }
+
+    private static String amount(BigDecimal value) {
+        return value == null ? "" : value.stripTrailingZeros().toPlainString();
+    }
+
+    static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
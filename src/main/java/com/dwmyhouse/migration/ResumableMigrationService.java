@@ -0,0 +1,273 @@
+package com.dwmyhouse.migration;
+
+import com.dwmyhouse.data.DurableFileWriter;
+import com.dwmyhouse.data.GuestJsonRepository;
+import com.dwmyhouse.data.GuestRepository;
+import com.dwmyhouse.data.HostJsonRepository;
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.PartitionedReservationJsonRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Guest;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * CSV to JSON migration that can be stopped at any point and run again.
+ * Guests and hosts are upserted into guests.json and hosts.json (one write each).
+ * Reservations go host by host into the partitioned JSON Lines store, chunk.size rows at a time,
+ * keeping their CSV IDs. After each step the checkpoint file records the phase, the last host
+ * and the offset reached in its file, so a rerun continues from there.
+ * Every write is an upsert by ID, so repeating a chunk after a crash doesn't duplicate anything.
+ * A final pass compares record counts and SHA-256 hashes between source and target,
+ * and the checkpoint is deleted once the migration completes.
+ * Memory use is bounded by the largest host file, not the whole data set: reservations are
+ * migrated and verified one host at a time, folding each host into one running hash.
+ */
+@Component
+public class ResumableMigrationService {
+
+    private static final String GUESTS = "guests";
+    private static final String HOSTS = "hosts";
+    private static final String RESERVATIONS = "reservations";
+    private static final String VERIFY = "verify";
+
+    private final GuestRepository guestRepository;
+    private final GuestJsonRepository guestJsonRepository;
+    private final HostRepository hostRepository;
+    private final HostJsonRepository hostJsonRepository;
+    private final ReservationRepository reservationRepository;
+    private final PartitionedReservationJsonRepository partitionedReservationRepository;
+    private final Path checkpointFile;
+    private final int chunkSize;
+    private final DurableFileWriter durableWriter;
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    public ResumableMigrationService(GuestRepository guestRepository, GuestJsonRepository guestJsonRepository,
+                                     HostRepository hostRepository, HostJsonRepository hostJsonRepository,
+                                     ReservationRepository reservationRepository,
+                                     PartitionedReservationJsonRepository partitionedReservationRepository,
+                                     String checkpointPath, int chunkSize) {
+        this(guestRepository, guestJsonRepository, hostRepository, hostJsonRepository, reservationRepository,
+                partitionedReservationRepository, checkpointPath, chunkSize, DurableFileWriter.defaultWriter());
+    }
+
+    @Autowired
+    public ResumableMigrationService(GuestRepository guestRepository, GuestJsonRepository guestJsonRepository,
+                                     HostRepository hostRepository, HostJsonRepository hostJsonRepository,
+                                     ReservationRepository reservationRepository,
+                                     PartitionedReservationJsonRepository partitionedReservationRepository,
+                                     @Value("${migration.checkpoint.path:./data/migration-checkpoint.json}") String checkpointPath,
+                                     @Value("${migration.chunk.size:1000}") int chunkSize,
+                                     DurableFileWriter durableWriter) {
+        this.guestRepository = guestRepository;
+        this.guestJsonRepository = guestJsonRepository;
+        this.hostRepository = hostRepository;
+        this.hostJsonRepository = hostJsonRepository;
+        this.reservationRepository = reservationRepository;
+        this.partitionedReservationRepository = partitionedReservationRepository;
+        this.checkpointFile = Path.of(checkpointPath);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.durableWriter = durableWriter;
+    }
+
+    /**
+     * Runs (or resumes) the migration, then verifies it
+     * @return one verification result each for guests, hosts and reservations
+     */
+    public List<VerificationResult> run() throws Exception {
+        Checkpoint checkpoint = loadCheckpoint();
+        if (checkpoint.phase != null) {
+            System.out.println("Resuming migration at " + checkpoint.phase
+                    + (checkpoint.hostId == null ? "" : ", host " + checkpoint.hostId + " offset " + checkpoint.offset));
+        }
+
+        if (checkpoint.phase == null || checkpoint.phase.equals(GUESTS)) {
+            checkpoint.phase = GUESTS;
+            List<Guest> guests = guestRepository.findAll();
+            if (!guestJsonRepository.upsertAll(guests)) {
+                throw new IllegalStateException("Could not write guests");
+            }
+            System.out.println("Guests migrated: " + guests.size());
+            checkpoint.phase = HOSTS;
+            saveCheckpoint(checkpoint);
+        }
+
+        if (checkpoint.phase.equals(HOSTS)) {
+            List<Host> hosts = hostRepository.findAll();
+            if (!hostJsonRepository.upsertAll(hosts)) {
+                throw new IllegalStateException("Could not write hosts");
+            }
+            System.out.println("Hosts migrated: " + hosts.size());
+            checkpoint.phase = RESERVATIONS;
+            saveCheckpoint(checkpoint);
+        }
+
+        if (checkpoint.phase.equals(RESERVATIONS)) {
+            migrateReservations(checkpoint);
+        }
+
+        List<VerificationResult> results = verify();
+        results.forEach(System.out::println);
+        Files.deleteIfExists(checkpointFile);
+        return results;
+    }
+
+    /**
+     * Compares source and target counts and hashes.
+     * Every target record counts, so rows the source doesn't have (e.g. left by an earlier run) show as a mismatch.
+     */
+    public List<VerificationResult> verify() {
+        List<VerificationResult> results = new ArrayList<>();
+        results.add(compare("Guests", guestRepository.findAll(), guestJsonRepository.findAll(),
+                Guest::getGuestId, RecordHashes::canonical));
+        List<Host> hosts = hostRepository.findAll();
+        results.add(compare("Hosts", hosts, hostJsonRepository.findAll(),
+                Host::getId, RecordHashes::canonical));
+        results.add(compareReservations(hosts));
+        return results;
+    }
+
+    /**
+     * Hashes reservations one host at a time (source host files and target partitions, including
+     * partitions of hosts that aren't in the source), so only one host's rows are in memory at once
+     */
+    private VerificationResult compareReservations(List<Host> hosts) {
+        Set<String> sourceHosts = new TreeSet<>();
+        hosts.forEach(h -> sourceHosts.add(h.getId()));
+        Set<String> allHosts = new TreeSet<>(sourceHosts);
+        allHosts.addAll(partitionedReservationRepository.hostIds());
+
+        MessageDigest sourceDigest = RecordHashes.newDigest();
+        MessageDigest targetDigest = RecordHashes.newDigest();
+        int sourceCount = 0;
+        int targetCount = 0;
+        for (String hostId : allHosts) {
+            if (sourceHosts.contains(hostId)) {
+                sourceCount += hashHost(sourceDigest, hostId, reservationRepository.readHostFile(hostId));
+            }
+            targetCount += hashHost(targetDigest, hostId, partitionedReservationRepository.findByHostId(hostId));
+        }
+        return new VerificationResult("Reservations", sourceCount, targetCount,
+                RecordHashes.hex(sourceDigest), RecordHashes.hex(targetDigest));
+    }
+
+    /**
+     * Adds a host's reservations to a running hash, sorted by ID
+     * @return how many were added
+     */
+    private static int hashHost(MessageDigest digest, String hostId, List<Reservation> reservations) {
+        reservations.sort(Comparator.comparingInt(Reservation::getId));
+        for (Reservation r : reservations) {
+            RecordHashes.update(digest, hostId + "/" + r.getId(), RecordHashes.canonical(r));
+        }
+        return reservations.size();
+    }
+
+    private void migrateReservations(Checkpoint checkpoint) throws Exception {
+        List<Host> hosts = hostRepository.findAll();
+        int first = 0;
+        if (checkpoint.hostId != null) {
+            first = indexOf(hosts, checkpoint.hostId);
+            if (first < 0) {
+                // Host list changed since the checkpoint; upserts make starting over safe
+                first = 0;
+                checkpoint.offset = 0;
+            }
+        }
+
+        int migrated = 0;
+        for (int i = first; i < hosts.size(); i++) {
+            String hostId = hosts.get(i).getId();
+            List<Reservation> rows = reservationRepository.readHostFile(hostId);
+            int offset = i == first ? Math.min(checkpoint.offset, rows.size()) : 0;
+            while (offset < rows.size()) {
+                int end = Math.min(rows.size(), offset + chunkSize);
+                List<Reservation> chunk = rows.subList(offset, end);
+                if (!partitionedReservationRepository.upsertAll(hostId, chunk)) {
+                    throw new IllegalStateException("Could not write reservations for host " + hostId);
+                }
+                migrated += chunk.size();
+                offset = end;
+                checkpoint.hostId = hostId;
+                checkpoint.offset = offset;
+                saveCheckpoint(checkpoint);
+            }
+            if (i + 1 < hosts.size()) {
+                checkpoint.hostId = hosts.get(i + 1).getId();
+                checkpoint.offset = 0;
+                saveCheckpoint(checkpoint);
+            }
+        }
+        System.out.println("Reservations migrated: " + migrated);
+        checkpoint.phase = VERIFY;
+        checkpoint.hostId = null;
+        saveCheckpoint(checkpoint);
+    }
+
+    private static int indexOf(List<Host> hosts, String hostId) {
+        for (int i = 0; i < hosts.size(); i++) {
+            if (hosts.get(i).getId().equals(hostId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private Checkpoint loadCheckpoint() throws Exception {
+        if (!Files.exists(checkpointFile)) {
+            return new Checkpoint();
+        }
+        return mapper.readValue(checkpointFile.toFile(), Checkpoint.class);
+    }
+
+    private void saveCheckpoint(Checkpoint checkpoint) throws Exception {
+        Path parent = checkpointFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        durableWriter.replace(checkpointFile, mapper.writeValueAsString(checkpoint));
+    }
+
+    /**
+     * Hashes the source and all target records, both sorted by key.
+     * Used for guests and hosts, which the CSV repositories already hold in memory.
+     */
+    private static <T> VerificationResult compare(String target, List<T> source, List<T> migrated,
+                                                  Function<T, String> key, Function<T, String> canonical) {
+        Map<String, String> sourceRows = new TreeMap<>();
+        for (T s : source) {
+            sourceRows.put(key.apply(s), canonical.apply(s));
+        }
+        Map<String, String> targetRows = new TreeMap<>();
+        for (T t : migrated) {
+            targetRows.put(key.apply(t), canonical.apply(t));
+        }
+        return new VerificationResult(target, sourceRows.size(), migrated.size(),
+                RecordHashes.sha256(sourceRows), RecordHashes.sha256(targetRows));
+    }
+
+    /**
+     * Contents of the checkpoint file
+     */
+    static class Checkpoint {
+        public String phase;
+        public String hostId;
+        public int offset;
+    }
+}
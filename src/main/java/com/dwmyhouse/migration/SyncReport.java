@@ -0,0 +1,15 @@
+package com.dwmyhouse.migration;
+
+/**
+ * Outcome of one incremental sync
+ * @param filesChecked source files looked at (including ones that have disappeared)
+ * @param filesChanged files whose content changed and were re-synced
+ */
+public record SyncReport(int filesChecked, int filesChanged, int inserted, int updated, int deleted) {
+
+    @Override
+    public String toString() {
+        return String.format("Sync: %d/%d files changed, %d inserted, %d updated, %d deleted",
+                filesChanged, filesChecked, inserted, updated, deleted);
+    }
+}
@@ -0,0 +1,23 @@
+package com.dwmyhouse.migration;
+
+/**
+ * Comparison of one migrated data set between source and target
+ * @param target what was compared, e.g. "Reservations"
+ * @param sourceCount records in the source
+ * @param targetCount records in the target, including ones the source doesn't have (so extras show as a mismatch)
+ * @param sourceHash SHA-256 of the source records, sorted by key
+ * @param targetHash SHA-256 of all target records, sorted by key
+ */
+public record VerificationResult(String target, int sourceCount, int targetCount,
+                                 String sourceHash, String targetHash) {
+
+    public boolean matches() {
+        return sourceCount == targetCount && sourceHash.equals(targetHash);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: source %d, target %d, %s", target, sourceCount, targetCount,
+                matches() ? "hashes match" : "MISMATCH");
+    }
+}
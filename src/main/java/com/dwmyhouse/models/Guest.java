@@ -55,6 +55,13 @@ public class Guest {
         this.state = state;
     }
 
+    /**
+     * Copy Constructor
+     */
+    public Guest(Guest other) {
+        this(other.guestId, other.firstName, other.lastName, other.email, other.phone, other.state);
+    }
+
     /**
      * Getters and Setters
      */
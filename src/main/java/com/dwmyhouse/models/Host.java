@@ -83,6 +83,14 @@ public class Host {
         this.weekendsRate = weekendsRate;
     }
 
+    /**
+     * Copy Constructor
+     */
+    public Host(Host other) {
+        this(other.id, other.lastName, other.email, other.phone, other.address, other.city,
+                other.state, other.postalCode, other.standardRate, other.weekendsRate);
+    }
+
     /**
      * Getters and Setters
      */
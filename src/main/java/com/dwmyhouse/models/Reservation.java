@@ -36,6 +36,13 @@ public class Reservation {
 
     private String hostId;
 
+    /**
+     * Version stamp, set to 1 when stored and bumped by every update.
+     * Updates and deletes carrying a version only succeed if it still matches the stored one;
+     * 0 means not known (the write skips the check).
+     */
+    private int version;
+
     /**
      * Constructor
      */
@@ -53,6 +60,15 @@ public class Reservation {
         this.total = total;
     }
 
+    /**
+     * Copy Constructor
+     */
+    public Reservation(Reservation other) {
+        this(other.id, other.startDate, other.endDate, other.guestId, other.total);
+        this.hostId = other.hostId;
+        this.version = other.version;
+    }
+
     /**
      * Getters and Setters
      */
@@ -104,6 +120,14 @@ public class Reservation {
         this.hostId = hostId;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return String.format("ID: %d, %s to %s, Guest ID: %s, Total: $%s", id, startDate, endDate, guestId, total);
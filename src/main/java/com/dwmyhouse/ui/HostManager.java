@@ -59,8 +59,7 @@ public class HostManager {
 
         System.out.println("Validating host: " + newHost.getEmail()); //debug
 
-        boolean duplicate = hostService.findAll().stream()
-                .anyMatch(h -> h.getEmail().equalsIgnoreCase(newHost.getEmail().trim()));
+        boolean duplicate = hostService.getHostByEmail(newHost.getEmail().trim()) != null;
 
         List<String> errors = validateHost(newHost);
 
@@ -102,8 +101,7 @@ public class HostManager {
 
         if (!updated.getEmail().equalsIgnoreCase(existing.getEmail())) {
             // Ensure email is still unique
-            boolean duplicate = hostService.findAll().stream()
-                    .anyMatch(h -> h.getEmail().equalsIgnoreCase(updated.getEmail()));
+            boolean duplicate = hostService.getHostByEmail(updated.getEmail()) != null;
             if (duplicate) {
                 errors.add("A host with this email already exists.");
             }
@@ -1,5 +1,6 @@
 package com.dwmyhouse.ui;
 
+import com.dwmyhouse.domain.ChangeResult;
 import com.dwmyhouse.domain.GuestService;
 import com.dwmyhouse.domain.HostService;
 import com.dwmyhouse.domain.ReservationService;
@@ -15,6 +16,7 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 /**
@@ -61,6 +63,9 @@ public class MainController {
         //Uncomment the line below to migrate the reservation Data only
         //dataMigrationService.migrateReservations();
 
+        //Uncomment the line below to migrate the reservation Data into per-host JSON partitions
+        //dataMigrationService.migrateReservationsToPartitions();
+
         view.displayHeader("Welcome to Don't Wreck My House");
         System.out.println();
         view.displayMessage("Select from the Menu below to continue.");
@@ -126,8 +131,12 @@ public class MainController {
 
         view.displayHeader(host.getLastName() + ": " + host.getCity() + ", " + host.getState());
 
+        // Resolve every guest in one lookup instead of one per row
+        Map<String, Guest> guests = guestService.getGuestsByIds(
+                reservations.stream().map(Reservation::getGuestId).toList());
+
         for(var r : reservations) { // Loop through reservations and print guest details
-            Guest guest = guestService.getGuestById(r.getGuestId());
+            Guest guest = guests.get(r.getGuestId());
             String guestName = (guest != null) ? guest.getLastName() + ", " + guest.getFirstName() : "Unknown Guest";
 
             String guestEmail = (guest != null) ? guest.getEmail() : "???";
@@ -250,10 +259,12 @@ public class MainController {
             toEdit.setStartDate(newStart);
             toEdit.setEndDate(newEnd);
 
-            boolean success = reservationService.editReservation(toEdit, host);
-            if(success) {
+            ChangeResult result = reservationService.tryEditReservation(toEdit, host);
+            if(result == ChangeResult.SUCCESS) {
                 view.displayReservationSummary(toEdit);
                 view.displayMessage("Reservation " + toEdit.getId() + " updated successfully.");
+            } else if(result == ChangeResult.CONFLICT || result == ChangeResult.NOT_FOUND) {
+                view.displayMessage("Reservation was changed or cancelled by someone else. Reload and try again.");
             } else {
                 view.displayMessage("Reservation update failed. Check for bad dates.");
             }
@@ -302,11 +313,19 @@ public class MainController {
 
         try {
             int id = Integer.parseInt(view.readRequiredString("Reservation ID to cancel: "));
+            // Cancel the version that was listed, not whatever someone else changed it to since
+            int version = futureGuestReservations.stream()
+                    .filter(r -> r.getId() == id)
+                    .mapToInt(Reservation::getVersion)
+                    .findFirst()
+                    .orElse(0);
 
-            boolean success = reservationService.cancelReservation(id, host.getId());
+            ChangeResult result = reservationService.tryCancelReservation(id, version, host.getId());
 
-            if(success) {
+            if(result == ChangeResult.SUCCESS) {
                 view.displayMessage("Reservation cancelled successfully.");
+            } else if(result == ChangeResult.CONFLICT) {
+                view.displayMessage("Reservation was changed by someone else. Reload and try again.");
             } else {
                 view.displayMessage("Unable to cancel reservation. It may already be in the past.");
             }
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
@@ -67,17 +68,13 @@ public class ReservationManager {
             return;
         }
 
-        List<Host> hosts = hostService.findAll();
-
-        List<Reservation> matchingReservations = hosts.stream()
-                .flatMap(h -> reservationService.viewReservationsForHost(h.getId()).stream())
-                .filter(r -> r.getGuestId().equals(guest.getGuestId()))
-                .collect(Collectors.toList());
+        List<Reservation> matchingReservations =
+                reservationService.findReservationsForGuest(guest.getGuestId(), hostService::findAll);
 
         if(matchingReservations.isEmpty()) {
             view.displayMessage("No reservations found for this guest.");
         } else {
-            view.displayReservations(matchingReservations);
+            view.displayReservations(matchingReservations, Map.of(guest.getGuestId(), guest));
         }
     }
 
@@ -85,9 +82,7 @@ public class ReservationManager {
         view.displayHeader("view Reservations by Host State");
         String state = view.readRequiredString("Enter state (e.g., NY): ");
 
-        List<Host> filteredHosts = hostService.findAll().stream()
-                .filter(h -> h.getState().equalsIgnoreCase(state))
-                .collect(Collectors.toList());
+        List<Host> filteredHosts = hostService.findByState(state);
 
         displayReservationsForHosts(filteredHosts);
     }
@@ -96,9 +91,7 @@ public class ReservationManager {
         view.displayHeader("View Reservations by Host City");
         String city = view.readRequiredString("Enter city: ");
 
-        List<Host> filteredHosts = hostService.findAll().stream()
-                .filter(h -> h.getCity().equalsIgnoreCase(city))
-                .collect(Collectors.toList());
+        List<Host> filteredHosts = hostService.findByCity(city);
 
         displayReservationsForHosts(filteredHosts);
     }
@@ -107,9 +100,7 @@ public class ReservationManager {
         view.displayHeader("View Reservations by Host Zip Code");
         String zip = view.readRequiredString("Enter zip code: ");
 
-        List<Host> filteredHosts = hostService.findAll().stream()
-                .filter(h -> h.getPostalCode().equals(zip))
-                .collect(Collectors.toList());
+        List<Host> filteredHosts = hostService.findByPostalCode(zip);
 
         displayReservationsForHosts(filteredHosts);
     }
@@ -122,7 +113,9 @@ public class ReservationManager {
         if (reservations.isEmpty()) {
             view.displayMessage("No reservations found for selected filter.");
         } else {
-            view.displayReservations(reservations);
+            Map<String, Guest> guests = guestService.getGuestsByIds(
+                    reservations.stream().map(Reservation::getGuestId).toList());
+            view.displayReservations(reservations, guests);
         }
     }
 }
@@ -11,6 +11,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.UUID;
 
@@ -162,6 +163,23 @@ public class View {
         }
     }
 
+    // Displays reservations with guest names, guests looked up by ID (unknown guests show their ID)
+    public void displayReservations(List<Reservation> reservations, Map<String, Guest> guests) {
+        if(reservations == null || reservations.isEmpty()) {
+            out.println("No reservations found.");
+            return;
+        }
+        for (Reservation r : reservations) {
+            Guest guest = guests.get(r.getGuestId());
+            out.printf("ID: %-3d | Dates: %-10s to %-10s | Guest: %-25s | Total: $%-5s%n",
+                    r.getId(),
+                    r.getStartDate(),
+                    r.getEndDate(),
+                    guest != null ? guest.getLastName() + ", " + guest.getFirstName() : "ID " + r.getGuestId(),
+                    r.getTotal());
+        }
+    }
+
     // Formats and displays a single reservation summary
     public void displayReservationSummary(Reservation r) {
 
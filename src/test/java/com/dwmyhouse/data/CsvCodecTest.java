@@ -0,0 +1,163 @@
+package com.dwmyhouse.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvCodecTest {
+
+    private final CsvCodec csv = new CsvCodec();
+    private final Random random = new Random(42);
+
+    @Test
+    void shouldSplitLikeStringSplit() {
+        for (String line : List.of("", ",", "a,b,c", ",a,,b,", "1,2025-01-01,2025-01-02,g,100", ",,,,")) {
+            String[] tokens = line.split(",", -1);
+            assertEquals(tokens.length, csv.split(line), line);
+            for (int i = 0; i < tokens.length; i++) {
+                assertEquals(tokens[i], csv.text(i));
+                assertEquals(tokens[i].isBlank(), csv.isBlank(i));
+            }
+        }
+    }
+
+    @Test
+    void shouldParseIntsLikeIntegerParseInt() {
+        List<String> samples = List.of("0", "7", "-12", "+5", "007", "2147483647", "2147483648",
+                "-2147483648", "", "-", "1a", " 1", "99999999999");
+        assertSameResults(samples, Integer::parseInt, i -> csv.parseInt(0));
+        for (int n = 0; n < 2000; n++) {
+            String value = Integer.toString(random.nextInt());
+            assertSameResults(List.of(value), Integer::parseInt, i -> csv.parseInt(0));
+        }
+    }
+
+    @Test
+    void shouldParseDatesLikeLocalDateParse() {
+        List<String> samples = List.of("2025-04-20", "0001-01-01", "9999-12-31", "2024-02-29", "2025-02-29",
+                "2025-13-01", "2025-00-10", "2025-1-01", "+12025-01-01", "-0001-01-01", "2025/01/01",
+                "abcd-ef-gh", "", "2025-01-01 ");
+        assertSameResults(samples, LocalDate::parse, i -> csv.parseDate(0));
+        for (int n = 0; n < 2000; n++) {
+            String value = LocalDate.ofEpochDay(random.nextInt(3_000_000) - 700_000).toString();
+            assertSameResults(List.of(value), LocalDate::parse, i -> csv.parseDate(0));
+        }
+    }
+
+    @Test
+    void shouldParseDecimalsLikeBigDecimal() {
+        List<String> samples = List.of("100", "450.00", "-0.00", "0", "5.", ".5", "+5", "-", "", "1e3",
+                "1E+3", "00012.3400", " 5", "12.3.4", "123456789012345678", "1234567890123456789",
+                "99999999999999999999.99", "abc");
+        assertSameResults(samples, BigDecimal::new, i -> csv.parseDecimal(0));
+        for (int n = 0; n < 2000; n++) {
+            String value = new BigDecimal(BigInteger.valueOf(random.nextLong() % 10_000_000_000L),
+                    random.nextInt(5)).toPlainString();
+            assertSameResults(List.of(value), BigDecimal::new, i -> csv.parseDecimal(0));
+        }
+    }
+
+    @Test
+    void shouldFormatGuestRowsLikePrintf() {
+        for (int n = 0; n < 500; n++) {
+            String[] f = {word(), word(), word(), word(), word(), n % 50 == 0 ? null : word()};
+            String expected = String.format("%s,%s,%s,%s,%s,%s", (Object[]) f);
+            csv.beginRow();
+            for (String s : f) {
+                csv.field(s);
+            }
+            assertEquals(expected, csv.row().toString());
+        }
+    }
+
+    @Test
+    void shouldFormatHostRowsLikePrintf() {
+        for (int n = 0; n < 500; n++) {
+            BigDecimal standard = decimal();
+            BigDecimal weekend = decimal();
+            String expected = String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s", "id" + n, word(), "", word(),
+                    word(), word(), word(), word(), standard.toPlainString(), weekend.toPlainString());
+            String[] parts = expected.split(",", -1);
+            csv.beginRow();
+            for (int i = 0; i < 8; i++) {
+                csv.field(parts[i]);
+            }
+            csv.field(standard).field(weekend);
+            assertEquals(expected, csv.row().toString());
+        }
+    }
+
+    @Test
+    void shouldFormatReservationRowsLikePrintf() {
+        for (int n = 0; n < 2000; n++) {
+            int id = random.nextInt(100_000);
+            LocalDate start = LocalDate.ofEpochDay(random.nextInt(3_000_000) - 700_000);
+            LocalDate end = start.plusDays(random.nextInt(30));
+            String guest = word();
+            BigDecimal total = decimal();
+            String expected = String.format("%d,%s,%s,%s,%s", id, start, end, guest, total.toPlainString());
+
+            csv.beginRow().field(id).field(start).field(end).field(guest).field(total);
+            assertEquals(expected, csv.row().toString());
+
+            StringBuilder target = new StringBuilder();
+            csv.endRow(target);
+            assertEquals(expected + System.lineSeparator(), target.toString());
+        }
+    }
+
+    @Test
+    void shouldRoundTripReservationRows() {
+        String line = "12,2025-06-01,2025-06-04,guest-99,720.00";
+        assertEquals(5, csv.split(line));
+        csv.beginRow().field(csv.parseInt(0)).field(csv.parseDate(1)).field(csv.parseDate(2))
+                .field(csv.text(3)).field(csv.parseDecimal(4));
+        assertEquals(line, csv.row().toString());
+    }
+
+    /**
+     * Checks that the codec returns an equal value (or throws the same exception type) as the JDK parser
+     */
+    private <T> void assertSameResults(List<String> samples, Function<String, T> reference,
+                                       Function<Integer, T> codec) {
+        for (String sample : samples) {
+            Object expected;
+            try {
+                expected = reference.apply(sample);
+            } catch (RuntimeException e) {
+                expected = e.getClass();
+            }
+            Object actual;
+            try {
+                csv.split(sample);
+                actual = codec.apply(0);
+            } catch (RuntimeException e) {
+                actual = e.getClass();
+            }
+            assertEquals(expected, actual, "sample: '" + sample + "'");
+            if (expected instanceof BigDecimal d) {
+                assertEquals(d.scale(), ((BigDecimal) actual).scale(), sample);
+            }
+        }
+    }
+
+    private String word() {
+        StringBuilder sb = new StringBuilder();
+        int length = random.nextInt(12);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+
+    private BigDecimal decimal() {
+        return BigDecimal.valueOf(random.nextInt(1_000_000) - 1000, random.nextInt(4) - 1);
+    }
+}
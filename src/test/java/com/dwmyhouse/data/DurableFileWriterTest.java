@@ -0,0 +1,84 @@
+package com.dwmyhouse.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DurableFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReplaceFileWithoutLeavingTempFiles() throws Exception {
+        DurableFileWriter writer = new DurableFileWriter(0);
+        Path target = tempDir.resolve("hosts.csv");
+        Files.writeString(target, "old contents");
+
+        writer.replace(target, "new contents\n");
+
+        assertEquals("new contents\n", Files.readString(target));
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(1, files.count());
+        }
+        assertEquals(1, writer.getCommitCount());
+    }
+
+    @Test
+    void shouldAppendToFile() throws Exception {
+        DurableFileWriter writer = new DurableFileWriter(0);
+        Path target = tempDir.resolve("host.csv");
+        Files.writeString(target, "a\n");
+
+        writer.append(target, "b\n");
+        writer.append(target, "c\n");
+
+        assertEquals("a\nb\nc\n", Files.readString(target));
+    }
+
+    @Test
+    void shouldFailWhenFolderIsMissing() {
+        DurableFileWriter writer = new DurableFileWriter(0);
+        Path target = tempDir.resolve("missing").resolve("file.csv");
+
+        assertThrows(Exception.class, () -> writer.replace(target, "data"));
+    }
+
+    @Test
+    void shouldGroupConcurrentWritesIntoBatches() throws Exception {
+        DurableFileWriter writer = new DurableFileWriter(50);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Path target = tempDir.resolve("file-" + i + ".csv");
+            String content = "row " + i;
+            threads.add(new Thread(() -> {
+                try {
+                    writer.replace(target, content);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        for (int i = 0; i < 8; i++) {
+            assertEquals("row " + i, Files.readString(tempDir.resolve("file-" + i + ".csv")));
+        }
+        assertEquals(8, writer.getCommitCount());
+        assertTrue(writer.getBatchCount() < 8);
+        assertTrue(writer.getMaxBatchSize() > 1);
+        assertTrue(writer.getAverageCommitLatencyMillis() > 0);
+    }
+}
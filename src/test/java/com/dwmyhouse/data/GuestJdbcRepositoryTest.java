@@ -0,0 +1,102 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Guest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the GuestRepositoryCrudTest cases against the embedded SQL backend, seeded from the same CSV rows.
+ */
+public class GuestJdbcRepositoryTest {
+
+    GuestRepository csvRepository;
+    GuestStorage repository;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        Path testFile = tempDir.resolve("guests.csv");
+        try (PrintWriter writer = new PrintWriter(testFile.toFile())) {
+            writer.println("guest_id,first_name,last_name,email,phone,state");
+            writer.println("G001,John,Doe,john@example.com,111-111-1111,NY");
+            writer.println("G002,Jane,Smith,jane@example.com,222-222-2222,CA");
+        }
+        csvRepository = new GuestRepository(testFile.toString());
+
+        JdbcDatabase database = new JdbcDatabase("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new CsvToJdbcImporter(database, csvRepository, new HostRepository(tempDir.resolve("hosts.csv").toString()),
+                new ReservationRepository(tempDir.toString())).importAll();
+        repository = new GuestJdbcRepository(database);
+    }
+
+    @Test
+    void shouldFindSeveralGuestsById() {
+        Map<String, Guest> guests = repository.findByIds(List.of("G002", "G001", "G404", "G002"));
+        assertEquals(2, guests.size());
+        assertEquals("john@example.com", guests.get("G001").getEmail());
+        assertEquals("jane@example.com", guests.get("G002").getEmail());
+        assertTrue(repository.findByIds(List.of()).isEmpty());
+    }
+
+    @Test
+    void shouldMatchCsvRows() {
+        List<Guest> expected = csvRepository.findAll();
+        List<Guest> actual = repository.findAll();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getGuestId(), actual.get(i).getGuestId());
+            assertEquals(expected.get(i).getEmail(), actual.get(i).getEmail());
+            assertEquals(expected.get(i).getPhone(), actual.get(i).getPhone());
+            assertEquals(expected.get(i).getState(), actual.get(i).getState());
+        }
+    }
+
+    @Test
+    void shouldFindGuestById() {
+        Guest guest = repository.findById("G001");
+        assertNotNull(guest);
+        assertEquals("John", guest.getFirstName());
+        assertNull(repository.findById("G999"));
+    }
+
+    @Test
+    void shouldFindGuestByEmailIgnoringCase() {
+        assertEquals("G002", repository.findByEmail("jane@example.com").getGuestId());
+        assertEquals("G002", repository.findByEmail("JANE@Example.com").getGuestId());
+    }
+
+    @Test
+    void shouldAddGuest() {
+        Guest newGuest = new Guest("G003", "Alice", "Jones", "alice@example.com", "333-333-3333", "TX");
+
+        assertTrue(repository.add(newGuest));
+        assertEquals(3, repository.findAll().size());
+        assertEquals("G003", repository.findAll().get(2).getGuestId());
+    }
+
+    @Test
+    void shouldUpdateGuest() {
+        Guest existing = repository.findById("G001");
+        existing.setEmail("johnny@example.com");
+
+        assertTrue(repository.update(existing));
+        assertNull(repository.findByEmail("john@example.com"));
+        assertEquals("G001", repository.findByEmail("johnny@example.com").getGuestId());
+        assertEquals("G001", repository.findAll().get(0).getGuestId()); // keeps its position
+    }
+
+    @Test
+    void shouldDeleteGuest() {
+        assertTrue(repository.delete("G002"));
+        assertNull(repository.findById("G002"));
+        assertFalse(repository.delete("G002"));
+    }
+}
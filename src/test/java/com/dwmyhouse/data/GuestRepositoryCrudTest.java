@@ -7,8 +7,11 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -83,4 +86,67 @@ public class GuestRepositoryCrudTest {
         assertNull(repository.findById("G002"));
     }
 
+    @Test
+    void shouldServeRepeatedLookupsFromCache() {
+        repository.findById("G001");
+        repository.findById("G002");
+        repository.findByEmail("john@example.com");
+
+        assertEquals(1, repository.getCacheMisses());
+        assertEquals(2, repository.getCacheHits());
+    }
+
+    @Test
+    void shouldResolveManyIdsWithOneFileCheck() {
+        Map<String, Guest> guests = repository.findByIds(List.of("G001", "G002", "G001", "G404"));
+
+        assertEquals(2, guests.size());
+        assertEquals("Doe", guests.get("G001").getLastName());
+        assertEquals("Smith", guests.get("G002").getLastName());
+        assertEquals(1, repository.getCacheMisses()); // one file read
+        assertEquals(0, repository.getCacheHits());   // and no per-ID checks
+
+        repository.findByIds(List.of("G001", "G002"));
+        assertEquals(1, repository.getCacheMisses());
+        assertEquals(1, repository.getCacheHits());
+    }
+
+    @Test
+    void shouldFindGuestByEmailIgnoringCase() {
+        Guest guest = repository.findByEmail("JANE@Example.com");
+        assertNotNull(guest);
+        assertEquals("G002", guest.getGuestId());
+    }
+
+    @Test
+    void shouldKeepIndexesInSyncAfterWrites() {
+        Guest existing = repository.findById("G001");
+        existing.setEmail("johnny@example.com");
+        assertTrue(repository.update(existing));
+
+        assertNull(repository.findByEmail("john@example.com"));
+        assertEquals("G001", repository.findByEmail("johnny@example.com").getGuestId());
+        assertEquals(1, repository.getCacheMisses()); // writes go through, no reload needed
+    }
+
+    @Test
+    void shouldNotExposeCachedInstances() {
+        Guest guest = repository.findById("G001");
+        guest.setFirstName("Changed");
+
+        assertEquals("John", repository.findById("G001").getFirstName());
+    }
+
+    @Test
+    void shouldReloadWhenFileChangesOnDisk() throws IOException {
+        assertNull(repository.findById("G009"));
+
+        Files.writeString(testFile, Files.readString(testFile)
+                + "G009,Sam,Stone,sam@example.com,444-444-4444,WA" + System.lineSeparator());
+        Files.setLastModifiedTime(testFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertNotNull(repository.findById("G009"));
+        assertEquals(2, repository.getCacheMisses());
+    }
+
 }
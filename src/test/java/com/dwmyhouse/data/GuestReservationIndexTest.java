@@ -0,0 +1,126 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GuestReservationIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldNotBeReadyUntilRebuiltWhenFileIsMissing() {
+        GuestReservationIndex index = new GuestReservationIndex(tempDir.resolve("guest-index.log").toString());
+        assertTrue(index.isEnabled());
+        assertFalse(index.isReady());
+
+        index.add("g1", "h1", 1); // ignored until rebuilt
+        assertTrue(index.find("g1").isEmpty());
+
+        assertTrue(index.rebuild(byHost("h1", reservation(1, "g1"), reservation(2, "g2"))));
+        assertTrue(index.isReady());
+        assertEquals(Map.of("h1", Set.of(1)), index.find("g1"));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void shouldReplayLogAfterRestart() throws Exception {
+        Path file = tempDir.resolve("guest-index.log");
+        GuestReservationIndex index = new GuestReservationIndex(file.toString());
+        index.rebuild(byHost("h1", reservation(1, "g1")));
+        index.add("g1", "h2", 5);
+        index.addAll("h3", List.of(reservation(7, "g1"), reservation(8, "g2")));
+        index.remove("g1", "h1", 1);
+        index.add("g1", "h2", 5); // already indexed, not logged again
+
+        assertEquals(5, Files.readAllLines(file).size());
+
+        GuestReservationIndex reopened = new GuestReservationIndex(file.toString());
+        assertTrue(reopened.isReady());
+        Map<String, Set<Integer>> hosts = reopened.find("g1");
+        assertEquals(List.of("h2", "h3"), List.copyOf(hosts.keySet()));
+        assertEquals(Set.of(5), hosts.get("h2"));
+        assertEquals(Set.of(7), hosts.get("h3"));
+        assertEquals(Map.of("h3", Set.of(8)), reopened.find("g2"));
+        assertEquals(3, reopened.size());
+    }
+
+    @Test
+    void shouldNeedRebuildWhenFileIsCorrupt() throws Exception {
+        Path file = tempDir.resolve("guest-index.log");
+        Files.writeString(file, "+,g1,h1,1\nnot a line\n");
+
+        GuestReservationIndex index = new GuestReservationIndex(file.toString());
+        assertFalse(index.isReady());
+        assertTrue(index.find("g1").isEmpty());
+    }
+
+    @Test
+    void shouldCompactWhenDeadLinesOutnumberLiveOnes() throws Exception {
+        Path file = tempDir.resolve("guest-index.log");
+        GuestReservationIndex index = new GuestReservationIndex(file.toString());
+        index.rebuild(Map.of());
+        for (int id = 1; id <= 600; id++) {
+            index.add("g1", "h1", id);
+            index.remove("g1", "h1", id);
+        }
+        index.add("g2", "h1", 1000);
+
+        assertTrue(Files.readAllLines(file).size() < 1024);
+        assertEquals(Map.of("h1", Set.of(1000)), new GuestReservationIndex(file.toString()).find("g2"));
+    }
+
+    @Test
+    void shouldKeepHostTokensAcrossRestart() {
+        Path file = tempDir.resolve("guest-index.log");
+        GuestReservationIndex index = new GuestReservationIndex(file.toString());
+        Map<String, Object> tokens = new LinkedHashMap<>();
+        tokens.put("h1", 1L);
+        tokens.put("h2", null); // storage without tokens
+        index.rebuild(byHost("h1", reservation(1, "g1")), tokens);
+        assertTrue(index.isCurrent("h1", 1L));
+        assertFalse(index.isCurrent("h1", 2L));
+        assertFalse(index.isCurrent("h3", 1L)); // never indexed
+        assertTrue(index.isCurrent("h3", null));
+
+        index.add("g1", "h1", 2, 2L);
+        index.reindex("h3", 7L, List.of(reservation(4, "g1")));
+
+        GuestReservationIndex reopened = new GuestReservationIndex(file.toString());
+        assertTrue(reopened.isCurrent("h1", 2L));
+        assertTrue(reopened.isCurrent("h3", 7L));
+        assertEquals(Map.of("h1", Set.of(1, 2), "h3", Set.of(4)), reopened.find("g1"));
+
+        reopened.reindex("h1", 3L, List.of(reservation(2, "g2")));
+        assertEquals(Map.of("h3", Set.of(4)), reopened.find("g1"));
+        assertEquals(Map.of("h1", Set.of(2)), reopened.find("g2"));
+    }
+
+    @Test
+    void shouldBeDisabledForOtherBackendsOrBlankPath() {
+        assertFalse(new GuestReservationIndex("").isEnabled());
+        assertFalse(new GuestReservationIndex(tempDir.resolve("guest-index.log").toString(), "jdbc",
+                DurableFileWriter.defaultWriter()).isEnabled());
+    }
+
+    private static Reservation reservation(int id, String guestId) {
+        return new Reservation(id, LocalDate.of(2030, 1, id % 28 + 1), LocalDate.of(2030, 2, 1), guestId, null);
+    }
+
+    private static Map<String, List<Reservation>> byHost(String hostId, Reservation... reservations) {
+        Map<String, List<Reservation>> result = new LinkedHashMap<>();
+        result.put(hostId, List.of(reservations));
+        return result;
+    }
+}
@@ -0,0 +1,97 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Host;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the HostRepositoryCrudTest cases against the embedded SQL backend, seeded from the same CSV rows.
+ */
+public class HostJdbcRepositoryTest {
+
+    HostRepository csvRepository;
+    HostStorage repository;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        Path testFile = tempDir.resolve("hosts.csv");
+        try (PrintWriter writer = new PrintWriter(testFile.toFile())) {
+            writer.println("id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate");
+            writer.println("H001,Smith,smith@example.com,123-456-7890,123 Main,Dallas,TX,75001,100,150");
+            writer.println("H002,Lee,lee@example.com,456-789-0123,456 Pine,Austin,TX,73301,120,170");
+        }
+        csvRepository = new HostRepository(testFile.toString());
+
+        JdbcDatabase database = new JdbcDatabase("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new CsvToJdbcImporter(database, new GuestRepository(tempDir.resolve("guests.csv").toString()),
+                csvRepository, new ReservationRepository(tempDir.toString())).importAll();
+        repository = new HostJdbcRepository(database);
+    }
+
+    @Test
+    void shouldMatchCsvRows() {
+        List<Host> expected = csvRepository.findAll();
+        List<Host> actual = repository.findAll();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getCity(), actual.get(i).getCity());
+            assertEquals(expected.get(i).getPostalCode(), actual.get(i).getPostalCode());
+            // amounts come back as DECIMAL(12,2)
+            assertEquals(0, expected.get(i).getStandardRate().compareTo(actual.get(i).getStandardRate()));
+            assertEquals(0, expected.get(i).getWeekendsRate().compareTo(actual.get(i).getWeekendsRate()));
+        }
+    }
+
+    @Test
+    void shouldFindHostByEmailAndId() {
+        assertEquals("Austin", repository.findByEmail("LEE@example.com").getCity());
+        assertEquals("lee@example.com", repository.findById("H002").getEmail());
+        assertNull(repository.findById("H999"));
+    }
+
+    @Test
+    void shouldFindHostsByStateCityAndZip() {
+        assertEquals(2, repository.findByState("tx").size());
+        assertEquals(1, repository.findByCity("DALLAS").size());
+        assertEquals("H002", repository.findByPostalCode("73301").get(0).getId());
+        assertTrue(repository.findByState("NY").isEmpty());
+    }
+
+    @Test
+    void shouldAddHost() {
+        Host newHost = new Host("H003", "Johnson", "johnson@example.com", "321-654-9870", "789 Oak St",
+                "Houston", "TX", "77001", new BigDecimal("90"), new BigDecimal("130"));
+
+        assertTrue(repository.add(newHost));
+        assertEquals(3, repository.findAll().size());
+        assertFalse(repository.add(newHost)); // primary key
+    }
+
+    @Test
+    void shouldUpdateHost() {
+        Host existing = repository.findById("H001");
+        existing.setCity("Houston");
+        existing.setPostalCode("77001");
+        assertTrue(repository.update(existing));
+
+        assertTrue(repository.findByCity("Dallas").isEmpty());
+        assertEquals("H001", repository.findByCity("Houston").get(0).getId());
+        assertEquals("H001", repository.findByPostalCode("77001").get(0).getId());
+    }
+
+    @Test
+    void shouldDeleteHost() {
+        assertTrue(repository.delete("H002"));
+        assertNull(repository.findByEmail("lee@example.com"));
+    }
+}
@@ -0,0 +1,44 @@
+package com.dwmyhouse.data;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostLocksTest {
+
+    @Test
+    void shouldRoundStripesUpToPowerOfTwo() {
+        assertEquals(1, new HostLocks(1).stripeCount());
+        assertEquals(64, new HostLocks(64).stripeCount());
+        assertEquals(128, new HostLocks(65).stripeCount());
+        assertEquals(HostLocks.DEFAULT_STRIPES, new HostLocks().stripeCount());
+    }
+
+    @Test
+    void shouldAlwaysGiveAHostTheSameLock() {
+        HostLocks locks = new HostLocks(8);
+        assertSame(locks.forHost("host-1"), locks.forHost(new String("host-1")));
+    }
+
+    @Test
+    void shouldShareReadsButNotWrites() throws Exception {
+        ReadWriteLock lock = new HostLocks().forHost("host-1");
+        lock.readLock().lock();
+        try {
+            // Checked from another thread: the holder itself could always re-enter
+            assertTrue(CompletableFuture.supplyAsync(() -> {
+                boolean got = lock.readLock().tryLock();
+                if (got) {
+                    lock.readLock().unlock();
+                }
+                return got;
+            }).get());
+            assertFalse(CompletableFuture.supplyAsync(() -> lock.writeLock().tryLock()).get());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -7,7 +7,9 @@ import org.junit.jupiter.api.io.TempDir;
 
 import java.io.PrintWriter;
 import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -78,4 +80,43 @@ public class HostRepositoryCrudTest {
         assertTrue(repository.delete("H002"));
         assertNull(repository.findByEmail("lee@example.com"));
     }
+
+    @Test
+    void shouldFindHostById() {
+        Host host = repository.findById("H002");
+        assertNotNull(host);
+        assertEquals("lee@example.com", host.getEmail());
+    }
+
+    @Test
+    void shouldFindHostsByStateCityAndZip() {
+        assertEquals(2, repository.findByState("tx").size());
+        assertEquals(1, repository.findByCity("DALLAS").size());
+        assertEquals("H002", repository.findByPostalCode("73301").get(0).getId());
+        assertTrue(repository.findByState("NY").isEmpty());
+    }
+
+    @Test
+    void shouldKeepIndexesInSyncAfterUpdate() {
+        Host existing = repository.findById("H001");
+        existing.setCity("Houston");
+        existing.setPostalCode("77001");
+        assertTrue(repository.update(existing));
+
+        assertTrue(repository.findByCity("Dallas").isEmpty());
+        assertEquals("H001", repository.findByCity("Houston").get(0).getId());
+        assertEquals("H001", repository.findByPostalCode("77001").get(0).getId());
+    }
+
+    @Test
+    void shouldRebuildWhenFileChangesOnDisk() throws Exception {
+        assertNull(repository.findByEmail("new@example.com"));
+
+        Files.writeString(testFile, Files.readString(testFile)
+                + "H009,New,new@example.com,111-222-3333,1 Elm,Reno,NV,89501,80,95" + System.lineSeparator());
+        Files.setLastModifiedTime(testFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        assertNotNull(repository.findByEmail("new@example.com"));
+        assertEquals(1, repository.findByState("NV").size());
+    }
 }
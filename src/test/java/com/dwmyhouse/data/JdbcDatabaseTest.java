@@ -0,0 +1,59 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JdbcDatabaseTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReuseConnectionsOnFileDatabase() throws Exception {
+        JdbcDatabase database = new JdbcDatabase("jdbc:h2:" + tempDir.resolve("dwmh").toAbsolutePath(), "sa", "");
+        ReservationJdbcRepository repository = new ReservationJdbcRepository(database);
+
+        for (int day = 1; day <= 20; day++) {
+            Reservation r = new Reservation(0, LocalDate.of(2030, 1, day), LocalDate.of(2030, 1, day + 1),
+                    "guest-1", new BigDecimal("100"));
+            assertTrue(repository.add(r, "host-1"));
+            assertEquals(day, repository.findByHost("host-1").size());
+        }
+        assertEquals(1, database.idleCount()); // one connection served every call
+
+        try (Connection a = database.connect(); Connection b = database.connect()) {
+            assertNotSame(a, b);
+            assertEquals(0, database.idleCount());
+        }
+        assertEquals(2, database.idleCount());
+        database.close();
+        assertEquals(0, database.idleCount());
+
+        JdbcDatabase reopened = new JdbcDatabase("jdbc:h2:" + tempDir.resolve("dwmh").toAbsolutePath(), "sa", "");
+        assertEquals(20, new ReservationJdbcRepository(reopened).findByHost("host-1").size());
+        reopened.close();
+    }
+
+    @Test
+    void shouldRollBackUnfinishedTransactionOnRelease() throws Exception {
+        JdbcDatabase database = new JdbcDatabase("jdbc:h2:" + tempDir.resolve("tx").toAbsolutePath(), "sa", "");
+        try (Connection connection = database.connect()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute("INSERT INTO reservation (host_id, id, start_date, end_date, guest_id)"
+                    + " VALUES ('host-1', 1, DATE '2030-01-01', DATE '2030-01-02', 'guest-1')");
+        }
+        assertTrue(new ReservationJdbcRepository(database).findByHost("host-1").isEmpty());
+        try (Connection connection = database.connect()) {
+            assertTrue(connection.getAutoCommit());
+        }
+        database.close();
+    }
+}
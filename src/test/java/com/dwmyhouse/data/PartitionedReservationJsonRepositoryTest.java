@@ -0,0 +1,109 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedReservationJsonRepositoryTest {
+
+    PartitionedReservationJsonRepository repository;
+    Path dir;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) {
+        dir = tempDir.resolve("reservations-json");
+        repository = new PartitionedReservationJsonRepository(dir.toString());
+
+        repository.add(reservation("H001", "G001", 1));
+        repository.add(reservation("H002", "G001", 2));
+        repository.add(reservation("H001", "G002", 3));
+    }
+
+    @Test
+    void shouldWriteOnePartitionPerHostAndManifest() {
+        assertTrue(Files.exists(dir.resolve("H001.jsonl")));
+        assertTrue(Files.exists(dir.resolve("H002.jsonl")));
+        assertTrue(Files.exists(dir.resolve(PartitionedReservationJsonRepository.MANIFEST)));
+        assertEquals(List.of("H001", "H002"), repository.hostIds());
+    }
+
+    @Test
+    void shouldAssignGlobalIds() {
+        List<Reservation> h1 = repository.findByHostId("H001");
+        assertEquals(2, h1.size());
+        assertEquals(1, h1.get(0).getId());
+        assertEquals(3, h1.get(1).getId());
+        assertEquals("H001", h1.get(1).getHostId());
+        assertEquals(new BigDecimal("300"), h1.get(1).getTotal());
+    }
+
+    @Test
+    void shouldFindAllAcrossPartitions() {
+        List<Reservation> all = repository.findAll();
+        assertEquals(3, all.size());
+        assertEquals(List.of(1, 3, 2), all.stream().map(Reservation::getId).toList());
+    }
+
+    @Test
+    void shouldFindByGuestId() {
+        List<Reservation> result = repository.findByGuestId("G001");
+        assertEquals(2, result.size());
+    }
+
+    @Test
+    void shouldUpdateAndDeleteWithinPartition() throws Exception {
+        String h2Before = Files.readString(dir.resolve("H002.jsonl"));
+
+        Reservation updated = repository.findByHostId("H001").get(0);
+        updated.setGuestId("G009");
+        assertTrue(repository.update(updated));
+        assertTrue(repository.delete(3, "H001"));
+        assertFalse(repository.delete(3, "H001"));
+
+        List<Reservation> h1 = repository.findByHostId("H001");
+        assertEquals(1, h1.size());
+        assertEquals("G009", h1.get(0).getGuestId());
+        assertEquals(h2Before, Files.readString(dir.resolve("H002.jsonl")));
+    }
+
+    @Test
+    void shouldRebuildMissingManifest() throws Exception {
+        Files.delete(dir.resolve(PartitionedReservationJsonRepository.MANIFEST));
+
+        PartitionedReservationJsonRepository reopened = new PartitionedReservationJsonRepository(dir.toString());
+        assertEquals(3, reopened.findAll().size());
+        assertTrue(reopened.add(reservation("H002", "G003", 5)));
+        assertEquals(4, reopened.findByHostId("H002").get(1).getId());
+    }
+
+    @Test
+    void shouldRecoverFromCrashBeforeManifestWrite() throws Exception {
+        Path manifest = dir.resolve(PartitionedReservationJsonRepository.MANIFEST);
+        String stale = Files.readString(manifest);
+        assertTrue(repository.add(reservation("H003", "G004", 4))); // new partition, ID 4
+        Files.writeString(manifest, stale); // as if the process died before the manifest write
+
+        PartitionedReservationJsonRepository reopened = new PartitionedReservationJsonRepository(dir.toString());
+        assertEquals(List.of("H001", "H002", "H003"), reopened.hostIds());
+        assertEquals(4, reopened.findAll().size());
+        Reservation next = reservation("H002", "G005", 6);
+        assertTrue(reopened.add(next));
+        assertEquals(5, next.getId());
+    }
+
+    private Reservation reservation(String hostId, String guestId, int day) {
+        Reservation r = new Reservation(0, LocalDate.of(2030, 1, day), LocalDate.of(2030, 1, day + 2),
+                guestId, new BigDecimal(day * 100));
+        r.setHostId(hostId);
+        return r;
+    }
+}
@@ -0,0 +1,109 @@
+package com.dwmyhouse.data;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationIdSequenceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldSeedOnceThenHandOutSequentialIds() throws Exception {
+        AtomicInteger seedCalls = new AtomicInteger();
+        ReservationIdSequence sequence = new ReservationIdSequence(tempDir, 5, () -> {
+            seedCalls.incrementAndGet();
+            return 8;
+        });
+
+        for (int expected = 8; expected < 20; expected++) {
+            assertEquals(expected, sequence.next());
+        }
+        assertEquals(1, seedCalls.get());
+    }
+
+    @Test
+    void shouldContinueAfterRestartWithoutReusingIds() throws Exception {
+        ReservationIdSequence first = new ReservationIdSequence(tempDir, 10, () -> 1);
+        assertEquals(1, first.next());
+        assertEquals(2, first.next());
+
+        // Simulates a crash: the rest of the first block is never used
+        ReservationIdSequence afterRestart = new ReservationIdSequence(tempDir, 10, () -> fail("should not rescan"));
+        assertEquals(11, afterRestart.next());
+    }
+
+    @Test
+    void shouldReseedWhenSidecarIsCorrupt() throws Exception {
+        Files.writeString(tempDir.resolve(ReservationIdSequence.FILE_NAME), "not-a-number");
+        ReservationIdSequence sequence = new ReservationIdSequence(tempDir, 10, () -> 42);
+
+        assertEquals(42, sequence.next());
+    }
+
+    @Test
+    void shouldAllocateContiguousBlocks() throws Exception {
+        ReservationIdSequence sequence = new ReservationIdSequence(tempDir, 4, () -> 1);
+        assertEquals(1, sequence.next());
+
+        int first = sequence.allocate(10);
+        assertEquals(5, first); // current block only had 3 left, so a new one was reserved
+        assertEquals(15, sequence.next());
+    }
+
+    @Test
+    void shouldSkipPastObservedIds() throws Exception {
+        ReservationIdSequence sequence = new ReservationIdSequence(tempDir, 10, () -> 1);
+        sequence.observe(5); // before the first block: raises the floor
+        assertEquals(6, sequence.next());
+
+        sequence.observe(3); // below what was handed out: nothing to do
+        assertEquals(7, sequence.next());
+
+        sequence.observe(9); // inside the current block
+        assertEquals(10, sequence.next());
+
+        sequence.observe(30); // past the block: a new one starts above it
+        assertEquals(31, sequence.next());
+        assertEquals(41, new ReservationIdSequence(tempDir, 10, () -> 1).next());
+    }
+
+    @Test
+    void shouldHandOutUniqueIdsAcrossWriters() throws Exception {
+        ReservationIdSequence a = new ReservationIdSequence(tempDir, 3, () -> 1);
+        ReservationIdSequence b = new ReservationIdSequence(tempDir, 3, () -> 1);
+        Set<Integer> seen = ConcurrentHashMap.newKeySet();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            ReservationIdSequence sequence = (t % 2 == 0) ? a : b;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50; i++) {
+                    try {
+                        assertTrue(seen.add(sequence.next()));
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) {
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(400, seen.size());
+    }
+}
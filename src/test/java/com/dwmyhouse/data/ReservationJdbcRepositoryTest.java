@@ -0,0 +1,171 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the ReservationRepositoryTest cases against the embedded SQL backend, seeded from the same CSV rows.
+ */
+public class ReservationJdbcRepositoryTest {
+
+    ReservationRepository csvRepository;
+    ReservationStorage repository;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        Path reservationDir = Files.createDirectories(tempDir.resolve("reservations"));
+        Files.copy(Path.of(getClass().getClassLoader().getResource("test-data/test-reservations/abc123.csv").toURI()),
+                reservationDir.resolve("abc123.csv"));
+        Files.write(reservationDir.resolve("hostB.csv"), List.of(
+                "id,start_date,end_date,guest_id,total",
+                "7,2030-06-01,2030-06-05,guest-4,500"));
+        Path hostFile = tempDir.resolve("hosts.csv");
+        Files.write(hostFile, List.of(
+                "host_id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate",
+                "abc123,Doe,doe@example.com,555-1234,123 Main St,Springfield,IL,62701,100.00,150.00",
+                "hostB,Smith,smith@example.com,555-5678,456 Oak Ave,Tampa,FL,33602,120.00,180.00"));
+        csvRepository = new ReservationRepository(reservationDir.toString());
+
+        JdbcDatabase database = new JdbcDatabase("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new CsvToJdbcImporter(database, new GuestRepository(tempDir.resolve("guests.csv").toString()),
+                new HostRepository(hostFile.toString()), csvRepository).importAll();
+        repository = new ReservationJdbcRepository(database);
+    }
+
+    @Test
+    void shouldMatchCsvRows() {
+        for (String hostId : List.of("abc123", "hostB")) {
+            List<Reservation> expected = csvRepository.findByHost(hostId);
+            List<Reservation> actual = repository.findByHost(hostId);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getId(), actual.get(i).getId());
+                assertEquals(expected.get(i).getStartDate(), actual.get(i).getStartDate());
+                assertEquals(expected.get(i).getEndDate(), actual.get(i).getEndDate());
+                assertEquals(expected.get(i).getGuestId(), actual.get(i).getGuestId());
+                assertEquals(hostId, actual.get(i).getHostId());
+                assertEquals(0, expected.get(i).getTotal().compareTo(actual.get(i).getTotal()));
+            }
+        }
+    }
+
+    @Test
+    void shouldReadValidReservations() {
+        List<Reservation> result = repository.findByHost("abc123");
+        assertEquals(2, result.size()); // the invalid CSV row is not imported
+        assertEquals("guest-1", result.get(0).getGuestId());
+    }
+
+    @Test
+    void shouldReturnEmptyListForUnknownHost() {
+        assertTrue(repository.findByHost("not-a-real-host").isEmpty());
+    }
+
+    @Test
+    void shouldAddWithNextGlobalId() {
+        Reservation r = new Reservation(0, LocalDate.of(2030, 7, 1), LocalDate.of(2030, 7, 3),
+                "guest-9", new BigDecimal("200"));
+
+        assertTrue(repository.add(r, "abc123"));
+        assertEquals(8, r.getId()); // past the highest imported ID
+        assertEquals(3, repository.findByHost("abc123").size());
+    }
+
+    @Test
+    void shouldUpdateReservation() {
+        Reservation existing = repository.findByHost("hostB").get(0);
+        existing.setEndDate(LocalDate.of(2030, 6, 8));
+
+        assertTrue(repository.update(existing, "hostB"));
+        assertEquals(LocalDate.of(2030, 6, 8), repository.findByHost("hostB").get(0).getEndDate());
+        assertFalse(repository.update(existing, "abc123")); // wrong host
+    }
+
+    @Test
+    void shouldRejectStaleVersion() {
+        Reservation first = repository.findByHost("hostB").get(0);
+        Reservation second = repository.findByHost("hostB").get(0);
+        assertEquals(1, first.getVersion());
+
+        assertTrue(repository.update(first, "hostB"));
+        assertEquals(2, first.getVersion());
+        assertEquals(2, repository.findByHost("hostB").get(0).getVersion());
+        assertFalse(repository.update(second, "hostB"));
+        assertFalse(repository.delete(second.getId(), "hostB", second.getVersion()));
+        assertTrue(repository.delete(first.getId(), "hostB", first.getVersion()));
+    }
+
+    @Test
+    void shouldDeleteReservation() {
+        assertTrue(repository.delete(1, "abc123"));
+        assertFalse(repository.delete(1, "abc123"));
+        assertEquals(1, repository.findByHost("abc123").size());
+    }
+
+    @Test
+    void shouldFindByHostBetween() {
+        assertEquals(1, repository.findByHostBetween("abc123", LocalDate.of(2025, 4, 23), LocalDate.of(2025, 4, 24)).size());
+        assertEquals(2, repository.findByHostBetween("abc123", LocalDate.of(2025, 4, 23), LocalDate.of(2025, 4, 25)).size());
+        assertTrue(repository.findByHostBetween("abc123", LocalDate.of(2025, 4, 29), LocalDate.of(2025, 5, 1)).isEmpty());
+    }
+
+    @Test
+    void shouldAddAllInOneTransaction() {
+        List<Reservation> batch = List.of(
+                new Reservation(0, LocalDate.of(2030, 8, 1), LocalDate.of(2030, 8, 2), "guest-1", new BigDecimal("100")),
+                new Reservation(0, LocalDate.of(2030, 8, 5), LocalDate.of(2030, 8, 6), "guest-2", new BigDecimal("100")));
+
+        assertTrue(repository.addAll(batch, "hostB"));
+        assertEquals(List.of(7, 8, 9), repository.findByHost("hostB").stream().map(Reservation::getId).toList());
+    }
+
+    @Test
+    void shouldApplyChangesInOneTransaction() {
+        Reservation added = new Reservation(0, LocalDate.of(2030, 8, 1), LocalDate.of(2030, 8, 2), "guest-1", new BigDecimal("100"));
+        Reservation stale = repository.findByHost("hostB").get(0);
+        stale.setVersion(5);
+
+        assertFalse(repository.applyChanges("hostB", List.of(added), List.of(stale), List.of()));
+        assertEquals(0, added.getId()); // nothing written back
+        assertEquals(List.of(7), repository.findByHost("hostB").stream().map(Reservation::getId).toList());
+        assertFalse(repository.applyChanges("hostB", List.of(added), List.of(), List.of(7, 42)));
+        assertEquals(1, repository.findByHost("hostB").size());
+
+        Reservation current = repository.findByHost("hostB").get(0);
+        current.setEndDate(LocalDate.of(2030, 6, 8));
+        assertTrue(repository.applyChanges("hostB", List.of(added), List.of(current), List.of()));
+        assertTrue(added.getId() > 7);
+        assertEquals(1, added.getVersion());
+        assertEquals(2, current.getVersion());
+        List<Reservation> rows = repository.findByHost("hostB");
+        assertEquals(List.of(7, added.getId()), rows.stream().map(Reservation::getId).toList());
+        assertEquals(LocalDate.of(2030, 6, 8), rows.get(0).getEndDate());
+    }
+
+    @Test
+    void shouldImportOnlyIntoEmptyDatabase(@TempDir Path tempDir) throws Exception {
+        JdbcDatabase database = new JdbcDatabase("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        HostRepository hosts = new HostRepository(tempDir.resolve("hosts.csv").toString());
+        hosts.add(new Host("H1", "Doe", "doe@example.com", "555", "1 Main", "Reno", "NV", "89501",
+                new BigDecimal("80"), new BigDecimal("95")));
+        CsvToJdbcImporter importer = new CsvToJdbcImporter(database,
+                new GuestRepository(tempDir.resolve("guests.csv").toString()), hosts,
+                new ReservationRepository(tempDir.toString()));
+
+        assertTrue(importer.importIfEmpty());
+        assertFalse(importer.importIfEmpty());
+        assertEquals(1, new HostJdbcRepository(database).findAll().size());
+    }
+}
@@ -0,0 +1,87 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationJsonRepositoryTest {
+
+    ReservationJsonRepository repository;
+    Path file;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) {
+        file = tempDir.resolve("reservations.json");
+        repository = new ReservationJsonRepository(file.toString());
+
+        repository.add(reservation("H001", "G001", 1));
+        repository.add(reservation("H002", "G001", 2));
+        repository.add(reservation("H001", "G002", 3));
+    }
+
+    @Test
+    void shouldFindByHostId() {
+        List<Reservation> result = repository.findByHostId("H001");
+        assertEquals(2, result.size());
+        assertEquals("G001", result.get(0).getGuestId());
+        assertEquals(LocalDate.of(2030, 1, 3), result.get(1).getStartDate());
+        assertEquals(new BigDecimal("300"), result.get(1).getTotal());
+    }
+
+    @Test
+    void shouldFindByGuestId() {
+        List<Reservation> result = repository.findByGuestId("G001");
+        assertEquals(2, result.size());
+        assertEquals("H002", result.get(1).getHostId());
+    }
+
+    @Test
+    void shouldReturnEmptyForUnknownIdsOrMissingFile() {
+        assertTrue(repository.findByHostId("nope").isEmpty());
+        assertTrue(new ReservationJsonRepository(file.resolveSibling("missing.json").toString())
+                .findByGuestId("G001").isEmpty());
+    }
+
+    @Test
+    void shouldMatchFieldRegardlessOfPosition() throws Exception {
+        Files.writeString(file, "[{\"hostId\":\"H009\",\"extra\":{\"a\":[1,2]},\"id\":6},"
+                + "{\"hostId\":\"H001\",\"id\":7,\"startDate\":\"2030-05-01\","
+                + "\"endDate\":\"2030-05-02\",\"guestId\":\"G009\",\"total\":100}]");
+        ReservationJsonRepository reordered = new ReservationJsonRepository(file.toString());
+
+        List<Reservation> result = reordered.findByHostId("H001");
+        assertEquals(1, result.size());
+        assertEquals(7, result.get(0).getId());
+        assertEquals("G009", result.get(0).getGuestId());
+    }
+
+    @Test
+    void shouldStreamLazily() {
+        try (Stream<Reservation> matches = repository.streamByHostId("H001")) {
+            Iterator<Reservation> it = matches.iterator();
+            assertTrue(it.hasNext());
+            assertEquals(1, it.next().getId());
+            assertTrue(it.hasNext());
+            assertEquals(3, it.next().getId());
+            assertFalse(it.hasNext());
+        }
+    }
+
+    private Reservation reservation(String hostId, String guestId, int day) {
+        Reservation r = new Reservation(0, LocalDate.of(2030, 1, day), LocalDate.of(2030, 1, day + 2),
+                guestId, new BigDecimal(day * 100));
+        r.setHostId(hostId);
+        return r;
+    }
+}
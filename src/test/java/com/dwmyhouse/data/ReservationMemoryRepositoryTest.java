@@ -0,0 +1,112 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationMemoryRepositoryTest {
+
+    ReservationMemoryRepository repository;
+
+    @BeforeEach
+    void setup() {
+        repository = new ReservationMemoryRepository();
+        repository.load(reservation(4, 1, 3), "H1");
+        repository.load(reservation(2, 10, 12), "H1");
+        repository.load(reservation(7, 5, 6), "H2");
+    }
+
+    @Test
+    void shouldKeepInsertionOrderAndContinueIds() {
+        Reservation added = reservation(0, 20, 22);
+        assertTrue(repository.add(added, "H1"));
+        assertEquals(8, added.getId());
+
+        List<Reservation> result = repository.findByHost("H1");
+        assertEquals(List.of(4, 2, 8), result.stream().map(Reservation::getId).toList());
+        assertEquals("H1", result.get(0).getHostId());
+    }
+
+    @Test
+    void shouldFindByHostBetweenInclusive() {
+        assertEquals(1, repository.findByHostBetween("H1", LocalDate.of(2030, 1, 3), LocalDate.of(2030, 1, 9)).size());
+        assertEquals(2, repository.findByHostBetween("H1", LocalDate.of(2030, 1, 3), LocalDate.of(2030, 1, 10)).size());
+        assertTrue(repository.findByHostBetween("H1", LocalDate.of(2030, 1, 4), LocalDate.of(2030, 1, 9)).isEmpty());
+        assertTrue(repository.findByHostBetween("nobody", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 2, 1)).isEmpty());
+    }
+
+    @Test
+    void shouldReindexOnUpdate() {
+        Reservation moved = reservation(4, 15, 16);
+        assertTrue(repository.update(moved, "H1"));
+        assertFalse(repository.update(moved, "H2"));
+
+        assertTrue(repository.findByHostBetween("H1", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3)).isEmpty());
+        assertEquals(4, repository.findByHostBetween("H1", LocalDate.of(2030, 1, 15), LocalDate.of(2030, 1, 15)).get(0).getId());
+        assertEquals(4, repository.findByHost("H1").get(0).getId()); // keeps its position
+    }
+
+    @Test
+    void shouldDelete() {
+        assertTrue(repository.delete(2, "H1"));
+        assertFalse(repository.delete(2, "H1"));
+        assertEquals(1, repository.findByHost("H1").size());
+    }
+
+    @Test
+    void shouldRejectStaleVersion() {
+        Reservation first = repository.findByHost("H1").get(0);
+        Reservation second = repository.findByHost("H1").get(0);
+        assertEquals(1, first.getVersion());
+
+        assertTrue(repository.update(first, "H1"));
+        assertEquals(2, first.getVersion());
+        assertFalse(repository.update(second, "H1"));
+        assertFalse(repository.delete(second.getId(), "H1", second.getVersion()));
+        assertTrue(repository.delete(first.getId(), "H1", first.getVersion()));
+    }
+
+    @Test
+    void shouldApplyAllChangesOrNone() {
+        Reservation added = reservation(0, 20, 22);
+        Reservation edited = repository.findByHost("H1").get(0);
+        edited.setEndDate(LocalDate.of(2030, 1, 4));
+        Reservation stale = repository.findByHost("H1").get(1);
+        stale.setVersion(9);
+        Object token = repository.changeToken("H1");
+
+        assertFalse(repository.applyChanges("H1", List.of(added), List.of(edited, stale), List.of()));
+        assertFalse(repository.applyChanges("H1", List.of(added), List.of(edited), List.of(99)));
+        assertEquals(0, added.getId());
+        assertEquals(token, repository.changeToken("H1"));
+        assertEquals(LocalDate.of(2030, 1, 3), repository.findByHost("H1").get(0).getEndDate());
+
+        assertTrue(repository.applyChanges("H1", List.of(added), List.of(edited), List.of(2)));
+        assertEquals(8, added.getId());
+        assertEquals(2, edited.getVersion());
+        assertEquals(List.of(4, 8), repository.findByHost("H1").stream().map(Reservation::getId).toList());
+    }
+
+    @Test
+    void shouldNotExposeStoredInstances() {
+        repository.findByHost("H2").get(0).setGuestId("changed");
+        assertEquals("guest-5", repository.findByHost("H2").get(0).getGuestId());
+    }
+
+    @Test
+    void shouldReportCapabilities() {
+        assertTrue(repository.supports(StorageCapability.RANGE_QUERIES));
+        assertTrue(repository.supports(StorageCapability.BATCH_WRITES));
+    }
+
+    private Reservation reservation(int id, int startDay, int endDay) {
+        return new Reservation(id, LocalDate.of(2030, 1, startDay), LocalDate.of(2030, 1, endDay),
+                "guest-" + startDay, new BigDecimal("100"));
+    }
+}
@@ -0,0 +1,213 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationRepositoryAppendOnlyTest {
+
+    ReservationRepository repository;
+    Path hostFile;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        hostFile = tempDir.resolve("host-1.csv");
+        // Legacy file written by the old code, without a trailing newline
+        Files.writeString(hostFile, "id,start_date,end_date,guest_id,total\n"
+                + "1,2030-01-01,2030-01-03,guest-1,200\n"
+                + "2,2030-02-01,2030-02-02,guest-2,100");
+
+        repository = new ReservationRepository(tempDir.toString(), true);
+    }
+
+    @Test
+    void shouldReadLegacyFile() {
+        List<Reservation> result = repository.findByHost("host-1");
+        assertEquals(2, result.size());
+        assertEquals("guest-2", result.get(1).getGuestId());
+    }
+
+    @Test
+    void shouldAppendOneLinePerAdd() throws Exception {
+        Reservation r = reservation(0, "guest-3");
+        assertTrue(repository.add(r, "host-1"));
+
+        List<String> lines = Files.readAllLines(hostFile);
+        assertEquals(4, lines.size());
+        assertEquals("2,2030-02-01,2030-02-02,guest-2,100", lines.get(2));
+        assertTrue(lines.get(3).endsWith(",2030-03-01,2030-03-04,guest-3,300,1"));
+        assertEquals(3, repository.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldNotReuseIdsWrittenByOtherTools() throws Exception {
+        Reservation first = reservation(0, "guest-3");
+        assertTrue(repository.add(first, "host-1"));
+        Files.writeString(hostFile, (first.getId() + 1) + ",2030-05-01,2030-05-02,guest-4,100\n",
+                StandardOpenOption.APPEND);
+
+        repository.findByHost("host-1");
+        Reservation second = reservation(0, "guest-5");
+        assertTrue(repository.add(second, "host-1"));
+        assertEquals(first.getId() + 2, second.getId());
+    }
+
+    @Test
+    void shouldFailAddWhenIdSequenceIsUnusable() throws Exception {
+        // A non-empty directory where the sidecar should be, so it can't be written
+        Path sidecar = hostFile.resolveSibling(ReservationIdSequence.FILE_NAME);
+        Files.createDirectories(sidecar);
+        Files.writeString(sidecar.resolve("blocker"), "x");
+        List<String> before = Files.readAllLines(hostFile);
+
+        assertFalse(repository.add(reservation(0, "guest-3"), "host-1"));
+        assertFalse(repository.addAll(List.of(reservation(0, "guest-4")), "host-1"));
+        assertEquals(before, Files.readAllLines(hostFile));
+    }
+
+    @Test
+    void shouldResolveLatestVersionOnUpdate() throws Exception {
+        Reservation updated = reservation(1, "guest-1");
+        assertTrue(repository.update(updated, "host-1"));
+
+        assertEquals(4, Files.readAllLines(hostFile).size());
+        List<Reservation> result = repository.findByHost("host-1");
+        assertEquals(2, result.size());
+        assertEquals(1, result.get(0).getId()); // keeps its original position
+        assertEquals(LocalDate.of(2030, 3, 1), result.get(0).getStartDate());
+    }
+
+    @Test
+    void shouldAppendTombstoneOnDelete() throws Exception {
+        assertTrue(repository.delete(1, "host-1"));
+
+        List<String> lines = Files.readAllLines(hostFile);
+        assertEquals("1,,,,", lines.get(lines.size() - 1));
+        List<Reservation> result = repository.findByHost("host-1");
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getId());
+    }
+
+    @Test
+    void shouldNotUpdateOrDeleteMissingReservation() {
+        assertFalse(repository.update(reservation(99, "guest-9"), "host-1"));
+        assertFalse(repository.delete(99, "host-1"));
+        assertFalse(repository.delete(1, "no-such-host"));
+    }
+
+    @Test
+    void shouldCompactDeadRows() throws Exception {
+        repository.update(reservation(1, "guest-1"), "host-1");
+        repository.delete(2, "host-1");
+
+        assertTrue(repository.compact("host-1"));
+
+        List<String> lines = Files.readAllLines(hostFile);
+        assertEquals(2, lines.size());
+        assertEquals("id,start_date,end_date,guest_id,total,version", lines.get(0));
+        assertEquals("1,2030-03-01,2030-03-04,guest-1,300,2", lines.get(1));
+    }
+
+    @Test
+    void shouldReadLegacyRowsAsVersionOne() {
+        assertTrue(repository.findByHost("host-1").stream().allMatch(r -> r.getVersion() == 1));
+    }
+
+    @Test
+    void shouldRejectUpdateAndDeleteWithStaleVersion() throws Exception {
+        Reservation first = reservation(1, "guest-1");
+        first.setVersion(1);
+        assertTrue(repository.update(first, "host-1"));
+        assertEquals(2, first.getVersion());
+
+        Reservation stale = reservation(1, "guest-1");
+        stale.setVersion(1);
+        int lines = Files.readAllLines(hostFile).size();
+        assertFalse(repository.update(stale, "host-1"));
+        assertEquals(1, stale.getVersion());
+        assertFalse(repository.delete(1, "host-1", 1));
+        assertEquals(lines, Files.readAllLines(hostFile).size());
+
+        assertTrue(repository.delete(1, "host-1", 2));
+        assertEquals(1, repository.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldCompactInBackgroundOnceThresholdIsCrossed() throws Exception {
+        repository.findByHost("host-1");
+        // 2 rows + 14 updates: the last update crosses the threshold, so no later append races the compactor
+        for (int i = 0; i < ReservationRepository.COMPACT_MIN_ROWS - 2; i++) {
+            assertTrue(repository.update(reservation(1, "guest-1"), "host-1"));
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (Files.readAllLines(hostFile).size() > 3 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertEquals(3, Files.readAllLines(hostFile).size());
+        assertEquals(2, repository.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldAddAllWithOneAppend() throws Exception {
+        List<Reservation> batch = List.of(reservation(0, "guest-3"), reservation(0, "guest-4"));
+        assertTrue(repository.addAll(batch, "host-1"));
+
+        assertEquals(batch.get(0).getId() + 1, batch.get(1).getId());
+        assertEquals(5, Files.readAllLines(hostFile).size());
+        assertEquals(4, repository.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldLeaveBatchUntouchedWhenAnyChangeFails() throws Exception {
+        Reservation added = reservation(0, "guest-3");
+        Reservation edited = reservation(1, "guest-1");
+        edited.setVersion(1);
+        int lines = Files.readAllLines(hostFile).size();
+
+        assertFalse(repository.applyChanges("host-1", List.of(added), List.of(edited), List.of(42)));
+        assertEquals(1, edited.getVersion());
+        assertEquals(0, added.getId());
+        assertEquals(lines, Files.readAllLines(hostFile).size());
+
+        assertTrue(repository.applyChanges("host-1", List.of(added), List.of(edited), List.of(2)));
+        assertEquals(2, edited.getVersion());
+        assertTrue(added.getId() > 2);
+        assertEquals(1, added.getVersion());
+        assertEquals(List.of(1, added.getId()), repository.findByHost("host-1").stream().map(Reservation::getId).toList());
+    }
+
+    @Test
+    void shouldNotBumpVersionsWhenAppendFails() {
+        ReservationRepository failing = new ReservationRepository(hostFile.getParent().toString(), true,
+                new DurableFileWriter(0) {
+                    @Override
+                    public void append(Path target, String content) throws IOException {
+                        throw new IOException("disk full");
+                    }
+                });
+        Reservation edited = reservation(1, "guest-1");
+        edited.setVersion(1);
+
+        assertFalse(failing.applyChanges("host-1", List.of(), List.of(edited), List.of()));
+        assertEquals(1, edited.getVersion());
+        assertEquals(1, failing.findByHost("host-1").get(0).getVersion());
+    }
+
+    private Reservation reservation(int id, String guestId) {
+        return new Reservation(id, LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 4),
+                guestId, new BigDecimal("300"));
+    }
+}
@@ -56,6 +56,12 @@ public class ReservationRepositoryTest {
         assertEquals("guest-3", r.getGuestId());
     }
 
+    @Test
+    void shouldDeserializeVersionColumn() {
+        assertEquals(7, repository.deserialize("4,2025-05-01,2025-05-04,guest-3,600.00,7", "host-xyz").getVersion());
+        assertEquals(1, repository.deserialize("4,2025-05-01,2025-05-04,guest-3,600.00", "host-xyz").getVersion());
+    }
+
     @Test
     void shouldReturnNullForInvalidLine() {
         String line = "invalid,data,line,here";
@@ -72,7 +78,7 @@ public class ReservationRepositoryTest {
                 new BigDecimal("720.00"));
 
         String line = repository.serialize(r);
-        assertEquals("5,2025-06-01,2025-06-04,guest-99,720.00", line);
+        assertEquals("5,2025-06-01,2025-06-04,guest-99,720.00,1", line);
     }
 
     @Test
@@ -0,0 +1,136 @@
+package com.dwmyhouse.data;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationSnapshotTest {
+
+    Path reservationDir;
+    Path snapshotFile;
+    ReservationRepository repository;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        reservationDir = tempDir.resolve("reservations");
+        Files.createDirectories(reservationDir);
+        snapshotFile = tempDir.resolve("reservations.snapshot");
+
+        Files.writeString(reservationDir.resolve("host-1.csv"), "id,start_date,end_date,guest_id,total\n"
+                + "1,2030-01-01,2030-01-03,guest-1,200\n"
+                + "2,2030-02-01,2030-02-02,guest-2,100.50\n");
+        Files.writeString(reservationDir.resolve("host-2.csv"), "id,start_date,end_date,guest_id,total\n"
+                + "1,2030-01-05,2030-01-06,guest-1,75.5\n");
+
+        repository = new ReservationRepository(reservationDir.toString());
+        assertEquals(3, new ReservationSnapshotBuilder(reservationDir, repository).build(snapshotFile));
+    }
+
+    @Test
+    void shouldFindByGuestId() throws Exception {
+        ReservationSnapshot snapshot = ReservationSnapshot.open(snapshotFile);
+        assertEquals(3, snapshot.rowCount());
+
+        List<Reservation> result = snapshot.findByGuestId("guest-1");
+        assertEquals(2, result.size());
+        assertEquals("host-1", result.get(0).getHostId());
+        assertEquals(LocalDate.of(2030, 1, 1), result.get(0).getStartDate());
+        assertEquals(new BigDecimal("200"), result.get(0).getTotal());
+        assertEquals("host-2", result.get(1).getHostId());
+        assertEquals(new BigDecimal("75.5"), result.get(1).getTotal());
+        assertTrue(snapshot.findByGuestId("nobody").isEmpty());
+    }
+
+    @Test
+    void shouldMatchCsvRows() throws Exception {
+        ReservationSnapshot snapshot = ReservationSnapshot.open(snapshotFile);
+        List<Reservation> fromSnapshot = snapshot.findByHostIds(Set.of("host-1"));
+        List<Reservation> fromCsv = repository.findByHost("host-1");
+
+        assertEquals(fromCsv.size(), fromSnapshot.size());
+        for (int i = 0; i < fromCsv.size(); i++) {
+            assertEquals(fromCsv.get(i).getId(), fromSnapshot.get(i).getId());
+            assertEquals(fromCsv.get(i).getGuestId(), fromSnapshot.get(i).getGuestId());
+            assertEquals(fromCsv.get(i).getEndDate(), fromSnapshot.get(i).getEndDate());
+            assertEquals(fromCsv.get(i).getTotal(), fromSnapshot.get(i).getTotal());
+        }
+    }
+
+    @Test
+    void shouldKeepVersions() throws Exception {
+        Reservation edited = repository.findByHost("host-1").get(1);
+        assertTrue(repository.update(edited, "host-1"));
+        assertTrue(repository.update(edited, "host-1"));
+        assertEquals(3, edited.getVersion());
+        new ReservationSnapshotBuilder(reservationDir, repository).build(snapshotFile);
+
+        ReservationSnapshot snapshot = ReservationSnapshot.open(snapshotFile);
+        assertEquals(3, snapshot.findByGuestId("guest-2").get(0).getVersion());
+        assertEquals(List.of(1, 1), snapshot.findByGuestId("guest-1").stream().map(Reservation::getVersion).toList());
+        List<Reservation> fromCsv = repository.findByHost("host-1");
+        List<Reservation> fromSnapshot = snapshot.findByHostIds(Set.of("host-1"));
+        for (int i = 0; i < fromCsv.size(); i++) {
+            assertEquals(fromCsv.get(i).getVersion(), fromSnapshot.get(i).getVersion());
+        }
+    }
+
+    @Test
+    void shouldDetectStaleSources() throws Exception {
+        ReservationSnapshot snapshot = ReservationSnapshot.open(snapshotFile);
+        assertFalse(snapshot.isStale(reservationDir));
+
+        Path hostFile = reservationDir.resolve("host-2.csv");
+        Files.setLastModifiedTime(hostFile, FileTime.fromMillis(Files.getLastModifiedTime(hostFile).toMillis() + 5000));
+        assertTrue(snapshot.isStale(reservationDir));
+    }
+
+    @Test
+    void shouldDetectNewHostFile() throws Exception {
+        ReservationSnapshot snapshot = ReservationSnapshot.open(snapshotFile);
+        Files.writeString(reservationDir.resolve("host-3.csv"), "id,start_date,end_date,guest_id,total\n");
+        assertTrue(snapshot.isStale(reservationDir));
+    }
+
+    @Test
+    void shouldRejectOtherVersions() throws Exception {
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        bytes[5] = 99; // low byte of the version
+        Files.write(snapshotFile, bytes);
+
+        assertThrows(IOException.class, () -> ReservationSnapshot.open(snapshotFile));
+    }
+
+    @Test
+    void storeShouldRebuildWhenStale() throws Exception {
+        ReservationSnapshotStore store = new ReservationSnapshotStore(snapshotFile.toString(),
+                reservationDir.toString(), repository);
+        assertEquals(1, store.current().findByGuestId("guest-2").size());
+
+        Reservation added = new Reservation(0, LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 2),
+                "guest-2", new BigDecimal("100"));
+        assertTrue(repository.add(added, "host-2"));
+        Path hostFile = reservationDir.resolve("host-2.csv");
+        Files.setLastModifiedTime(hostFile, FileTime.fromMillis(Files.getLastModifiedTime(hostFile).toMillis() + 5000));
+
+        assertEquals(2, store.current().findByGuestId("guest-2").size());
+    }
+
+    @Test
+    void disabledStoreShouldReturnNull() {
+        ReservationSnapshotStore store = new ReservationSnapshotStore("", reservationDir.toString(), repository);
+        assertFalse(store.isEnabled());
+        assertNull(store.current());
+    }
+}
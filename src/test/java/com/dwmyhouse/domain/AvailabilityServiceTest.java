@@ -0,0 +1,77 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.ReservationMemoryRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AvailabilityServiceTest {
+
+    ReservationMemoryRepository repository;
+    ReservationService reservationService;
+    AvailabilityService service;
+    Host host;
+    LocalDate start;
+
+    @BeforeEach
+    void setup() {
+        repository = new ReservationMemoryRepository();
+        reservationService = new ReservationService(repository);
+        service = new AvailabilityService(reservationService, 365);
+        host = new Host();
+        host.setId("host-1");
+        host.setStandardRate(new BigDecimal("100"));
+        host.setWeekendsRate(new BigDecimal("150"));
+        start = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    void shouldFollowMakeEditAndCancel() {
+        assertTrue(service.isAvailable("host-1", start, start.plusDays(2)));
+
+        Reservation r = new Reservation(0, start, start.plusDays(2), "guest-1", null);
+        assertTrue(reservationService.makeReservation(r, host));
+        assertFalse(service.isAvailable("host-1", start.plusDays(2), start.plusDays(3)));
+
+        Reservation moved = new Reservation(r.getId(), start.plusDays(20), start.plusDays(22), "guest-1", null);
+        assertTrue(reservationService.editReservation(moved, host));
+        assertTrue(service.isAvailable("host-1", start, start.plusDays(2)));
+        assertFalse(service.isAvailable("host-1", start.plusDays(21), start.plusDays(21)));
+
+        assertTrue(reservationService.cancelReservation(r.getId(), "host-1"));
+        assertTrue(service.isAvailable("host-1", start.plusDays(20), start.plusDays(22)));
+    }
+
+    @Test
+    void shouldSeeChangesMadeDirectlyInStorage() {
+        assertTrue(service.isAvailable("host-1", start, start.plusDays(2)));
+        repository.add(new Reservation(0, start, start.plusDays(2), "guest-1", null), "host-1");
+        assertFalse(service.isAvailable("host-1", start, start.plusDays(2)));
+    }
+
+    @Test
+    void shouldFindNextFreeWindow() {
+        repository.add(new Reservation(0, start, start.plusDays(3), "guest-1", null), "host-1");
+        repository.add(new Reservation(0, start.plusDays(6), start.plusDays(9), "guest-2", null), "host-1");
+
+        // A 1-night stay fits in the 2-day gap, a 2-night stay does not
+        assertEquals(start.plusDays(4), service.nextFreeWindow("host-1", start, 1));
+        assertEquals(start.plusDays(10), service.nextFreeWindow("host-1", start, 2));
+        assertEquals(LocalDate.now().plusDays(1), service.nextFreeWindow("host-1", LocalDate.now().minusDays(5), 2));
+    }
+
+    @Test
+    void shouldFallBackPastHorizon() {
+        LocalDate far = LocalDate.now().plusDays(1000);
+        repository.add(new Reservation(0, far, far.plusDays(3), "guest-1", null), "host-1");
+
+        assertFalse(service.isAvailable("host-1", far.plusDays(1), far.plusDays(2)));
+        assertEquals(0.5, service.occupancyRatio("host-1", far, far.plusDays(7)), 1e-9);
+    }
+}
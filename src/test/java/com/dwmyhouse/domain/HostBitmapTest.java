@@ -0,0 +1,84 @@
+package com.dwmyhouse.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostBitmapTest {
+
+    @Test
+    void shouldAddAndRemoveAcrossRepresentations() {
+        HostBitmap bitmap = new HostBitmap();
+        // 10000 values in one group forces the switch from array to bitmap and back
+        for (int i = 0; i < 10000; i++) {
+            bitmap.add(i * 3);
+        }
+        assertEquals(10000, bitmap.cardinality());
+        assertTrue(bitmap.contains(2997));
+        assertFalse(bitmap.contains(2998));
+
+        for (int i = 0; i < 9000; i++) {
+            bitmap.remove(i * 3);
+        }
+        assertEquals(1000, bitmap.cardinality());
+        assertFalse(bitmap.contains(0));
+        assertTrue(bitmap.contains(27000));
+        assertEquals(27000, bitmap.toArray()[0]);
+    }
+
+    @Test
+    void shouldMatchTreeSetForSetOperations() {
+        Random random = new Random(7);
+        List<HostBitmap> bitmaps = new ArrayList<>();
+        List<TreeSet<Integer>> sets = new ArrayList<>();
+        for (int b = 0; b < 6; b++) {
+            HostBitmap bitmap = new HostBitmap();
+            TreeSet<Integer> set = new TreeSet<>();
+            // Mix of sparse and dense groups over three 65536-value groups
+            int count = b % 2 == 0 ? 500 : 30000;
+            for (int i = 0; i < count; i++) {
+                int v = random.nextInt(200_000);
+                bitmap.add(v);
+                set.add(v);
+            }
+            bitmaps.add(bitmap);
+            sets.add(set);
+        }
+
+        TreeSet<Integer> union = new TreeSet<>();
+        sets.forEach(union::addAll);
+        assertArrayEquals(toArray(union), HostBitmap.or(bitmaps).toArray());
+
+        for (int i = 0; i < 5; i++) {
+            TreeSet<Integer> and = new TreeSet<>(sets.get(i));
+            and.retainAll(sets.get(i + 1));
+            assertArrayEquals(toArray(and), bitmaps.get(i).and(bitmaps.get(i + 1)).toArray());
+
+            TreeSet<Integer> andNot = new TreeSet<>(sets.get(i));
+            andNot.removeAll(sets.get(i + 1));
+            assertArrayEquals(toArray(andNot), bitmaps.get(i).andNot(bitmaps.get(i + 1)).toArray());
+        }
+    }
+
+    @Test
+    void shouldHandleEmptyBitmaps() {
+        HostBitmap empty = new HostBitmap();
+        HostBitmap one = new HostBitmap();
+        one.add(5);
+
+        assertTrue(empty.isEmpty());
+        assertTrue(HostBitmap.or(List.of()).isEmpty());
+        assertArrayEquals(new int[]{5}, one.andNot(empty).toArray());
+        assertTrue(one.andNot(one).isEmpty());
+        assertTrue(one.and(empty).isEmpty());
+    }
+
+    private static int[] toArray(TreeSet<Integer> set) {
+        return set.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,148 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.ReservationRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Rough timing of host search at scale: first the date-to-hosts bitmaps alone, then HostSearchService
+ * over real hosts.csv and per-host reservation files in a temp folder (including the change token checks).
+ * Not a unit test; run the main method by hand. Defaults: 100000 hosts, 730 days, 20 states.
+ */
+public class HostSearchBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int hosts = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 730;
+        int states = 20;
+        benchmarkBitmaps(hosts, days, states);
+        benchmarkService(hosts, days, states);
+    }
+
+    private static void benchmarkBitmaps(int hosts, int days, int states) {
+        Random random = new Random(3);
+
+        long t0 = System.nanoTime();
+        HostBitmap[] byDay = new HostBitmap[days];
+        for (int d = 0; d < days; d++) {
+            byDay[d] = new HostBitmap();
+        }
+        HostBitmap[] byState = new HostBitmap[states];
+        for (int s = 0; s < states; s++) {
+            byState[s] = new HostBitmap();
+        }
+        // Each host is booked about half the time, in stays of 1-7 days
+        for (int h = 0; h < hosts; h++) {
+            byState[random.nextInt(states)].add(h);
+            int d = random.nextInt(7);
+            while (d < days) {
+                int end = Math.min(days - 1, d + 1 + random.nextInt(7));
+                for (int i = d; i <= end; i++) {
+                    byDay[i].add(h);
+                }
+                d = end + 2 + random.nextInt(8);
+            }
+        }
+        long t1 = System.nanoTime();
+        System.out.printf("hosts=%d days=%d build=%dms%n", hosts, days, (t1 - t0) / 1_000_000);
+
+        for (int nights : new int[]{1, 3, 7, 14}) {
+            int queries = 200;
+            int found = 0;
+            long q0 = System.nanoTime();
+            for (int q = 0; q < queries; q++) {
+                int from = random.nextInt(days - nights);
+                List<HostBitmap> range = new ArrayList<>(Arrays.asList(byDay).subList(from, from + nights + 1));
+                found += byState[q % states].andNot(HostBitmap.or(range)).cardinality();
+            }
+            long q1 = System.nanoTime();
+            System.out.printf("nights=%d avg=%.2fms free hosts/query=%d%n",
+                    nights, (q1 - q0) / 1e6 / queries, found / queries);
+        }
+    }
+
+    /**
+     * Times searches through the service, with the default token re-check interval and with a check on every search
+     */
+    private static void benchmarkService(int hosts, int days, int states) throws IOException {
+        Path dir = Files.createTempDirectory("host-search-benchmark");
+        try {
+            long t0 = System.nanoTime();
+            Path hostsFile = writeFiles(dir, hosts, days, states);
+            long t1 = System.nanoTime();
+            System.out.printf("service: wrote %d host files in %dms%n", hosts, (t1 - t0) / 1_000_000);
+
+            HostService hostService = new HostService(new HostRepository(hostsFile.toString()));
+            ReservationService reservationService = new ReservationService(
+                    new ReservationRepository(dir.resolve("reservations").toString()));
+            LocalDate today = LocalDate.now();
+            Random random = new Random(5);
+            for (long recheckMillis : new long[]{2000, 0}) {
+                HostSearchService search = new HostSearchService(hostService, reservationService, days, recheckMillis);
+                long b0 = System.nanoTime();
+                search.findAvailableHosts(null, today, today.plusDays(1));
+                long b1 = System.nanoTime();
+                System.out.printf("service recheck=%dms build=%dms%n", recheckMillis, (b1 - b0) / 1_000_000);
+
+                for (String state : new String[]{"S0", null}) {
+                    int queries = 50;
+                    int found = 0;
+                    long q0 = System.nanoTime();
+                    for (int q = 0; q < queries; q++) {
+                        LocalDate from = today.plusDays(random.nextInt(days - 8));
+                        found += search.findAvailableHosts(state, from, from.plusDays(3)).size();
+                    }
+                    long q1 = System.nanoTime();
+                    System.out.printf("service recheck=%dms state=%s avg=%.2fms free hosts/query=%d%n",
+                            recheckMillis, state == null ? "all" : state, (q1 - q0) / 1e6 / queries, found / queries);
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(dir)) {
+                for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(p);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes hosts.csv and one reservation file per host, booked about half the time in stays of 1-7 days
+     * @return the hosts file
+     */
+    private static Path writeFiles(Path dir, int hosts, int days, int states) throws IOException {
+        Random random = new Random(3);
+        Path reservations = Files.createDirectories(dir.resolve("reservations"));
+        LocalDate today = LocalDate.now();
+        List<String> hostLines = new ArrayList<>(hosts + 1);
+        hostLines.add("host_id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate");
+        int id = 1;
+        for (int h = 0; h < hosts; h++) {
+            String hostId = "host-" + h;
+            hostLines.add(hostId + ",Host,host" + h + "@example.com,555-0000,1 Main St,Town,S"
+                    + random.nextInt(states) + ",00000,100.00,150.00");
+            List<String> rows = new ArrayList<>();
+            rows.add("id,start_date,end_date,guest_id,total");
+            int d = random.nextInt(7);
+            while (d < days) {
+                int end = Math.min(days - 1, d + 1 + random.nextInt(7));
+                rows.add(id++ + "," + today.plusDays(d) + "," + today.plusDays(end) + ",guest-" + h + ",100");
+                d = end + 2 + random.nextInt(8);
+            }
+            Files.write(reservations.resolve(hostId + ".csv"), rows);
+        }
+        Path hostsFile = dir.resolve("hosts.csv");
+        Files.write(hostsFile, hostLines);
+        return hostsFile;
+    }
+}
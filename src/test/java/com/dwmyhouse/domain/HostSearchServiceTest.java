@@ -0,0 +1,131 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.HostMemoryRepository;
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.ReservationMemoryRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HostSearchServiceTest {
+
+    HostService hostService;
+    ReservationService reservationService;
+    ReservationMemoryRepository reservations;
+    HostSearchService service;
+    LocalDate start;
+
+    @BeforeEach
+    void setup() {
+        hostService = new HostService(new HostMemoryRepository(List.of(
+                host("h1", "TX"), host("h2", "TX"), host("h3", "NY"))));
+        reservations = new ReservationMemoryRepository();
+        reservationService = new ReservationService(reservations);
+        service = new HostSearchService(hostService, reservationService, 365);
+        start = LocalDate.now().plusDays(10);
+        reservations.add(new Reservation(0, start, start.plusDays(3), "guest-1", null), "h1");
+    }
+
+    @Test
+    void shouldFindFreeHostsInState() {
+        assertEquals(List.of("h2"), ids(service.findAvailableHosts("tx", start.plusDays(3), start.plusDays(5))));
+        assertEquals(List.of("h1", "h2"), ids(service.findAvailableHosts("TX", start.plusDays(4), start.plusDays(5))));
+        assertEquals(List.of("h2", "h3"), ids(service.findAvailableHosts(null, start, start.plusDays(1))));
+        assertTrue(service.findAvailableHosts("CA", start, start.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void shouldFollowReservationChanges() {
+        assertEquals(List.of("h2"), ids(service.findAvailableHosts("TX", start, start.plusDays(1))));
+
+        Reservation r = new Reservation(0, start.plusDays(20), start.plusDays(22), "guest-2", null);
+        assertTrue(reservationService.makeReservation(r, hostService.getHostById("h2")));
+        assertEquals(List.of("h1"), ids(service.findAvailableHosts("TX", start.plusDays(21), start.plusDays(21))));
+
+        assertTrue(reservationService.cancelReservation(r.getId(), "h2"));
+        assertEquals(List.of("h1", "h2"), ids(service.findAvailableHosts("TX", start.plusDays(21), start.plusDays(21))));
+    }
+
+    @Test
+    void shouldFollowHostChanges() {
+        assertEquals(List.of("h3"), ids(service.findAvailableHosts("NY", start, start.plusDays(1))));
+        assertTrue(hostService.addHost(host("h4", "NY")));
+        assertEquals(2, service.findAvailableHosts("NY", start, start.plusDays(1)).size());
+    }
+
+    @Test
+    void shouldSeeReservationsAddedOutsideTheService() {
+        HostSearchService eager = new HostSearchService(hostService, reservationService, 365, 0);
+        assertEquals(List.of("h1", "h2"), ids(eager.findAvailableHosts("TX", start.plusDays(30), start.plusDays(31))));
+
+        // Written straight to storage: no listener call, only the change token moves
+        reservations.add(new Reservation(0, start.plusDays(30), start.plusDays(32), "guest-2", null), "h2");
+        assertEquals(List.of("h1"), ids(eager.findAvailableHosts("TX", start.plusDays(30), start.plusDays(31))));
+    }
+
+    @Test
+    void shouldCheckChangeTokensAtMostOncePerInterval() {
+        AtomicInteger tokenReads = new AtomicInteger();
+        ReservationMemoryRepository counting = new ReservationMemoryRepository() {
+            @Override
+            public synchronized Object changeToken(String hostId) {
+                tokenReads.incrementAndGet();
+                return super.changeToken(hostId);
+            }
+        };
+        HostSearchService search = new HostSearchService(hostService, new ReservationService(counting), 365, 60_000);
+        search.findAvailableHosts(null, start, start.plusDays(1));
+        assertEquals(3, tokenReads.get()); // read once per host while building
+
+        for (int i = 0; i < 10; i++) {
+            search.findAvailableHosts(null, start, start.plusDays(1));
+        }
+        assertEquals(3, tokenReads.get());
+    }
+
+    @Test
+    void shouldSeeHostsFileEditedOnDisk(@TempDir Path tempDir) throws Exception {
+        Path hostsFile = tempDir.resolve("hosts.csv");
+        String header = "host_id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate\n";
+        Files.writeString(hostsFile, header + "h1,Doe,h1@host.com,555-1234,1 Main St,Town,TX,00000,100.00,150.00\n");
+        HostService csvHosts = new HostService(new HostRepository(hostsFile.toString()));
+        HostSearchService search = new HostSearchService(csvHosts, reservationService, 365);
+        assertEquals(List.of("h1"), ids(search.findAvailableHosts("tx", start.plusDays(4), start.plusDays(5))));
+
+        Files.writeString(hostsFile, "h9,Roe,h9@host.com,555-1234,2 Main St,Town,TX,00000,100.00,150.00\n",
+                StandardOpenOption.APPEND);
+        Files.setLastModifiedTime(hostsFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertEquals(List.of("h1", "h9"), ids(search.findAvailableHosts("tx", start.plusDays(4), start.plusDays(5))));
+    }
+
+    @Test
+    void shouldCheckDatesPastHorizon() {
+        LocalDate far = LocalDate.now().plusDays(400);
+        reservations.add(new Reservation(0, far, far.plusDays(3), "guest-1", null), "h3");
+
+        assertTrue(service.findAvailableHosts("NY", far.minusDays(5), far.plusDays(1)).isEmpty());
+        assertEquals(1, service.findAvailableHosts("NY", far.plusDays(4), far.plusDays(6)).size());
+    }
+
+    private static Host host(String id, String state) {
+        return new Host(id, "Last", id + "@host.com", "(555) 5555555", "1 Main St", "Town", state, "00000",
+                new BigDecimal("100"), new BigDecimal("150"));
+    }
+
+    private static List<String> ids(List<Host> hosts) {
+        return hosts.stream().map(Host::getId).toList();
+    }
+}
@@ -0,0 +1,60 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OccupancyCalendarTest {
+
+    static final LocalDate ORIGIN = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void shouldBookBothEndsOfAReservation() {
+        OccupancyCalendar calendar = OccupancyCalendar.of(ORIGIN, 365, List.of(
+                new Reservation(1, ORIGIN.plusDays(10), ORIGIN.plusDays(12), "guest-1", null)));
+
+        assertFalse(calendar.isFree(ORIGIN.plusDays(12), ORIGIN.plusDays(14)));
+        assertFalse(calendar.isFree(ORIGIN.plusDays(5), ORIGIN.plusDays(10)));
+        assertTrue(calendar.isFree(ORIGIN.plusDays(13), ORIGIN.plusDays(20)));
+        assertTrue(calendar.isFree(ORIGIN, ORIGIN.plusDays(9)));
+    }
+
+    @Test
+    void shouldFindNextFreeWindowAcrossWords() {
+        // Booked solid for the first 200 days except a 3-day gap at day 100
+        OccupancyCalendar calendar = new OccupancyCalendar(ORIGIN, 365);
+        calendar.occupy(ORIGIN, ORIGIN.plusDays(199));
+        calendar.release(ORIGIN.plusDays(100), ORIGIN.plusDays(102));
+
+        assertEquals(ORIGIN.plusDays(100), calendar.nextFreeWindow(ORIGIN, 3));
+        assertEquals(ORIGIN.plusDays(200), calendar.nextFreeWindow(ORIGIN, 4));
+        assertEquals(ORIGIN.plusDays(101), calendar.nextFreeWindow(ORIGIN.plusDays(101), 2));
+        assertNull(calendar.nextFreeWindow(ORIGIN, 166));
+        assertEquals(ORIGIN.plusDays(200), calendar.nextFreeWindow(ORIGIN, 165));
+    }
+
+    @Test
+    void shouldComputeOccupancyRatio() {
+        OccupancyCalendar calendar = OccupancyCalendar.of(ORIGIN, 100, List.of(
+                new Reservation(1, ORIGIN, ORIGIN.plusDays(4), "guest-1", null)));
+
+        assertEquals(0.5, calendar.occupancyRatio(ORIGIN, ORIGIN.plusDays(9)), 1e-9);
+        assertEquals(0.0, calendar.occupancyRatio(ORIGIN.plusDays(50), ORIGIN.plusDays(99)), 1e-9);
+    }
+
+    @Test
+    void shouldIgnoreDaysOutsideHorizon() {
+        OccupancyCalendar calendar = OccupancyCalendar.of(ORIGIN, 10, List.of(
+                new Reservation(1, ORIGIN.minusDays(5), ORIGIN.plusDays(1), "guest-1", null),
+                new Reservation(2, ORIGIN.plusDays(8), ORIGIN.plusDays(30), "guest-2", null)));
+
+        assertTrue(calendar.covers(ORIGIN, ORIGIN.plusDays(9)));
+        assertFalse(calendar.covers(ORIGIN, ORIGIN.plusDays(10)));
+        assertEquals(ORIGIN.plusDays(2), calendar.nextFreeWindow(ORIGIN, 6));
+        assertNull(calendar.nextFreeWindow(ORIGIN, 7));
+    }
+}
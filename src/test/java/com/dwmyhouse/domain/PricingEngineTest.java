@@ -0,0 +1,108 @@
+package com.dwmyhouse.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PricingEngineTest {
+
+    static final String[] RATES = {"100", "150", "99.99", "120.5", "0", "75.125", "1E+2", "250.00", "0.01"};
+
+    @Test
+    void shouldMatchNightByNightLoop() {
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; i++) {
+            LocalDate start = LocalDate.of(2020, 1, 1).plusDays(random.nextInt(3000));
+            LocalDate end = start.plusDays(random.nextInt(400) - 5);
+            BigDecimal standard = new BigDecimal(RATES[random.nextInt(RATES.length)]);
+            BigDecimal weekend = new BigDecimal(RATES[random.nextInt(RATES.length)]);
+
+            BigDecimal expected = loopTotal(start, end, standard, weekend);
+            BigDecimal actual = PricingEngine.total(start, end, standard, weekend);
+            // equals, not compareTo: the scale must match too
+            assertEquals(expected, actual, start + " to " + end + " at " + standard + "/" + weekend);
+        }
+    }
+
+    @Test
+    void shouldCountWeekendNights() {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        assertEquals(0, PricingEngine.weekendNights(monday, 4));
+        assertEquals(1, PricingEngine.weekendNights(monday, 5));
+        assertEquals(2, PricingEngine.weekendNights(monday, 7));
+        assertEquals(1, PricingEngine.weekendNights(monday.plusDays(5), 2)); // Saturday and Sunday nights
+        assertEquals(2, PricingEngine.weekendNights(monday.plusDays(3), 3)); // Thursday to Saturday
+    }
+
+    @Test
+    void shouldNotReadUnusedRate() {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        assertEquals(new BigDecimal("300"), PricingEngine.total(monday, monday.plusDays(3), new BigDecimal("100"), null));
+        assertEquals(BigDecimal.ZERO, PricingEngine.total(monday, monday, null, null));
+    }
+
+    @Test
+    void shouldFallBackOnOverflow() {
+        LocalDate monday = LocalDate.of(2030, 1, 7);
+        BigDecimal huge = new BigDecimal("92233720368547758.07");
+        assertEquals(loopTotal(monday, monday.plusDays(10), huge, huge),
+                PricingEngine.total(monday, monday.plusDays(10), huge, huge));
+    }
+
+    @Test
+    void shouldPriceFromRateTable() {
+        Random random = new Random(5);
+        LocalDate origin = LocalDate.of(2030, 1, 1);
+        List<BigDecimal> nightly = new ArrayList<>();
+        for (int i = 0; i < 365; i++) {
+            nightly.add(new BigDecimal(RATES[random.nextInt(RATES.length)]));
+        }
+        RateTable table = RateTable.of(origin, nightly);
+        for (int i = 0; i < 1000; i++) {
+            LocalDate start = origin.plusDays(random.nextInt(300));
+            LocalDate end = start.plusDays(random.nextInt(60));
+            BigDecimal expected = BigDecimal.ZERO;
+            for (LocalDate d = start; d.isBefore(end); d = d.plusDays(1)) {
+                expected = expected.add(nightly.get((int) (d.toEpochDay() - origin.toEpochDay())));
+            }
+            assertEquals(0, expected.compareTo(table.total(start, end)));
+        }
+        assertTrue(table.covers(origin, origin.plusDays(365)));
+        assertFalse(table.covers(origin, origin.plusDays(366)));
+        assertFalse(table.covers(origin.minusDays(1), origin.plusDays(2)));
+    }
+
+    @Test
+    void shouldBuildWeeklyTable() {
+        LocalDate origin = LocalDate.of(2030, 1, 1);
+        BigDecimal standard = new BigDecimal("100");
+        BigDecimal weekend = new BigDecimal("150");
+        RateTable table = RateTable.weekly(origin, 100, standard, weekend);
+        for (int s = 0; s < 80; s++) {
+            LocalDate start = origin.plusDays(s);
+            LocalDate end = start.plusDays(s % 19);
+            assertEquals(PricingEngine.total(start, end, standard, weekend), table.total(start, end));
+        }
+    }
+
+    /**
+     * The day-by-day loop ReservationService used before PricingEngine
+     */
+    private static BigDecimal loopTotal(LocalDate start, LocalDate end, BigDecimal standard, BigDecimal weekend) {
+        BigDecimal total = BigDecimal.ZERO;
+        LocalDate date = start;
+        while (!date.isAfter(end.minusDays(1))) {
+            DayOfWeek day = date.getDayOfWeek();
+            total = total.add(day == DayOfWeek.FRIDAY || day == DayOfWeek.SATURDAY ? weekend : standard);
+            date = date.plusDays(1);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,91 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Host;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuoteServiceTest {
+
+    QuoteService service;
+    Host host;
+    LocalDate today;
+
+    @BeforeEach
+    void setup() {
+        service = new QuoteService(365);
+        host = host("host-1", "100", "150.50");
+        today = LocalDate.now();
+    }
+
+    @Test
+    void shouldMatchPricingEngineInsideAndOutsideHorizon() {
+        Random random = new Random(9);
+        List<StayRange> ranges = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            LocalDate start = today.plusDays(random.nextInt(500) - 50);
+            ranges.add(new StayRange(start, start.plusDays(random.nextInt(30))));
+        }
+
+        List<BigDecimal> totals = service.quote(host, ranges);
+        for (int i = 0; i < ranges.size(); i++) {
+            StayRange r = ranges.get(i);
+            assertEquals(PricingEngine.total(r.start(), r.end(), host.getStandardRate(), host.getWeekendsRate()),
+                    totals.get(i), r.toString());
+        }
+    }
+
+    @Test
+    void shouldBuildPriceCalendar() {
+        Map<LocalDate, BigDecimal> calendar = service.priceCalendar(host, today, 14);
+        assertEquals(14, calendar.size());
+        for (Map.Entry<LocalDate, BigDecimal> e : calendar.entrySet()) {
+            int day = e.getKey().getDayOfWeek().getValue();
+            assertEquals(day == 5 || day == 6 ? new BigDecimal("150.50") : new BigDecimal("100"), e.getValue());
+        }
+    }
+
+    @Test
+    void shouldPickUpRateChanges() {
+        StayRange week = new StayRange(today.plusDays(7), today.plusDays(14));
+        assertEquals(new BigDecimal("801.00"), service.quote(host, List.of(week)).get(0));
+
+        host.setStandardRate(new BigDecimal("200"));
+        assertEquals(new BigDecimal("1301.00"), service.quote(host, List.of(week)).get(0));
+    }
+
+    @Test
+    void shouldQuoteManyHosts() {
+        List<Host> hosts = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            hosts.add(host("host-" + i, String.valueOf(50 + i), String.valueOf(80 + i)));
+        }
+        service.quote(hosts.get(3), List.of()); // one cached table, the rest use the closed form
+        LocalDate start = today.plusDays(3);
+        LocalDate end = start.plusDays(10);
+
+        Map<String, BigDecimal> totals = service.quoteHosts(hosts, start, end);
+        assertEquals(500, totals.size());
+        assertEquals("host-0", totals.keySet().iterator().next());
+        for (Host h : hosts) {
+            assertEquals(PricingEngine.total(start, end, h.getStandardRate(), h.getWeekendsRate()),
+                    totals.get(h.getId()));
+        }
+    }
+
+    private static Host host(String id, String standard, String weekend) {
+        Host h = new Host();
+        h.setId(id);
+        h.setStandardRate(new BigDecimal(standard));
+        h.setWeekendsRate(new BigDecimal(weekend));
+        return h;
+    }
+}
@@ -0,0 +1,111 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.DurableFileWriter;
+import com.dwmyhouse.data.HostMemoryRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationImportServiceTest {
+
+    DurableFileWriter writer;
+    ReservationRepository repository;
+    ReservationImportService service;
+    Path tempDir;
+    LocalDate start;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        this.tempDir = tempDir;
+        start = LocalDate.now().plusDays(30);
+        Files.writeString(tempDir.resolve("host-1.csv"), "id,start_date,end_date,guest_id,total\n"
+                + "1," + start + "," + start.plusDays(2) + ",guest-1,200\n");
+        writer = new DurableFileWriter(0);
+        repository = new ReservationRepository(tempDir.toString(), false, writer);
+        HostService hostService = new HostService(new HostMemoryRepository(List.of(host("host-1"), host("host-2"))));
+        service = new ReservationImportService(hostService, new ReservationService(repository));
+    }
+
+    @Test
+    void shouldReportEachRow() {
+        List<BookingResult> results = service.importReservations(Stream.of(
+                request("host-1", "guest-2", 1, 3),     // overlaps the existing reservation
+                request("host-2", "guest-2", 0, 3),
+                request("host-1", "guest-3", 5, 8),
+                request("host-2", "guest-3", 3, 5),     // overlaps row 2 (shares day 3)
+                request("host-9", "guest-4", 0, 1),     // unknown host
+                request("host-1", "guest-4", 9, 9),     // empty stay
+                request("host-2", "guest-5", 6, 7)));
+
+        assertEquals(7, results.size());
+        assertEquals(List.of(false, true, true, false, false, false, true),
+                results.stream().map(BookingResult::accepted).toList());
+        assertEquals("Overlaps an existing reservation.", results.get(0).error());
+        assertEquals("Overlaps another reservation in this batch.", results.get(3).error());
+        assertEquals("Host not found.", results.get(4).error());
+        assertEquals(7, results.get(6).row());
+        assertNotNull(results.get(2).reservation().getTotal());
+
+        assertEquals(2, repository.findByHost("host-1").size());
+        assertEquals(2, repository.findByHost("host-2").size());
+    }
+
+    @Test
+    void shouldWriteEachHostFileOnce() {
+        List<BookingRequest> rows = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            rows.add(request(i % 2 == 0 ? "host-1" : "host-2", "guest-" + i, 10 + i * 4, 12 + i * 4));
+        }
+        long commitsBefore = writer.getCommitCount();
+
+        List<BookingResult> results = service.importReservations(rows.stream());
+
+        assertTrue(results.stream().allMatch(BookingResult::accepted));
+        assertEquals(2, writer.getCommitCount() - commitsBefore);
+        // IDs come from one block per host
+        List<Integer> hostOneIds = results.stream().filter(r -> r.request().hostId().equals("host-1"))
+                .map(r -> r.reservation().getId()).toList();
+        for (int i = 1; i < hostOneIds.size(); i++) {
+            assertEquals(hostOneIds.get(i - 1) + 1, hostOneIds.get(i));
+        }
+        assertEquals(26, repository.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldKeepEarliestStartWhenRowsConflict() {
+        List<BookingResult> results = service.importReservations(Stream.of(
+                request("host-2", "guest-1", 10, 14),
+                request("host-2", "guest-2", 8, 10)));
+
+        assertFalse(results.get(0).accepted());
+        assertTrue(results.get(1).accepted());
+        List<Reservation> stored = repository.findByHost("host-2");
+        assertEquals(1, stored.size());
+        assertEquals("guest-2", stored.get(0).getGuestId());
+    }
+
+    private BookingRequest request(String hostId, String guestId, int from, int to) {
+        return new BookingRequest(hostId, guestId, start.plusDays(from), start.plusDays(to));
+    }
+
+    private static Host host(String id) {
+        Host h = new Host();
+        h.setId(id);
+        h.setStandardRate(new BigDecimal("100"));
+        h.setWeekendsRate(new BigDecimal("150"));
+        return h;
+    }
+}
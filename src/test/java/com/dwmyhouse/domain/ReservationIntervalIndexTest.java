@@ -0,0 +1,114 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationIntervalIndexTest {
+
+    static final LocalDate BASE = LocalDate.of(2030, 1, 1);
+
+    @Test
+    void shouldMatchLinearScan() {
+        Random random = new Random(42);
+        List<Reservation> all = new ArrayList<>();
+        for (int i = 1; i <= 500; i++) {
+            // Random, possibly overlapping stays: the index must not rely on clean data
+            LocalDate start = BASE.plusDays(random.nextInt(2000));
+            all.add(new Reservation(i, start, start.plusDays(1 + random.nextInt(20)), "guest-" + i, null));
+        }
+        ReservationIntervalIndex index = ReservationIntervalIndex.of(all);
+
+        for (int q = 0; q < 1000; q++) {
+            LocalDate start = BASE.plusDays(random.nextInt(2100) - 50);
+            LocalDate end = start.plusDays(random.nextInt(30));
+            List<Integer> expected = new ArrayList<>();
+            for (Reservation r : all) {
+                if (!r.getStartDate().isAfter(end) && !r.getEndDate().isBefore(start)) {
+                    expected.add(r.getId());
+                }
+            }
+            List<Integer> actual = index.overlapping(start, end).stream().map(Reservation::getId).sorted().toList();
+            assertEquals(expected.stream().sorted().toList(), actual);
+            assertEquals(!expected.isEmpty(), index.overlapsAny(start, end, 0));
+        }
+    }
+
+    @Test
+    void shouldTreatDatesAsInclusive() {
+        ReservationIntervalIndex index = ReservationIntervalIndex.of(List.of(
+                new Reservation(1, BASE, BASE.plusDays(3), "guest-1", null)));
+
+        assertTrue(index.overlapsAny(BASE.plusDays(3), BASE.plusDays(5), 0));
+        assertTrue(index.overlapsAny(BASE.minusDays(2), BASE, 0));
+        assertFalse(index.overlapsAny(BASE.plusDays(4), BASE.plusDays(5), 0));
+        assertFalse(index.overlapsAny(BASE, BASE.plusDays(3), 1));
+    }
+
+    @Test
+    void shouldAddAndRemoveRows() {
+        ReservationIntervalIndex index = ReservationIntervalIndex.of(List.of(
+                new Reservation(1, BASE, BASE.plusDays(3), "guest-1", null),
+                new Reservation(2, BASE.plusDays(20), BASE.plusDays(22), "guest-2", null)));
+
+        index = index.with(new Reservation(3, BASE.plusDays(10), BASE.plusDays(12), "guest-3", null));
+        assertEquals(3, index.size());
+        assertEquals(3, index.overlapping(BASE.plusDays(11), BASE.plusDays(11)).get(0).getId());
+
+        index = index.without(1);
+        assertEquals(2, index.size());
+        assertFalse(index.overlapsAny(BASE, BASE.plusDays(3), 0));
+        assertSame(index, index.without(99));
+    }
+
+    @Test
+    void shouldNotExposeIndexedRows() {
+        ReservationIntervalIndex index = ReservationIntervalIndex.of(List.of(
+                new Reservation(1, BASE, BASE.plusDays(3), "guest-1", null)));
+
+        index.overlapping(BASE, BASE).get(0).setStartDate(BASE.plusDays(50));
+        index.find(1).setGuestId("changed");
+
+        assertEquals(BASE, index.overlapping(BASE, BASE).get(0).getStartDate());
+        assertEquals("guest-1", index.find(1).getGuestId());
+    }
+
+    @Test
+    void shouldSeeChangesMadeOutsideTheService(@TempDir Path tempDir) throws Exception {
+        Path hostFile = tempDir.resolve("host-1.csv");
+        LocalDate start = LocalDate.now().plusDays(10);
+        Files.writeString(hostFile, "id,start_date,end_date,guest_id,total\n"
+                + "1," + start + "," + start.plusDays(2) + ",guest-1,200\n");
+        ReservationRepository repository = new ReservationRepository(tempDir.toString());
+        ReservationService service = new ReservationService(repository);
+        Host host = new Host();
+        host.setId("host-1");
+        host.setStandardRate(new BigDecimal("100"));
+        host.setWeekendsRate(new BigDecimal("100"));
+
+        assertFalse(service.makeReservation(
+                new Reservation(0, start.plusDays(1), start.plusDays(4), "guest-2", null), host));
+        assertTrue(service.makeReservation(
+                new Reservation(0, start.plusDays(3), start.plusDays(4), "guest-2", null), host));
+        assertEquals(2, service.findReservationsBetween("host-1", start, start.plusDays(5)).size());
+
+        // Another process frees the dates: the cached index must be rebuilt
+        repository.delete(1, "host-1");
+        Files.setLastModifiedTime(hostFile, FileTime.fromMillis(System.currentTimeMillis() + 5000));
+        assertTrue(service.makeReservation(
+                new Reservation(0, start, start.plusDays(2), "guest-3", null), host));
+    }
+}
@@ -0,0 +1,62 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Rough comparison of a burst of bookings for one host made with makeReservation (one file rewrite each)
+ * against makeReservationAsync (queued and saved in batches). Uses durable CSV writes in a temp folder.
+ * Not a unit test; run the main method by hand, e.g. with 2000 as the first argument.
+ */
+public class ReservationMailboxBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int bookings = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        Host host = new Host();
+        host.setId("host-1");
+        host.setStandardRate(new BigDecimal("100"));
+        host.setWeekendsRate(new BigDecimal("150"));
+
+        for (int round = 0; round < 3; round++) {
+            ReservationService blocking = new ReservationService(
+                    new ReservationRepository(Files.createTempDirectory("mailbox-bench").toString()));
+            long t0 = System.nanoTime();
+            for (Reservation r : burst(bookings)) {
+                blocking.makeReservation(r, host);
+            }
+            long t1 = System.nanoTime();
+
+            ReservationService queued = new ReservationService(
+                    new ReservationRepository(Files.createTempDirectory("mailbox-bench").toString()));
+            long t2 = System.nanoTime();
+            List<CompletableFuture<Boolean>> results = new ArrayList<>();
+            for (Reservation r : burst(bookings)) {
+                results.add(queued.makeReservationAsync(r, host));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).join();
+            long t3 = System.nanoTime();
+
+            System.out.printf("bookings=%d blocking=%dms async=%dms stored=%d/%d%n", bookings,
+                    (t1 - t0) / 1_000_000, (t3 - t2) / 1_000_000,
+                    blocking.viewReservationsForHost("host-1").size(), queued.viewReservationsForHost("host-1").size());
+        }
+    }
+
+    private static List<Reservation> burst(int count) {
+        List<Reservation> result = new ArrayList<>();
+        LocalDate start = LocalDate.now().plusDays(1);
+        for (int i = 0; i < count; i++) {
+            LocalDate from = start.plusDays(i * 3L);
+            result.add(new Reservation(0, from, from.plusDays(2), "guest-" + i, null));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.models.Reservation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Rough comparison of the linear overlap scan against ReservationIntervalIndex for one large host.
+ * Not a unit test; run the main method by hand, e.g. with 50000 as the first argument.
+ */
+public class ReservationOverlapBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int queries = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        Random random = new Random(1);
+
+        // Back-to-back stays with small gaps, like a busy host
+        List<Reservation> reservations = new ArrayList<>();
+        LocalDate day = LocalDate.of(2030, 1, 1);
+        for (int i = 1; i <= rows; i++) {
+            day = day.plusDays(random.nextInt(3));
+            LocalDate end = day.plusDays(1 + random.nextInt(6));
+            reservations.add(new Reservation(i, day, end, "guest-" + i, null));
+            day = end.plusDays(1);
+        }
+        long span = day.toEpochDay() - LocalDate.of(2030, 1, 1).toEpochDay();
+        LocalDate[] starts = new LocalDate[queries];
+        for (int q = 0; q < queries; q++) {
+            starts[q] = LocalDate.of(2030, 1, 1).plusDays(random.nextInt((int) span));
+        }
+
+        for (int round = 0; round < 3; round++) {
+            long t0 = System.nanoTime();
+            int linearHits = 0;
+            for (LocalDate s : starts) {
+                LocalDate e = s.plusDays(3);
+                for (Reservation r : reservations) {
+                    if (!r.getStartDate().isAfter(e) && !r.getEndDate().isBefore(s)) {
+                        linearHits++;
+                        break;
+                    }
+                }
+            }
+            long t1 = System.nanoTime();
+            ReservationIntervalIndex index = ReservationIntervalIndex.of(reservations);
+            long t2 = System.nanoTime();
+            int indexHits = 0;
+            for (LocalDate s : starts) {
+                if (index.overlapsAny(s, s.plusDays(3), 0)) {
+                    indexHits++;
+                }
+            }
+            long t3 = System.nanoTime();
+            System.out.printf("rows=%d queries=%d linear=%dms build=%dms index=%dms hits=%d/%d%n",
+                    rows, queries, (t1 - t0) / 1_000_000, (t2 - t1) / 1_000_000, (t3 - t2) / 1_000_000,
+                    linearHits, indexHits);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.DurableFileWriter;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import com.dwmyhouse.testutils.FakeReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationServiceAsyncTest {
+
+    @TempDir
+    Path tempDir;
+
+    DurableFileWriter writer;
+    ReservationRepository repository;
+    ReservationService service;
+    Host host;
+    LocalDate start;
+
+    @BeforeEach
+    void setup() {
+        writer = new DurableFileWriter(0);
+        repository = new ReservationRepository(tempDir.toString(), false, writer);
+        service = new ReservationService(repository);
+        host = host("host-1");
+        start = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    void shouldCoalesceABurstIntoFewWrites() throws Exception {
+        int count = 200;
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDate from = start.plusDays(i * 3L);
+            results.add(service.makeReservationAsync(
+                    new Reservation(0, from, from.plusDays(1), "guest-" + i, null), host));
+        }
+        for (CompletableFuture<Boolean> result : results) {
+            assertTrue(result.get(30, TimeUnit.SECONDS));
+        }
+
+        List<Reservation> stored = service.viewReservationsForHost("host-1");
+        assertEquals(count, stored.size());
+        assertEquals(count, stored.stream().map(Reservation::getId).distinct().count());
+        assertTrue(writer.getCommitCount() < count / 4, "commits: " + writer.getCommitCount());
+    }
+
+    @Test
+    void shouldAcceptOnlyOneOfOverlappingQueuedBookings() throws Exception {
+        List<CompletableFuture<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            results.add(service.makeReservationAsync(
+                    new Reservation(0, start.plusDays(i % 2), start.plusDays(i % 2 + 3), "guest-" + i, null), host));
+        }
+
+        int booked = 0;
+        for (CompletableFuture<Boolean> result : results) {
+            booked += result.get(30, TimeUnit.SECONDS) ? 1 : 0;
+        }
+        assertEquals(1, booked);
+        assertTrue(results.get(0).get()); // arrival order decides
+        assertEquals(1, repository.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldApplyEditsAndCancelsInOrder() throws Exception {
+        Reservation first = new Reservation(0, start, start.plusDays(2), "guest-1", null);
+        Reservation second = new Reservation(0, start.plusDays(10), start.plusDays(12), "guest-2", null);
+        assertTrue(service.makeReservation(first, host));
+        assertTrue(service.makeReservation(second, host));
+
+        Reservation moved = new Reservation(first.getId(), start.plusDays(4), start.plusDays(6), "guest-1", null);
+        Reservation clash = new Reservation(second.getId(), start.plusDays(5), start.plusDays(7), "guest-2", null);
+        CompletableFuture<Boolean> edit = service.editReservationAsync(moved, host);
+        CompletableFuture<Boolean> clashingEdit = service.editReservationAsync(clash, host);
+        CompletableFuture<Boolean> cancel = service.cancelReservationAsync(second.getId(), "host-1");
+        CompletableFuture<Boolean> cancelAgain = service.cancelReservationAsync(second.getId(), "host-1");
+
+        assertTrue(edit.get(30, TimeUnit.SECONDS));
+        assertFalse(clashingEdit.get(30, TimeUnit.SECONDS));
+        assertTrue(cancel.get(30, TimeUnit.SECONDS));
+        assertFalse(cancelAgain.get(30, TimeUnit.SECONDS));
+
+        List<Reservation> stored = repository.findByHost("host-1");
+        assertEquals(1, stored.size());
+        assertEquals(start.plusDays(4), stored.get(0).getStartDate());
+        assertEquals(0, new BigDecimal("200").compareTo(stored.get(0).getTotal()));
+    }
+
+    @Test
+    void shouldRejectWhenMailboxIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        FakeReservationRepository blocking = new FakeReservationRepository() {
+            @Override
+            public boolean applyChanges(String hostId, List<Reservation> added, Collection<Reservation> updated,
+                                        Collection<Integer> deletedIds) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.applyChanges(hostId, added, updated, deletedIds);
+            }
+        };
+        ReservationService small = new ReservationService(blocking, null, null, 2);
+
+        CompletableFuture<Boolean> inProgress = small.makeReservationAsync(stay(0, 1), host);
+        assertTrue(started.await(30, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued1 = small.makeReservationAsync(stay(2, 2), host);
+        CompletableFuture<Boolean> queued2 = small.makeReservationAsync(stay(6, 3), host);
+        CompletableFuture<Boolean> rejected = small.makeReservationAsync(stay(10, 4), host);
+
+        assertEquals(2, small.pendingChanges("host-1"));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> rejected.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+
+        release.countDown();
+        assertTrue(inProgress.get(30, TimeUnit.SECONDS));
+        assertTrue(queued1.get(30, TimeUnit.SECONDS));
+        assertTrue(queued2.get(30, TimeUnit.SECONDS));
+        assertEquals(3, blocking.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldLeaveCallersReservationsUntouchedWhenSaveFails() throws Exception {
+        FakeReservationRepository failing = new FakeReservationRepository() {
+            @Override
+            public boolean applyChanges(String hostId, List<Reservation> added, Collection<Reservation> updated,
+                                        Collection<Integer> deletedIds) {
+                return false;
+            }
+        };
+        failing.add(stay(0, 1), "host-1");
+        ReservationService failingService = new ReservationService(failing);
+
+        Reservation made = stay(4, 0);
+        Reservation edited = stay(0, 1);
+        edited.setEndDate(start.plusDays(2));
+        edited.setVersion(0); // any version
+        CompletableFuture<Boolean> make = failingService.makeReservationAsync(made, host);
+        CompletableFuture<Boolean> edit = failingService.editReservationAsync(edited, host);
+
+        assertFalse(make.get(30, TimeUnit.SECONDS));
+        assertFalse(edit.get(30, TimeUnit.SECONDS));
+        assertEquals(0, made.getId());
+        assertNull(made.getTotal());
+        assertNull(edited.getTotal());
+        assertEquals(0, edited.getVersion());
+    }
+
+    @Test
+    void shouldCompleteFuturesWhenBatchThrowsError() throws Exception {
+        FakeReservationRepository broken = new FakeReservationRepository() {
+            @Override
+            public boolean applyChanges(String hostId, List<Reservation> added, Collection<Reservation> updated,
+                                        Collection<Integer> deletedIds) {
+                throw new AssertionError("broken storage");
+            }
+        };
+        CompletableFuture<Boolean> make = new ReservationService(broken).makeReservationAsync(stay(0, 0), host);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> make.get(30, TimeUnit.SECONDS));
+        assertInstanceOf(AssertionError.class, e.getCause());
+    }
+
+    private Reservation stay(int offset, int id) {
+        return new Reservation(id, start.plusDays(offset), start.plusDays(offset + 1), "guest-" + id, null);
+    }
+
+    private static Host host(String id) {
+        Host host = new Host();
+        host.setId(id);
+        host.setStandardRate(new BigDecimal("100"));
+        host.setWeekendsRate(new BigDecimal("100"));
+        return host;
+    }
+}
@@ -0,0 +1,161 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress tests for ReservationService used from many threads against the CSV repository
+ */
+public class ReservationServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    @TempDir
+    Path tempDir;
+
+    ReservationRepository repository;
+    ReservationService service;
+
+    @BeforeEach
+    void setup() {
+        repository = new ReservationRepository(tempDir.toString());
+        service = new ReservationService(repository);
+    }
+
+    @Test
+    void shouldBookSameDatesOnlyOnce() throws Exception {
+        Host host = host("host-1");
+        LocalDate start = LocalDate.now().plusDays(30);
+        AtomicInteger booked = new AtomicInteger();
+
+        runConcurrently(THREADS * 4, i -> {
+            Reservation r = new Reservation(0, start.plusDays(i % 3), start.plusDays(i % 3 + 2), "guest-" + i, null);
+            if (service.makeReservation(r, host)) {
+                booked.incrementAndGet();
+            }
+        });
+
+        assertEquals(1, booked.get());
+        assertEquals(1, repository.findByHost("host-1").size());
+    }
+
+    @Test
+    void shouldNotLoseBookingsAcrossHosts() throws Exception {
+        int hosts = 8;
+        int perHost = 25;
+        LocalDate start = LocalDate.now().plusDays(10);
+
+        // Non-overlapping 2-night stays, interleaved so every host is written from several threads
+        runConcurrently(hosts * perHost, i -> {
+            Host host = host("host-" + (i % hosts));
+            LocalDate from = start.plusDays((i / hosts) * 4L);
+            Reservation r = new Reservation(0, from, from.plusDays(2), "guest-" + i, null);
+            assertTrue(service.makeReservation(r, host));
+        });
+
+        Set<Integer> ids = new HashSet<>();
+        for (int h = 0; h < hosts; h++) {
+            List<Reservation> stored = service.viewReservationsForHost("host-" + h);
+            assertEquals(perHost, stored.size());
+            stored.forEach(r -> ids.add(r.getId()));
+        }
+        assertEquals(hosts * perHost, ids.size());
+    }
+
+    @Test
+    void shouldKeepReadsConsistentWhileEditingAndCancelling() throws Exception {
+        Host host = host("host-1");
+        LocalDate start = LocalDate.now().plusDays(10);
+        List<Reservation> originals = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Reservation r = new Reservation(0, start.plusDays(i * 10L), start.plusDays(i * 10L + 2), "guest-" + i, null);
+            assertTrue(service.makeReservation(r, host));
+            originals.add(r);
+        }
+
+        runConcurrently(THREADS * 4, i -> {
+            Reservation original = originals.get(i % originals.size());
+            switch (i % 4) {
+                case 0 -> service.cancelReservation(original.getId(), host.getId());
+                case 1 -> {
+                    Reservation moved = new Reservation(original.getId(), original.getStartDate().plusDays(1),
+                            original.getEndDate().plusDays(1), original.getGuestId(), null);
+                    service.editReservation(moved, host);
+                }
+                default -> {
+                    List<Reservation> seen = service.viewReservationsForHost(host.getId());
+                    assertEquals(seen.size(), seen.stream().map(Reservation::getId).distinct().count());
+                }
+            }
+        });
+
+        List<Reservation> stored = service.viewReservationsForHost(host.getId());
+        assertEquals(stored.size(), stored.stream().map(Reservation::getId).distinct().count());
+        for (Reservation a : stored) {
+            for (Reservation b : stored) {
+                if (a.getId() != b.getId()) {
+                    assertTrue(a.getEndDate().isBefore(b.getStartDate()) || b.getEndDate().isBefore(a.getStartDate()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs task(0..count-1) on THREADS threads, all released at once, and rethrows the first failure
+     */
+    private static void runConcurrently(int count, IntTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                int n = i;
+                Callable<Void> call = () -> {
+                    go.await();
+                    task.run(n);
+                    return null;
+                };
+                futures.add(pool.submit(call));
+            }
+            go.countDown();
+            for (Future<Void> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private interface IntTask {
+        void run(int i) throws Exception;
+    }
+
+    private static Host host(String id) {
+        Host host = new Host();
+        host.setId(id);
+        host.setStandardRate(new BigDecimal("100"));
+        host.setWeekendsRate(new BigDecimal("120"));
+        return host;
+    }
+}
@@ -0,0 +1,93 @@
+package com.dwmyhouse.domain;
+
+import com.dwmyhouse.data.ReservationMemoryRepository;
+import com.dwmyhouse.models.Host;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReservationServiceVersionTest {
+
+    ReservationService service;
+    ReservationMemoryRepository repository;
+    Host host;
+    Reservation stored;
+
+    @BeforeEach
+    void setup() {
+        repository = new ReservationMemoryRepository();
+        service = new ReservationService(repository);
+
+        host = new Host();
+        host.setId("host-1");
+        host.setStandardRate(new BigDecimal("100"));
+        host.setWeekendsRate(new BigDecimal("150"));
+
+        stored = new Reservation(0, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), "guest-1", null);
+        assertTrue(service.makeReservation(stored, host));
+    }
+
+    @Test
+    void shouldBumpVersionOnEdit() {
+        Reservation edit = service.viewReservationsForHost("host-1").get(0);
+        assertEquals(1, edit.getVersion());
+        edit.setEndDate(LocalDate.now().plusDays(13));
+
+        assertEquals(ChangeResult.SUCCESS, service.tryEditReservation(edit, host));
+        assertEquals(2, edit.getVersion());
+        assertEquals(2, service.viewReservationsForHost("host-1").get(0).getVersion());
+    }
+
+    @Test
+    void shouldRejectEditOfStaleCopy() {
+        Reservation mine = service.viewReservationsForHost("host-1").get(0);
+        Reservation theirs = service.viewReservationsForHost("host-1").get(0);
+        theirs.setEndDate(LocalDate.now().plusDays(14));
+        assertTrue(service.editReservation(theirs, host));
+
+        mine.setEndDate(LocalDate.now().plusDays(11));
+        assertEquals(ChangeResult.CONFLICT, service.tryEditReservation(mine, host));
+        assertEquals(LocalDate.now().plusDays(14), service.viewReservationsForHost("host-1").get(0).getEndDate());
+    }
+
+    @Test
+    void shouldRejectCancelOfStaleVersion() {
+        Reservation edit = service.viewReservationsForHost("host-1").get(0);
+        edit.setEndDate(LocalDate.now().plusDays(13));
+        assertTrue(service.editReservation(edit, host));
+
+        assertEquals(ChangeResult.CONFLICT, service.tryCancelReservation(edit.getId(), 1, "host-1"));
+        assertEquals(ChangeResult.SUCCESS, service.tryCancelReservation(edit.getId(), 2, "host-1"));
+        assertEquals(ChangeResult.NOT_FOUND, service.tryCancelReservation(edit.getId(), 2, "host-1"));
+    }
+
+    @Test
+    void shouldReportMissingAndInvalidEdits() {
+        Reservation missing = new Reservation(stored.getId() + 100,
+                LocalDate.now().plusDays(20), LocalDate.now().plusDays(21), "guest-1", null);
+        missing.setVersion(1);
+        assertEquals(ChangeResult.NOT_FOUND, service.tryEditReservation(missing, host));
+
+        Reservation backwards = service.viewReservationsForHost("host-1").get(0);
+        backwards.setEndDate(backwards.getStartDate().minusDays(1));
+        assertEquals(ChangeResult.INVALID, service.tryEditReservation(backwards, host));
+    }
+
+    @Test
+    void shouldRejectStaleAsyncEdit() throws Exception {
+        Reservation mine = service.viewReservationsForHost("host-1").get(0);
+        Reservation theirs = service.viewReservationsForHost("host-1").get(0);
+        theirs.setEndDate(LocalDate.now().plusDays(14));
+        assertTrue(service.editReservationAsync(theirs, host).get(5, TimeUnit.SECONDS));
+
+        mine.setEndDate(LocalDate.now().plusDays(11));
+        assertFalse(service.editReservationAsync(mine, host).get(5, TimeUnit.SECONDS));
+        assertEquals(2, service.viewReservationsForHost("host-1").get(0).getVersion());
+    }
+}
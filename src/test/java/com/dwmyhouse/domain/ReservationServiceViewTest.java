@@ -1,21 +1,42 @@
 package com.dwmyhouse.domain;
 
+import com.dwmyhouse.data.GuestReservationIndex;
+import com.dwmyhouse.data.ReservationMemoryRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.data.ReservationSnapshotStore;
+import com.dwmyhouse.models.Host;
 import com.dwmyhouse.models.Reservation;
 import com.dwmyhouse.testutils.FakeReservationRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 public class ReservationServiceViewTest {
 
     ReservationService service;
     FakeReservationRepository fakeRepo;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setup() {
 
@@ -55,4 +76,144 @@ public class ReservationServiceViewTest {
         List<Reservation> result = service.viewReservationsForHost("host-none");
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    void shouldLimitSnapshotResultsToRequestedHosts() throws Exception {
+        Path reservationDir = tempDir.resolve("reservations");
+        Files.createDirectories(reservationDir);
+        Files.writeString(reservationDir.resolve("host-1.csv"), "id,start_date,end_date,guest_id,total\n"
+                + "1,2030-01-01,2030-01-03,guest-1,200\n");
+        Files.writeString(reservationDir.resolve("host-2.csv"), "id,start_date,end_date,guest_id,total\n"
+                + "2,2030-01-05,2030-01-06,guest-1,75\n");
+        ReservationRepository repository = new ReservationRepository(reservationDir.toString());
+        ReservationSnapshotStore store = new ReservationSnapshotStore(
+                tempDir.resolve("reservations.snapshot").toString(), reservationDir.toString(), repository);
+        ReservationService withSnapshot = new ReservationService(repository, store);
+
+        List<Reservation> result = withSnapshot.viewReservationsForGuest("guest-1", List.of(host("host-2")));
+        assertEquals(1, result.size());
+        assertEquals("host-2", result.get(0).getHostId());
+        assertEquals(result, new ReservationService(repository).viewReservationsForGuest("guest-1", List.of(host("host-2"))));
+    }
+
+    @Test
+    void shouldFindGuestReservationsByScanningWithoutIndex() {
+        List<Reservation> result = service.viewReservationsForGuest("102", List.of(host("host-abc"), host("host-other")));
+        assertEquals(1, result.size());
+        assertEquals(2, result.get(0).getId());
+    }
+
+    @Test
+    void shouldNotBuildGuestIndexFromRequestedHosts() {
+        GuestReservationIndex index = new GuestReservationIndex(tempDir.resolve("guest-index.log").toString());
+        ReservationService indexed = new ReservationService(fakeRepo, null, index);
+
+        List<Reservation> result = indexed.viewReservationsForGuest("103", List.of(host("host-abc")));
+        assertTrue(result.isEmpty());
+        assertFalse(index.isReady()); // a partial index would hide host-other from later lookups
+
+        List<Host> hosts = List.of(host("host-abc"), host("host-other"));
+        assertEquals(1, indexed.findReservationsForGuest("103", () -> hosts).size());
+    }
+
+    @Test
+    void shouldBuildGuestIndexOnFirstLookupThenReadOnlyIndexedHosts() {
+        FakeReservationRepository repository = spy(fakeRepo);
+        GuestReservationIndex index = new GuestReservationIndex(tempDir.resolve("guest-index.log").toString());
+        ReservationService indexed = new ReservationService(repository, null, index);
+        AtomicInteger hostLoads = new AtomicInteger();
+        List<Host> hosts = List.of(host("host-abc"), host("host-other"));
+
+        List<Reservation> first = indexed.findReservationsForGuest("103", () -> {
+            hostLoads.incrementAndGet();
+            return hosts;
+        });
+        assertEquals(1, first.size());
+        assertEquals(1, hostLoads.get());
+
+        Reservation added = new Reservation(4, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), "103", null);
+        assertTrue(indexed.makeReservation(added, host("host-abc")));
+        clearInvocations(repository);
+
+        List<Reservation> second = indexed.findReservationsForGuest("103", () -> {
+            hostLoads.incrementAndGet();
+            return hosts;
+        });
+        assertEquals(2, second.size());
+        assertEquals(1, hostLoads.get()); // the index was ready, hosts weren't needed
+        verify(repository).findByHost("host-abc");
+        verify(repository).findByHost("host-other");
+
+        assertTrue(indexed.findReservationsForGuest("999", () -> hosts).isEmpty());
+        verify(repository, times(2)).findByHost(anyString()); // unknown guest: no host read
+    }
+
+    @Test
+    void shouldDropStaleGuestIndexEntries() {
+        GuestReservationIndex index = new GuestReservationIndex(tempDir.resolve("guest-index.log").toString());
+        ReservationService indexed = new ReservationService(fakeRepo, null, index);
+        List<Host> hosts = List.of(host("host-abc"), host("host-other"));
+        assertTrue(indexed.rebuildGuestIndex(hosts));
+
+        fakeRepo.delete(1, "host-abc"); // removed behind the service's back
+        assertTrue(indexed.findReservationsForGuest("101", () -> hosts).isEmpty());
+        assertEquals(Map.of(), index.find("101"));
+        assertEquals(Map.of("host-abc", Set.of(2)), index.find("102"));
+    }
+
+    @Test
+    void shouldReindexHostsChangedOutsideTheService() {
+        ReservationMemoryRepository repository = new ReservationMemoryRepository();
+        repository.add(new Reservation(0, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3), "101", null), "host-abc");
+        Path file = tempDir.resolve("guest-index.log");
+        ReservationService indexed = new ReservationService(repository, null,
+                new GuestReservationIndex(file.toString()), 1000, 0);
+        List<Host> hosts = List.of(host("host-abc"), host("host-new"));
+        assertEquals(1, indexed.findReservationsForGuest("101", () -> hosts).size());
+
+        // Written behind the service's back, to an indexed host and to one that had no rows
+        repository.add(new Reservation(0, LocalDate.of(2030, 2, 1), LocalDate.of(2030, 2, 3), "101", null), "host-abc");
+        repository.add(new Reservation(0, LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 3), "101", null), "host-new");
+        assertEquals(3, indexed.findReservationsForGuest("101", () -> hosts).size());
+
+        // A write through the service keeps the host current; the next lookup trusts the index
+        Reservation made = new Reservation(0, LocalDate.now().plusDays(10), LocalDate.now().plusDays(12), "101", null);
+        assertTrue(indexed.makeReservation(made, host("host-new")));
+        GuestReservationIndex reopened = new GuestReservationIndex(file.toString());
+        assertTrue(reopened.isCurrent("host-new", repository.changeToken("host-new")));
+        assertEquals(4, indexed.findReservationsForGuest("101", () -> hosts).size());
+    }
+
+    @Test
+    void shouldOnlyCheckTheGuestsHostsBetweenSweeps() {
+        AtomicInteger tokenReads = new AtomicInteger();
+        ReservationMemoryRepository repository = new ReservationMemoryRepository() {
+            @Override
+            public synchronized Object changeToken(String hostId) {
+                tokenReads.incrementAndGet();
+                return super.changeToken(hostId);
+            }
+        };
+        List<Host> hosts = List.of(host("host-1"), host("host-2"), host("host-3"));
+        repository.add(new Reservation(0, LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 3), "101", null), "host-2");
+        ReservationService indexed = new ReservationService(repository, null,
+                new GuestReservationIndex(tempDir.resolve("guest-index.log").toString()), 1000, 60_000);
+        assertEquals(1, indexed.findReservationsForGuest("101", () -> hosts).size()); // builds the index
+
+        tokenReads.set(0);
+        assertEquals(1, indexed.findReservationsForGuest("101", () -> hosts).size());
+        assertEquals(1, tokenReads.get()); // only host-2, which holds the guest's booking
+
+        // The guest's own hosts are always re-checked
+        repository.add(new Reservation(0, LocalDate.of(2030, 2, 1), LocalDate.of(2030, 2, 3), "101", null), "host-2");
+        assertEquals(2, indexed.findReservationsForGuest("101", () -> hosts).size());
+    }
+
+    private static Host host(String id) {
+        Host host = new Host();
+        host.setId(id);
+        host.setStandardRate(new BigDecimal("100"));
+        host.setWeekendsRate(new BigDecimal("120"));
+        return host;
+    }
 }
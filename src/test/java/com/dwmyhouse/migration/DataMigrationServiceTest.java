@@ -25,6 +25,7 @@ public class DataMigrationServiceTest {
     GuestJsonRepository guestJsonRepo;
     HostJsonRepository hostJsonRepo;
     ReservationJsonRepository resJsonRepo;
+    PartitionedReservationJsonRepository partitionedRepo;
 
     DataMigrationService service;
 
@@ -39,12 +40,13 @@ public class DataMigrationServiceTest {
         guestJsonRepo = new GuestJsonRepository(tempDir.resolve("guests.json").toString());
         hostJsonRepo = new HostJsonRepository(tempDir.resolve("hosts.json").toString());
         resJsonRepo = new ReservationJsonRepository(tempDir.resolve("reservations.json").toString());
+        partitionedRepo = new PartitionedReservationJsonRepository(tempDir.resolve("reservations-json").toString());
 
         // 3. The migration service
         service = new DataMigrationService(
                 mockGuestRepo, guestJsonRepo,
                 mockHostRepo, hostJsonRepo,
-                mockResRepo, resJsonRepo
+                mockResRepo, resJsonRepo, partitionedRepo
         );
     }
 
@@ -70,7 +72,7 @@ public class DataMigrationServiceTest {
         res.setHostId("H001");
 
         Mockito.when(mockHostRepo.findAll()).thenReturn(List.of(host));
-        Mockito.when(mockResRepo.findByHost("H001")).thenReturn(List.of(res));
+        Mockito.when(mockResRepo.readHostFile("H001")).thenReturn(List.of(res));
 
         service.migrateReservations();
 
@@ -80,6 +82,25 @@ public class DataMigrationServiceTest {
         assertEquals("G001", migrated.get(0).getGuestId());
     }
 
+    @Test
+    void shouldMigrateReservationsToPartitions() {
+        Host host = new Host("H001", "Smith", "smith@example.com", "123-456-7890",
+                "123 Main", "Albany", "NY", "12207",
+                new BigDecimal("100"), new BigDecimal("150"));
+        Reservation first = new Reservation(1, LocalDate.now(), LocalDate.now().plusDays(2), "G001", new BigDecimal("300"));
+        Reservation second = new Reservation(2, LocalDate.now().plusDays(5), LocalDate.now().plusDays(6), "G002", new BigDecimal("100"));
+
+        Mockito.when(mockHostRepo.findAll()).thenReturn(List.of(host));
+        Mockito.when(mockResRepo.readHostFile("H001")).thenReturn(List.of(first, second));
+
+        service.migrateReservationsToPartitions();
+
+        List<Reservation> migrated = partitionedRepo.findByHostId("H001");
+        assertEquals(2, migrated.size());
+        assertEquals("G001", migrated.get(0).getGuestId());
+        assertEquals(List.of("H001"), partitionedRepo.hostIds());
+    }
+
     @Test
     void shouldMigrateHostsCorrectly() {
         Host host = new Host("H001", "Smith", "smith@example.com", "123-456-7890",
@@ -0,0 +1,120 @@
+package com.dwmyhouse.migration;
+
+import com.dwmyhouse.data.DurableFileWriter;
+import com.dwmyhouse.data.GuestJsonRepository;
+import com.dwmyhouse.data.GuestRepository;
+import com.dwmyhouse.data.HostJsonRepository;
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.PartitionedReservationJsonRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalSyncServiceTest {
+
+    static final String RESERVATION_HEADER = "id,start_date,end_date,guest_id,total\n";
+
+    Path dir;
+    Path reservationDir;
+    PartitionedReservationJsonRepository partitions;
+    GuestJsonRepository guestJson;
+    IncrementalSyncService service;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        dir = tempDir;
+        Files.writeString(dir.resolve("guests.csv"), "guest_id,first_name,last_name,email,phone,state\n"
+                + "1,Ann,Lee,ann@example.com,(555) 5555555,TX\n"
+                + "2,Bo,Kim,bo@example.com,(555) 5555556,NY\n");
+        Files.writeString(dir.resolve("hosts.csv"),
+                "id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate\n"
+                + "h1,One,one@example.com,5555555555,1 Main St,Austin,TX,78701,100,150\n"
+                + "h2,Two,two@example.com,5555555556,2 Main St,Austin,TX,78701,100,150\n");
+        reservationDir = Files.createDirectories(dir.resolve("reservations"));
+        Files.writeString(reservationDir.resolve("h1.csv"), RESERVATION_HEADER
+                + "1,2030-01-01,2030-01-03,1,200\n"
+                + "2,2030-02-01,2030-02-03,2,200\n");
+        Files.writeString(reservationDir.resolve("h2.csv"), RESERVATION_HEADER
+                + "1,2030-03-01,2030-03-03,1,200\n");
+
+        DurableFileWriter writer = new DurableFileWriter(0);
+        partitions = new PartitionedReservationJsonRepository(dir.resolve("json").toString(), writer);
+        guestJson = new GuestJsonRepository(dir.resolve("guests.json").toString());
+        service = new IncrementalSyncService(
+                new GuestRepository(dir.resolve("guests.csv").toString()), guestJson,
+                new HostRepository(dir.resolve("hosts.csv").toString()),
+                new HostJsonRepository(dir.resolve("hosts.json").toString()),
+                new ReservationRepository(reservationDir.toString()), partitions,
+                dir.resolve("guests.csv").toString(), dir.resolve("hosts.csv").toString(),
+                reservationDir.toString(), dir.resolve("sync-state.json").toString(), writer);
+    }
+
+    @Test
+    void shouldCopyEverythingOnFirstSync() throws Exception {
+        SyncReport report = service.sync();
+
+        assertEquals(new SyncReport(4, 4, 7, 0, 0), report);
+        assertEquals(2, guestJson.findAll().size());
+        assertEquals(2, partitions.findByHostId("h1").size());
+    }
+
+    @Test
+    void shouldSkipUnchangedFiles() throws Exception {
+        service.sync();
+        assertEquals(new SyncReport(4, 0, 0, 0, 0), service.sync());
+
+        // Touched but identical: hashed, but no rows compared
+        Files.setLastModifiedTime(reservationDir.resolve("h2.csv"), FileTime.fromMillis(1_000_000));
+        assertEquals(new SyncReport(4, 0, 0, 0, 0), service.sync());
+    }
+
+    @Test
+    void shouldApplyRowDiffsForChangedFileOnly() throws Exception {
+        service.sync();
+        Files.writeString(reservationDir.resolve("h1.csv"), RESERVATION_HEADER
+                + "1,2030-01-01,2030-01-05,1,400\n"
+                + "3,2030-04-01,2030-04-03,2,200\n");
+
+        SyncReport report = service.sync();
+
+        assertEquals(new SyncReport(4, 1, 1, 1, 1), report);
+        List<Reservation> h1 = partitions.findByHostId("h1");
+        assertEquals(List.of(1, 3), h1.stream().map(Reservation::getId).toList());
+        assertEquals("2030-01-05", h1.get(0).getEndDate().toString());
+        assertEquals(1, partitions.findByHostId("h2").size());
+    }
+
+    @Test
+    void shouldRemoveReservationsOfDeletedHostFile() throws Exception {
+        service.sync();
+        Files.delete(reservationDir.resolve("h2.csv"));
+
+        SyncReport report = service.sync();
+
+        assertEquals(1, report.deleted());
+        assertTrue(partitions.findByHostId("h2").isEmpty());
+        assertEquals(new SyncReport(3, 0, 0, 0, 0), service.sync());
+    }
+
+    @Test
+    void shouldSyncGuestEdits() throws Exception {
+        service.sync();
+        Files.writeString(dir.resolve("guests.csv"), "guest_id,first_name,last_name,email,phone,state\n"
+                + "1,Ann,Lee,ann@new.example.com,(555) 5555555,TX\n");
+        Files.setLastModifiedTime(dir.resolve("guests.csv"), FileTime.fromMillis(2_000_000));
+
+        SyncReport report = service.sync();
+
+        assertEquals(new SyncReport(4, 1, 0, 1, 1), report);
+        assertEquals("ann@new.example.com", guestJson.findAll().get(0).getEmail());
+    }
+}
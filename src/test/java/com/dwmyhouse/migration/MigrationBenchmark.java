@@ -0,0 +1,96 @@
+package com.dwmyhouse.migration;
+
+import com.dwmyhouse.data.GuestJsonRepository;
+import com.dwmyhouse.data.GuestRepository;
+import com.dwmyhouse.data.HostJsonRepository;
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.PartitionedReservationJsonRepository;
+import com.dwmyhouse.data.ReservationJsonRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Reservation;
+
+import java.io.BufferedWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Times a full migration over a synthetic dataset written to a temp directory.
+ * Not a unit test; run the main method by hand. Defaults: 1000 hosts x 100 reservations, 5000 guests.
+ * Also times the old one-add-per-record approach on the first few hundred reservations for comparison.
+ */
+public class MigrationBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int hosts = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int perHost = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        int guests = 5000;
+        Path dir = Files.createTempDirectory("migration-bench");
+        Path reservationsDir = Files.createDirectories(dir.resolve("reservations"));
+        Random random = new Random(1);
+
+        try (BufferedWriter out = Files.newBufferedWriter(dir.resolve("guests.csv"))) {
+            out.write("guest_id,first_name,last_name,email,phone,state\n");
+            for (int g = 1; g <= guests; g++) {
+                out.write(g + ",First,Last,guest" + g + "@example.com,(555) 5555555,TX\n");
+            }
+        }
+        String[] hostIds = new String[hosts];
+        try (BufferedWriter out = Files.newBufferedWriter(dir.resolve("hosts.csv"))) {
+            out.write("id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate\n");
+            for (int h = 0; h < hosts; h++) {
+                hostIds[h] = UUID.randomUUID().toString();
+                out.write(hostIds[h] + ",Host,host" + h + "@example.com,5555555555,1 Main St,Austin,TX,78701,100,150\n");
+            }
+        }
+        for (String hostId : hostIds) {
+            try (BufferedWriter out = Files.newBufferedWriter(reservationsDir.resolve(hostId + ".csv"))) {
+                out.write("id,start_date,end_date,guest_id,total\n");
+                LocalDate day = LocalDate.of(2024, 1, 1);
+                for (int i = 1; i <= perHost; i++) {
+                    day = day.plusDays(1 + random.nextInt(3));
+                    out.write(i + "," + day + "," + day.plusDays(2) + "," + (1 + random.nextInt(guests)) + ",250\n");
+                    day = day.plusDays(2);
+                }
+            }
+        }
+        System.out.printf("Dataset: %d hosts, %d reservations, %d guests in %s%n", hosts, hosts * perHost, guests, dir);
+
+        ReservationRepository csvReservations = new ReservationRepository(reservationsDir.toString());
+        DataMigrationService service = new DataMigrationService(
+                new GuestRepository(dir.resolve("guests.csv").toString()),
+                new GuestJsonRepository(dir.resolve("guests.json").toString()),
+                new HostRepository(dir.resolve("hosts.csv").toString()),
+                new HostJsonRepository(dir.resolve("hosts.json").toString()),
+                csvReservations,
+                new ReservationJsonRepository(dir.resolve("reservations.json").toString()),
+                new PartitionedReservationJsonRepository(dir.resolve("reservations-json").toString()));
+
+        long t0 = System.nanoTime();
+        List<MigrationStats> stats = service.migrateAll();
+        System.out.printf("Batched migration: %d ms total%n", (System.nanoTime() - t0) / 1_000_000);
+        stats.forEach(System.out::println);
+
+        // Old approach: one add (full read + rewrite of reservations.json) per record
+        int sample = Math.min(500, hosts * perHost);
+        ReservationJsonRepository oneByOne = new ReservationJsonRepository(dir.resolve("one-by-one.json").toString());
+        long t1 = System.nanoTime();
+        int done = 0;
+        for (String hostId : hostIds) {
+            for (Reservation r : csvReservations.findByHost(hostId)) {
+                if (done++ == sample) {
+                    break;
+                }
+                oneByOne.add(r);
+            }
+            if (done > sample) {
+                break;
+            }
+        }
+        System.out.printf("One add per record: %d reservations in %d ms (grows quadratically)%n",
+                sample, (System.nanoTime() - t1) / 1_000_000);
+    }
+}
@@ -0,0 +1,130 @@
+package com.dwmyhouse.migration;
+
+import com.dwmyhouse.data.DurableFileWriter;
+import com.dwmyhouse.data.GuestJsonRepository;
+import com.dwmyhouse.data.GuestRepository;
+import com.dwmyhouse.data.HostJsonRepository;
+import com.dwmyhouse.data.HostRepository;
+import com.dwmyhouse.data.PartitionedReservationJsonRepository;
+import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.models.Reservation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResumableMigrationServiceTest {
+
+    Path dir;
+    Path checkpoint;
+    ReservationRepository reservations;
+    PartitionedReservationJsonRepository partitions;
+    GuestJsonRepository guestJson;
+    ResumableMigrationService service;
+
+    @BeforeEach
+    void setup(@TempDir Path tempDir) throws Exception {
+        dir = tempDir;
+        checkpoint = dir.resolve("checkpoint.json");
+        Files.writeString(dir.resolve("guests.csv"), "guest_id,first_name,last_name,email,phone,state\n"
+                + "1,Ann,Lee,ann@example.com,(555) 5555555,TX\n"
+                + "2,Bo,Kim,bo@example.com,(555) 5555556,NY\n");
+        Files.writeString(dir.resolve("hosts.csv"),
+                "id,last_name,email,phone,address,city,state,postal_code,standard_rate,weekend_rate\n"
+                + "h1,One,one@example.com,5555555555,1 Main St,Austin,TX,78701,100,150\n"
+                + "h2,Two,two@example.com,5555555556,2 Main St,Austin,TX,78701,100.00,150\n"
+                + "h3,Three,three@example.com,5555555557,3 Main St,Austin,TX,78701,100,150\n");
+        Path reservationDir = Files.createDirectories(dir.resolve("reservations"));
+        for (String host : List.of("h1", "h2", "h3")) {
+            StringBuilder rows = new StringBuilder("id,start_date,end_date,guest_id,total\n");
+            for (int i = 1; i <= 7; i++) {
+                rows.append(i).append(",2030-01-").append(String.format("%02d", i * 3))
+                        .append(",2030-01-").append(String.format("%02d", i * 3 + 1)).append(",1,100.50\n");
+            }
+            Files.writeString(reservationDir.resolve(host + ".csv"), rows.toString());
+        }
+
+        reservations = Mockito.spy(new ReservationRepository(reservationDir.toString()));
+        DurableFileWriter writer = new DurableFileWriter(0);
+        partitions = new PartitionedReservationJsonRepository(dir.resolve("json").toString(), writer);
+        guestJson = new GuestJsonRepository(dir.resolve("guests.json").toString());
+        service = new ResumableMigrationService(
+                new GuestRepository(dir.resolve("guests.csv").toString()), guestJson,
+                new HostRepository(dir.resolve("hosts.csv").toString()),
+                new HostJsonRepository(dir.resolve("hosts.json").toString()),
+                reservations, partitions, checkpoint.toString(), 3, writer);
+    }
+
+    @Test
+    void shouldMigrateAndVerify() throws Exception {
+        List<VerificationResult> results = service.run();
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(VerificationResult::matches), results.toString());
+        assertEquals(21, results.get(2).sourceCount());
+        assertEquals(7, partitions.findByHostId("h2").size());
+        assertFalse(Files.exists(checkpoint));
+    }
+
+    @Test
+    void shouldResumeAfterCrashWithoutDuplicates() throws Exception {
+        Mockito.doThrow(new IllegalStateException("disk gone")).doCallRealMethod()
+                .when(reservations).readHostFile("h2");
+
+        assertThrows(IllegalStateException.class, () -> service.run());
+        assertTrue(Files.exists(checkpoint));
+        assertTrue(Files.readString(checkpoint).contains("\"h2\""));
+        assertEquals(7, partitions.findByHostId("h1").size());
+        assertTrue(partitions.findByHostId("h2").isEmpty());
+
+        List<VerificationResult> results = service.run();
+
+        assertTrue(results.stream().allMatch(VerificationResult::matches), results.toString());
+        // h1 was read by the first run and the verification pass only: the second run resumed at h2
+        Mockito.verify(reservations, Mockito.times(2)).readHostFile("h1");
+        assertEquals(7, partitions.findByHostId("h1").size());
+        assertEquals(2, guestJson.findAll().size());
+    }
+
+    @Test
+    void shouldBeIdempotentWhenRunTwice() throws Exception {
+        service.run();
+        List<VerificationResult> results = service.run();
+
+        assertTrue(results.stream().allMatch(VerificationResult::matches));
+        assertEquals(7, partitions.findByHostId("h3").size());
+        assertEquals(2, guestJson.findAll().size());
+    }
+
+    @Test
+    void shouldReportMismatch() throws Exception {
+        service.run();
+        partitions.delete(4, "h3");
+
+        VerificationResult reservationsResult = service.verify().get(2);
+        assertFalse(reservationsResult.matches());
+        assertEquals(20, reservationsResult.targetCount());
+    }
+
+    @Test
+    void shouldCountExtraTargetRows() throws Exception {
+        service.run();
+        // Left behind by an earlier run: a row the source no longer has, and a host that's gone
+        Reservation extra = partitions.findByHostId("h1").get(0);
+        extra.setId(99);
+        assertTrue(partitions.upsertAll("h1", List.of(extra)));
+        extra.setId(100);
+        assertTrue(partitions.upsertAll("gone", List.of(extra)));
+
+        VerificationResult reservationsResult = service.verify().get(2);
+        assertFalse(reservationsResult.matches());
+        assertEquals(21, reservationsResult.sourceCount());
+        assertEquals(23, reservationsResult.targetCount());
+    }
+}
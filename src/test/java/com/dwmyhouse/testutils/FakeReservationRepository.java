@@ -1,22 +1,21 @@
 package com.dwmyhouse.testutils;
 
-import com.dwmyhouse.data.ReservationRepository;
+import com.dwmyhouse.data.ReservationStorage;
+import com.dwmyhouse.data.StorageCapability;
 import com.dwmyhouse.models.Reservation;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Fake in-memory ReservationRepository for testing domain logic.
+ * Fake in-memory ReservationStorage for testing domain logic.
  */
-public class FakeReservationRepository extends ReservationRepository {
+public class FakeReservationRepository implements ReservationStorage {
 
     private final List<Reservation> storage = new ArrayList<>();
 
-    public FakeReservationRepository() {
-        super("src/test/resources/test-data/test-reservations");
-    }
-
     @Override
     public List<Reservation> findByHost(String hostId) {
         return storage.stream()
@@ -47,6 +46,11 @@ public class FakeReservationRepository extends ReservationRepository {
         return storage.removeIf(r -> r.getId() == reservationId);
     }
 
+    @Override
+    public Set<StorageCapability> capabilities() {
+        return EnumSet.noneOf(StorageCapability.class);
+    }
+
     public void clearAll() {
         storage.clear();
     }
@@ -15,8 +15,11 @@ import org.mockito.MockitoAnnotations;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -55,6 +58,7 @@ public class ReservationManagerTest {
         res = new Reservation(1, LocalDate.now().plusDays(1),
                 LocalDate.now().plusDays(3), "G001", new BigDecimal("200"));
         res.setHostId("H001");
+        when(guestService.getGuestsByIds(any())).thenReturn(Map.of("G001", guest));
     }
 
 
@@ -62,35 +66,63 @@ public class ReservationManagerTest {
     void shouldFilterByState() {
         when(view.readMenuSelection(any())).thenReturn("2", "0"); // simulate state filter then exit
         when(view.readRequiredString(any())).thenReturn("NY");
-        when(hostService.findAll()).thenReturn(List.of(host));
+        when(hostService.findByState("NY")).thenReturn(List.of(host));
         when(reservationService.viewReservationsForHost("H001")).thenReturn(List.of(res));
 
         manager.manageReservationFilters();
 
-        verify(view).displayReservations(List.of(res));
+        verify(view).displayReservations(List.of(res), Map.of("G001", guest));
     }
 
     @Test
     void shouldFilterByCity() {
         when(view.readMenuSelection(any())).thenReturn("3", "0");
         when(view.readRequiredString(any())).thenReturn("Albany");
-        when(hostService.findAll()).thenReturn(List.of(host));
+        when(hostService.findByCity("Albany")).thenReturn(List.of(host));
         when(reservationService.viewReservationsForHost("H001")).thenReturn(List.of(res));
 
         manager.manageReservationFilters();
 
-        verify(view).displayReservations(List.of(res));
+        verify(view).displayReservations(List.of(res), Map.of("G001", guest));
     }
 
     @Test
     void shouldFilterByZip() {
         when(view.readMenuSelection(any())).thenReturn("4", "0");
         when(view.readRequiredString(any())).thenReturn("12207");
-        when(hostService.findAll()).thenReturn(List.of(host));
+        when(hostService.findByPostalCode("12207")).thenReturn(List.of(host));
         when(reservationService.viewReservationsForHost("H001")).thenReturn(List.of(res));
 
         manager.manageReservationFilters();
 
-        verify(view).displayReservations(List.of(res));
+        verify(view).displayReservations(List.of(res), Map.of("G001", guest));
+    }
+
+    @Test
+    void shouldViewByGuestEmailWithoutLoadingHostsItself() {
+        when(view.readMenuSelection(any())).thenReturn("1", "0");
+        when(view.readValidEmail(any())).thenReturn("john@example.com");
+        when(guestService.getGuestByEmail("john@example.com")).thenReturn(guest);
+        when(reservationService.findReservationsForGuest(eq("G001"), any())).thenReturn(List.of(res));
+
+        manager.manageReservationFilters();
+
+        verify(view).displayReservations(List.of(res), Map.of("G001", guest));
+        verify(hostService, never()).findAll();
+    }
+
+    @Test
+    void shouldResolveGuestsOnceForAllReservations() {
+        Reservation second = new Reservation(2, LocalDate.now().plusDays(5),
+                LocalDate.now().plusDays(7), "G001", new BigDecimal("200"));
+        when(view.readMenuSelection(any())).thenReturn("2", "0");
+        when(view.readRequiredString(any())).thenReturn("NY");
+        when(hostService.findByState("NY")).thenReturn(List.of(host));
+        when(reservationService.viewReservationsForHost("H001")).thenReturn(List.of(res, second));
+
+        manager.manageReservationFilters();
+
+        verify(guestService, times(1)).getGuestsByIds(List.of("G001", "G001"));
+        verify(guestService, never()).getGuestById(any());
     }
 }